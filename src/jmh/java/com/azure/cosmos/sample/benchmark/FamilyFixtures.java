@@ -0,0 +1,55 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.benchmark;
+
+import com.azure.cosmos.sample.common.Child;
+import com.azure.cosmos.sample.common.Families;
+import com.azure.cosmos.sample.common.Family;
+import com.azure.cosmos.sample.common.FamilyGenerator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Family graphs of fixed shape shared by the benchmarks, so results are comparable between runs and machines.
+ */
+final class FamilyFixtures {
+
+    private static final long SEED = 20200101L;
+
+    private FamilyFixtures() {
+    }
+
+    /**
+     * @param size small, medium or large.
+     * @return a new Family graph of the given size.
+     */
+    static Family family(String size) {
+        switch (size) {
+            case "small":
+                //  Id, lastName and nothing else, like the Johnson family
+                return Families.getJohnsonFamilyItem();
+            case "medium":
+                //  Two parents, two children, two pets and an address
+                return Families.getWakefieldFamilyItem();
+            case "large":
+                return largeFamily();
+            default:
+                throw new IllegalArgumentException("Unknown family size " + size);
+        }
+    }
+
+    //  Two parents and 24 children, most of them with pets, taken from the generator with a fixed seed
+    private static Family largeFamily() {
+        FamilyGenerator generator = new FamilyGenerator(SEED, Long.MAX_VALUE, 1, 0);
+        Family family = generator.familyAt(0);
+        List<Child> children = new ArrayList<>();
+        for (long index = 1; children.size() < 24; index++) {
+            children.addAll(Arrays.asList(generator.familyAt(index).getChildren()));
+        }
+        family.setChildren(children.subList(0, 24).toArray(new Child[0]));
+        return family;
+    }
+}
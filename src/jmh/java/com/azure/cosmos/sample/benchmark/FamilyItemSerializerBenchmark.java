@@ -0,0 +1,98 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.benchmark;
+
+import com.azure.cosmos.CosmosItemSerializer;
+import com.azure.cosmos.sample.common.Family;
+import com.azure.cosmos.implementation.ObjectNodeMap;
+import com.azure.cosmos.sample.common.FamilyItemSerializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the SDK default item serializer, which relies on reflective Jackson databinding, with
+ * {@link FamilyItemSerializer}.
+ *
+ * Both directions pay what the SDK pays around a serializer. The serialize benchmarks go from a Family to JSON
+ * bytes through the serializer Map, writing the tree behind an {@link ObjectNodeMap} as it is and converting any
+ * other Map to a tree first. The deserialize benchmarks wrap the parsed tree of a response in a new
+ * {@link ObjectNodeMap} per item, as the SDK does, so a serializer that reads it through {@link Map#get(Object)}
+ * pays for converting the tree into nested Map instances.
+ * <pre>
+ *  java -jar target/benchmarks.jar FamilyItemSerializerBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FamilyItemSerializerBenchmark {
+
+    @Param({ "small", "medium", "large" })
+    public String size;
+
+    @Param({ "default", "family" })
+    public String serializerName;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private CosmosItemSerializer serializer;
+    private Family family;
+    private ObjectNode item;
+
+    @Setup
+    public void setup() throws IOException {
+        serializer = "family".equals(serializerName)
+            ? new FamilyItemSerializer()
+            : CosmosItemSerializer.DEFAULT_SERIALIZER;
+        family = FamilyFixtures.family(size);
+        item = (ObjectNode) objectMapper.readTree(
+            objectMapper.writeValueAsBytes(CosmosItemSerializer.DEFAULT_SERIALIZER.serialize(family)));
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        Map<String, Object> map = serializer.serialize(family);
+        JsonNode tree = map instanceof ObjectNodeMap
+            ? ((ObjectNodeMap) map).getObjectNode()
+            : objectMapper.convertValue(map, JsonNode.class);
+        return objectMapper.writeValueAsBytes(tree);
+    }
+
+    @Benchmark
+    public Family deserialize() {
+        return serializer.deserialize(new ObjectNodeMap(item), Family.class);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(FamilyItemSerializerBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
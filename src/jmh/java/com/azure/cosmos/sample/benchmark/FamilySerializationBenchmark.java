@@ -0,0 +1,114 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.benchmark;
+
+import com.azure.cosmos.CosmosItemSerializer;
+import com.azure.cosmos.sample.common.Family;
+import com.azure.cosmos.sample.common.FamilyJsonCodec;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of turning a Family graph into a JSON payload and back, the way the SDK does it with its
+ * default item serializer: the item is converted to a Map by {@link CosmosItemSerializer#DEFAULT_SERIALIZER},
+ * which is then written as JSON bytes, and the reverse for reads. The streaming benchmarks do the same with
+ * {@link FamilyJsonCodec}, which goes from a Family to bytes and back without reflection, Map or tree in between.
+ *
+ * Run with the GC profiler to get the allocation rate next to the throughput:
+ * <pre>
+ *  mvn clean package -Pbenchmark
+ *  java -jar target/benchmarks.jar FamilySerializationBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FamilySerializationBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<Map<String, Object>>() { };
+
+    @Param({ "small", "medium", "large" })
+    public String size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CosmosItemSerializer serializer = CosmosItemSerializer.DEFAULT_SERIALIZER;
+
+    private Family family;
+    private byte[] payload;
+
+    @Setup
+    public void setup() throws IOException {
+        family = FamilyFixtures.family(size);
+        payload = serialize(family);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return serialize(family);
+    }
+
+    @Benchmark
+    public Family deserialize() throws IOException {
+        return deserialize(payload);
+    }
+
+    @Benchmark
+    public Family roundTrip() throws IOException {
+        return deserialize(serialize(family));
+    }
+
+    @Benchmark
+    public byte[] streamingSerialize() {
+        return FamilyJsonCodec.toBytes(family);
+    }
+
+    @Benchmark
+    public Family streamingDeserialize() {
+        return FamilyJsonCodec.fromBytes(payload);
+    }
+
+    @Benchmark
+    public Family streamingRoundTrip() {
+        return FamilyJsonCodec.fromBytes(FamilyJsonCodec.toBytes(family));
+    }
+
+    private byte[] serialize(Family item) throws IOException {
+        return objectMapper.writeValueAsBytes(serializer.serialize(item));
+    }
+
+    private Family deserialize(byte[] json) throws IOException {
+        return serializer.deserialize(objectMapper.readValue(json, MAP_TYPE), Family.class);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(FamilySerializationBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
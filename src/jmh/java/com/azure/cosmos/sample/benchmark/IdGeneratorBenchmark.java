@@ -0,0 +1,62 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.benchmark;
+
+import com.azure.cosmos.sample.common.FamilyIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how many ids per second {@link FamilyIdGenerator} hands out when every available processor runs a
+ * thread asking for ids from the same generator, so the compare-and-set loop is contended.
+ *
+ * The number of threads can be changed with -t:
+ * <pre>
+ *  mvn clean package -Pbenchmark
+ *  java -jar target/benchmarks.jar IdGeneratorBenchmark -t 4
+ * </pre>
+ * mvn exec:java@id-duplicate-check checks that ids generated concurrently contain no duplicate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(Threads.MAX)
+public class IdGeneratorBenchmark {
+
+    private final FamilyIdGenerator generator = new FamilyIdGenerator(1);
+
+    @Benchmark
+    public long nextLong() {
+        return generator.nextLong();
+    }
+
+    @Benchmark
+    public String nextId() {
+        return generator.nextId("Andersen");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(IdGeneratorBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,150 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.benchmark;
+
+import com.azure.cosmos.CosmosItemSerializer;
+import com.azure.cosmos.implementation.ObjectNodeMap;
+import com.azure.cosmos.sample.common.Family;
+import com.azure.cosmos.sample.common.FamilySummary;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the client cost of a query result page of whole families with the pages of the projections of
+ * FamilyProjection.
+ *
+ * Every benchmark parses the JSON bytes of a page into a tree, as the SDK does with a query response, and binds
+ * every result to the result type of the projection: Family for SELECT *, FamilySummary for the summary, and
+ * String for the VALUE id projection. Object results are handed to the item serializer wrapped in an
+ * {@link ObjectNodeMap}, as the SDK does, so they are bound from the tree once. Whole families carry the system
+ * properties the service adds to items.
+ * <pre>
+ *  java -jar target/benchmarks.jar ProjectionBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ProjectionBenchmark {
+
+    @Param({ "10", "100" })
+    public int pageSize;
+
+    @Param({ "small", "medium", "large" })
+    public String size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private byte[] allPage;
+    private byte[] summaryPage;
+    private byte[] idPage;
+
+    @Setup
+    public void setup() throws IOException {
+        ArrayNode all = objectMapper.createArrayNode();
+        ArrayNode summaries = objectMapper.createArrayNode();
+        ArrayNode ids = objectMapper.createArrayNode();
+        for (int i = 0; i < pageSize; i++) {
+            Family family = FamilyFixtures.family(size);
+            family.setId(family.getId() + "-" + i);
+
+            ObjectNode item = objectMapper.valueToTree(family);
+            item.put("_rid", "q3ZuAM6fEgcBAAAAAAAAAA==");
+            item.put("_self", "dbs/q3ZuAA==/colls/q3ZuAM6fEgc=/docs/q3ZuAM6fEgcBAAAAAAAAAA==/");
+            item.put("_etag", "\"00000000-0000-0000-8f6c-53f0b5d601d8\"");
+            item.put("_attachments", "attachments/");
+            item.put("_ts", 1577836800L);
+            all.add(item);
+
+            ObjectNode summary = summaries.addObject();
+            summary.put("id", family.getId());
+            summary.put("lastName", family.getLastName());
+            summary.put("district", family.getDistrict());
+            summary.put("state", family.getAddress() != null ? family.getAddress().getState() : null);
+
+            ids.add(family.getId());
+        }
+        allPage = page(all);
+        summaryPage = page(summaries);
+        idPage = page(ids);
+    }
+
+    @Benchmark
+    public List<Family> all() throws IOException {
+        List<Family> results = new ArrayList<>(pageSize);
+        for (JsonNode node : documents(allPage)) {
+            results.add(CosmosItemSerializer.DEFAULT_SERIALIZER.deserialize(item(node), Family.class));
+        }
+        return results;
+    }
+
+    @Benchmark
+    public List<FamilySummary> summary() throws IOException {
+        List<FamilySummary> results = new ArrayList<>(pageSize);
+        for (JsonNode node : documents(summaryPage)) {
+            results.add(CosmosItemSerializer.DEFAULT_SERIALIZER.deserialize(item(node), FamilySummary.class));
+        }
+        return results;
+    }
+
+    @Benchmark
+    public List<String> id() throws IOException {
+        List<String> results = new ArrayList<>(pageSize);
+        for (JsonNode node : documents(idPage)) {
+            results.add(node.asText());
+        }
+        return results;
+    }
+
+    private Map<String, Object> item(JsonNode node) {
+        return new ObjectNodeMap((ObjectNode) node);
+    }
+
+    private byte[] page(ArrayNode documents) throws IOException {
+        ObjectNode page = objectMapper.createObjectNode();
+        page.put("_rid", "q3ZuAM6fEgc=");
+        page.set("Documents", documents);
+        page.put("_count", documents.size());
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    private JsonNode documents(byte[] page) throws IOException {
+        return objectMapper.readTree(page).get("Documents");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(ProjectionBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,78 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.async;
+
+import com.azure.cosmos.models.FeedResponse;
+import com.azure.cosmos.sample.common.AdaptivePageSizer;
+import com.azure.cosmos.util.CosmosPagedFlux;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Reads the pages of a query with the page size an {@link AdaptivePageSizer} picks.
+ *
+ * The pages are read through one subscription to the query, so the SDK keeps its query pipeline and the pages it
+ * already prefetched. The page size of a subscription is fixed, so once the sizer picks a page size that differs
+ * enough from it, see {@link AdaptivePageSizer#shouldResize(int)}, the subscription is cancelled and the query
+ * resumes with the new page size from the continuation token of the last page handled. The next page is only
+ * requested once the consumer has handled the previous one, so a slow consumer slows the query down instead of
+ * letting pages pile up.
+ */
+public class AdaptiveAsyncPageReader {
+
+    //  Continuation token of the last page
+    private static final String DONE = "";
+
+    private final AdaptivePageSizer sizer;
+
+    public AdaptiveAsyncPageReader(AdaptivePageSizer sizer) {
+        this.sizer = sizer;
+    }
+
+    /**
+     * Reads all the pages of a query.
+     *
+     * @param query query to read.
+     * @param consumer handles every page, the returned Mono completes once the page is handled.
+     * @param <T> item type.
+     * @return a Mono emitting the sizer, with the page sizes it picked and the throughput of the query, once every
+     * page has been handled.
+     */
+    public <T> Mono<AdaptivePageSizer> readAll(CosmosPagedFlux<T> query, Function<FeedResponse<T>, Mono<?>> consumer) {
+        return readPages(query, null, consumer)
+            .expand(continuation -> DONE.equals(continuation) ? Mono.empty() : readPages(query, continuation, consumer))
+            .then(Mono.fromSupplier(() -> sizer));
+    }
+
+    //  Reads pages through one subscription until the query ends or is to be resized, emits where to resume
+    private <T> Mono<String> readPages(CosmosPagedFlux<T> query, String continuation,
+                                       Function<FeedResponse<T>, Mono<?>> consumer) {
+        return Mono.defer(() -> {
+            int pageSize = sizer.getPageSize();
+            AtomicLong requested = new AtomicLong(System.nanoTime());
+            AtomicReference<String> resumeFrom = new AtomicReference<>(DONE);
+            Flux<FeedResponse<T>> pages = continuation == null
+                ? query.byPage(pageSize)
+                : query.byPage(continuation, pageSize);
+            return pages
+                .concatMap(page -> {
+                    long fetched = System.nanoTime();
+                    return consumer.apply(page).then(Mono.fromCallable(() -> {
+                        sizer.observe(pageSize, page.getResults().size(), page.getRequestCharge(),
+                            fetched - requested.get(), System.nanoTime() - fetched);
+                        requested.set(System.nanoTime());
+                        resumeFrom.set(page.getContinuationToken() != null ? page.getContinuationToken() : DONE);
+                        return page.getContinuationToken() != null && sizer.shouldResize(pageSize);
+                    }));
+                }, 1)
+                //  Cancels the subscription once the page size is to change
+                .takeUntil(resize -> resize)
+                .then(Mono.fromSupplier(resumeFrom::get));
+        });
+    }
+}
@@ -14,19 +14,46 @@ import com.azure.cosmos.models.CosmosContainerResponse;
 import com.azure.cosmos.models.CosmosDatabaseResponse;
 import com.azure.cosmos.models.CosmosItemResponse;
 import com.azure.cosmos.models.CosmosQueryRequestOptions;
+import com.azure.cosmos.models.FeedResponse;
 import com.azure.cosmos.models.PartitionKey;
+import com.azure.cosmos.models.SqlParameter;
+import com.azure.cosmos.models.SqlQuerySpec;
 import com.azure.cosmos.models.ThroughputProperties;
 import com.azure.cosmos.sample.common.AccountSettings;
+import com.azure.cosmos.sample.common.AdaptivePageSizer;
+import com.azure.cosmos.sample.common.ConnectionProfile;
+import com.azure.cosmos.sample.common.ContainerMetadataCache;
 import com.azure.cosmos.sample.common.Families;
 import com.azure.cosmos.sample.common.Family;
+import com.azure.cosmos.sample.common.FamilyItemSerializer;
+import com.azure.cosmos.sample.common.FamilyJsonCodec;
+import com.azure.cosmos.sample.common.FamilyProjection;
+import com.azure.cosmos.sample.common.ItemCache;
+import com.azure.cosmos.sample.common.ParameterizedQueries;
+import com.azure.cosmos.sample.common.QueryPlanStats;
+import com.azure.cosmos.sample.common.ReadHedging;
+import com.azure.cosmos.sample.common.ReadManyBatches;
+import com.azure.cosmos.sample.common.StartupWarmup;
+import com.azure.cosmos.sample.common.WorkloadSettings;
+import com.azure.cosmos.sample.export.DirectBufferPool;
+import com.azure.cosmos.sample.export.NdjsonFileExport;
+import com.azure.cosmos.sample.metrics.CosmosMetrics;
+import com.azure.cosmos.sample.metrics.HedgingStats;
+import com.azure.cosmos.sample.metrics.StartupMetrics;
+import com.azure.cosmos.sample.region.RegionLatencyProber;
 import com.azure.cosmos.util.CosmosPagedFlux;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Duration;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class AsyncMain {
@@ -39,9 +66,21 @@ public class AsyncMain {
     private CosmosAsyncDatabase database;
     private CosmosAsyncContainer container;
 
+    private RequestUnitRateLimiter rateLimiter;
+
+    private BoundedPipeline pipeline;
+
+    private CachingAsyncItemReader<Family> itemReader;
+
     protected static Logger logger = LoggerFactory.getLogger(AsyncMain.class.getSimpleName());
 
     public void close() {
+        if (WorkloadSettings.METRICS_ENABLED) {
+            CosmosMetrics.logSummary(logger);
+        }
+        if (ReadHedging.isEnabled()) {
+            logger.info("Hedging {}", HedgingStats.getDefault());
+        }
         client.close();
     }
 
@@ -70,24 +109,65 @@ public class AsyncMain {
 
     private void getStartedDemo() throws Exception {
         logger.info("Using Azure Cosmos DB endpoint: {}", AccountSettings.HOST);
+        StartupMetrics.getDefault().start();
 
         //  Create async client
         //  <CreateAsyncClient>
-        client = new CosmosClientBuilder()
+        CosmosClientBuilder clientBuilder = new CosmosClientBuilder()
             .endpoint(AccountSettings.HOST)
             .key(AccountSettings.MASTER_KEY)
             //  Setting the preferred location to Cosmos DB Account region
-            //  West US is just an example. User should set preferred location to the Cosmos DB region closest to the application
-            .preferredRegions(Collections.singletonList("West US"))
+            //  PREFERRED_REGIONS defaults to West US, just an example. User should set the Cosmos DB regions closest to the application
+            //  With REGION_PROBING the readable regions of the account are ordered by measured latency instead
+            .preferredRegions(RegionLatencyProber.preferredRegions())
             .consistencyLevel(ConsistencyLevel.EVENTUAL)
             //  Setting content response on write enabled, which enables the SDK to return response on write operations.
-            .contentResponseOnWriteEnabled(true)
-            .buildAsyncClient();
+            .contentResponseOnWriteEnabled(true);
+
+        //  Connection mode and pool settings, the SDK defaults unless CLIENT_PROFILE names another profile
+        ConnectionProfile.fromSettings().apply(clientBuilder);
+
+        if (WorkloadSettings.CUSTOM_SERIALIZER) {
+            //  Convert Family items by hand instead of through reflective databinding
+            clientBuilder.customItemSerializer(new FamilyItemSerializer());
+        }
+
+        if (WorkloadSettings.STARTUP_WARMUP) {
+            //  Open the connections to the container and load its metadata while the client is built
+            clientBuilder.openConnectionsAndInitCaches(StartupWarmup.proactiveInitConfig(databaseName, containerName));
+        }
+
+        //  Record the time to the first successful operation, metrics of every operation and the diagnostics of
+        //  slow ones, and count hedged reads
+        clientBuilder.clientTelemetryConfig(CosmosMetrics.applicationTelemetryConfigFromSettings());
+
+        client = clientBuilder.buildAsyncClient();
+        StartupMetrics.getDefault().phase("client");
 
         //  </CreateAsyncClient>
 
-        createDatabaseIfNotExists();
-        createContainerIfNotExists();
+        ContainerMetadataCache metadataCache = ContainerMetadataCache.getDefault();
+        if (WorkloadSettings.STARTUP_WARMUP && metadataCache.getPartitionKeyPath(databaseName, containerName) != null) {
+            //  An earlier run created the database and container, skip the create-if-not-exists round trips
+            database = client.getDatabase(databaseName);
+            container = database.getContainer(containerName);
+            logger.info("Using container {} known from {}", containerName, WorkloadSettings.STARTUP_METADATA_FILE);
+        } else {
+            createDatabaseIfNotExists();
+            createContainerIfNotExists();
+            if (WorkloadSettings.STARTUP_WARMUP) {
+                metadataCache.remember(databaseName, containerName, "/lastName");
+            }
+        }
+        StartupMetrics.getDefault().phase("database and container");
+
+        //  Bounds the requests in flight of the create, read and query pipelines
+        pipeline = BoundedPipeline.fromSettings();
+
+        if (WorkloadSettings.RU_BUDGET > 0) {
+            //  Pace creates and reads to stay under the request units the container is provisioned with
+            rateLimiter = new RequestUnitRateLimiter(WorkloadSettings.RU_BUDGET, Duration.ofMillis(100), 5);
+        }
 
         Family andersenFamilyItem=Families.getAndersenFamilyItem();
         Family wakefieldFamilyItem=Families.getWakefieldFamilyItem();
@@ -100,7 +180,13 @@ public class AsyncMain {
                                             johnsonFamilyItem,
                                             smithFamilyItem);
 
-        createFamilies(familiesToCreate);
+        if (WorkloadSettings.BULK_MODE) {
+            createFamiliesBulk(familiesToCreate);
+        } else if (WorkloadSettings.TRANSACTIONAL_BATCH_MODE) {
+            createFamiliesTransactional(familiesToCreate);
+        } else {
+            createFamilies(familiesToCreate);
+        }
 
         familiesToCreate = Flux.just(andersenFamilyItem,
                                 wakefieldFamilyItem,
@@ -108,10 +194,24 @@ public class AsyncMain {
                                 smithFamilyItem);
 
         logger.info("Reading items.");
-        readItems(familiesToCreate);
+        if (WorkloadSettings.READ_MANY_CHUNK_SIZE > 0) {
+            readItemsBatched(familiesToCreate);
+        } else if (WorkloadSettings.ITEM_CACHE_MAX_BYTES > 0) {
+            readItemsCached(familiesToCreate);
+        } else {
+            readItems(familiesToCreate);
+        }
 
         logger.info("Querying items.");
-        queryItems();
+        if (!WorkloadSettings.QUERY_EXPORT_FILE.isEmpty()) {
+            queryItemsToFile(Paths.get(WorkloadSettings.QUERY_EXPORT_FILE));
+        } else if (WorkloadSettings.QUERY_PROJECTION) {
+            queryItemIds();
+        } else if (WorkloadSettings.QUERY_ADAPTIVE_PAGING) {
+            queryItemsAdaptively();
+        } else {
+            queryItems();
+        }
     }
 
     private void createDatabaseIfNotExists() throws Exception {
@@ -154,15 +254,14 @@ public class AsyncMain {
         try {
 
             //  Combine multiple item inserts, associated success println's, and a final aggregate stats println into one Reactive stream.
-            double charge = families.flatMap(family -> {
-                return container.createItem(family);
-            }) //Flux of item request responses
-                    .flatMap(itemResponse -> {
+            //  The pipeline keeps at most ASYNC_CONCURRENCY inserts in flight and pulls families from the source as they complete.
+            double charge = pipeline.execute(families, this::createItem) //Flux of item request responses
+                    .map(itemResponse -> {
                         logger.info("Created item with request charge of {} within" +
                                         " duration {}",
                                 itemResponse.getRequestCharge(), itemResponse.getDuration());
                         logger.info("Item ID: {}\n", itemResponse.getItem().getId());
-                        return Mono.just(itemResponse.getRequestCharge());
+                        return itemResponse.getRequestCharge();
                     }) //Flux of request charges
                     .reduce(0.0,
                             (charge_n, charge_nplus1) -> charge_n + charge_nplus1
@@ -185,6 +284,75 @@ public class AsyncMain {
         //  </CreateItem>            
     }
 
+    private void createFamiliesBulk(Flux<Family> families) throws Exception {
+
+        //  <CreateItemsBulk>
+
+        try {
+
+            //  Bulk executor packs the creates of each partition key range into micro batches
+            BulkFamilyLoader loader = new BulkFamilyLoader(container,
+                WorkloadSettings.BULK_MAX_MICRO_BATCH_CONCURRENCY,
+                WorkloadSettings.BULK_MAX_MICRO_BATCH_SIZE);
+            BulkFamilyLoader.Result result = loader.createFamilies(families).block();
+
+            logger.info("Bulk created {} items ({} failed) with total request charge of {}\n",
+                result.getSucceeded(), result.getFailed(), result.getRequestCharge());
+
+        } catch (Exception err) {
+            if (err instanceof CosmosException) {
+                //Client-specific errors
+                CosmosException cerr = (CosmosException) err;
+                logger.error("Bulk create failed with CosmosException\n", cerr);
+            } else {
+                //General errors
+                logger.error("Bulk create failed with error\n", err);
+            }
+        }
+
+        //  </CreateItemsBulk>
+    }
+
+    private void createFamiliesTransactional(Flux<Family> families) throws Exception {
+
+        //  <CreateItemsTransactionalBatch>
+
+        try {
+
+            //  Families sharing a lastName are committed together, one round trip per batch
+            TransactionalFamilyWriter writer = new TransactionalFamilyWriter(container,
+                WorkloadSettings.TRANSACTIONAL_BATCH_MAX_OPERATIONS,
+                WorkloadSettings.TRANSACTIONAL_BATCH_MAX_BYTES,
+                new BoundedPipeline(WorkloadSettings.TRANSACTIONAL_BATCH_CONCURRENCY, WorkloadSettings.ASYNC_PREFETCH,
+                    BoundedPipeline.scheduler(WorkloadSettings.ASYNC_SCHEDULER)),
+                rateLimiter);
+            //  Only the totals are kept, the items of every batch are logged as it completes
+            TransactionalFamilyWriter.Result result = writer.createFamilies(families)
+                .doOnNext(batch -> {
+                    for (TransactionalFamilyWriter.ItemResult item : batch.getItems()) {
+                        logger.info("Item ID: {} status code {}", item.getFamily().getId(), item.getStatusCode());
+                    }
+                })
+                .reduceWith(TransactionalFamilyWriter.Result::new, TransactionalFamilyWriter.Result::addTotals)
+                .block();
+
+            logger.info("Created {} items ({} failed) in {} batches with total request charge of {}\n",
+                result.getSucceeded(), result.getFailed(), result.getBatches(), result.getRequestCharge());
+
+        } catch (Exception err) {
+            if (err instanceof CosmosException) {
+                //Client-specific errors
+                CosmosException cerr = (CosmosException) err;
+                logger.error("Transactional batch create failed with CosmosException\n", cerr);
+            } else {
+                //General errors
+                logger.error("Transactional batch create failed with error\n", err);
+            }
+        }
+
+        //  </CreateItemsTransactionalBatch>
+    }
+
     private void readItems(Flux<Family> familiesToCreate) {
         //  Using partition key for point read scenarios.
         //  This will help fast look up of items because of partition key
@@ -192,15 +360,11 @@ public class AsyncMain {
 
         try {
 
-            familiesToCreate.flatMap(family -> {
-                Mono<CosmosItemResponse<Family>> asyncItemResponseMono = container.readItem(family.getId(), new PartitionKey(family.getLastName()), Family.class);
-                return asyncItemResponseMono;
-            }).flatMap(itemResponse -> {
+            pipeline.execute(familiesToCreate, this::readItem).doOnNext(itemResponse -> {
                 double requestCharge = itemResponse.getRequestCharge();
                 Duration requestLatency = itemResponse.getDuration();
                 logger.info("Item successfully read with id {} with a charge of {} and within duration {}",
                         itemResponse.getItem().getId(), requestCharge, requestLatency);
-                return Flux.empty();
             }).blockLast();
 
         } catch (Exception err) {
@@ -217,23 +381,106 @@ public class AsyncMain {
         //  </ReadItem>
     }
 
+    private void readItemsBatched(Flux<Family> families) {
+        //  <ReadManyItems>
+
+        try {
+
+            BatchedAsyncItemReader<Family> reader = new BatchedAsyncItemReader<>(container, Family.class,
+                ReadManyBatches::identityOf, WorkloadSettings.READ_MANY_CHUNK_SIZE, WorkloadSettings.READ_MANY_CONCURRENCY);
+
+            families.map(ReadManyBatches::identityOf)
+                .collectList()
+                .flatMap(identities -> reader.readItems(identities)
+                    .doOnNext(result -> {
+                        logger.info("Read {} items with {} readMany requests and total request charge of {}",
+                            identities.size(), result.getRequestCount(), result.getRequestCharge());
+                        logger.info("Item Ids " + result.getItems().stream()
+                            .map(family -> family != null ? family.getId() : null)
+                            .collect(Collectors.toList()));
+                    }))
+                .block();
+
+        } catch (Exception err) {
+            if (err instanceof CosmosException) {
+                //Client-specific errors
+                CosmosException cerr = (CosmosException) err;
+                logger.error("Read Many failed with CosmosException\n", cerr);
+            } else {
+                //General errors
+                logger.error("Read Many failed\n", err);
+            }
+        }
+
+        //  </ReadManyItems>
+    }
+
+    private void readItemsCached(Flux<Family> familiesToCreate) {
+        if (itemReader == null) {
+            //  Cache weighs items by the size of their JSON
+            ItemCache<Family> cache = new ItemCache<>(WorkloadSettings.ITEM_CACHE_MAX_BYTES,
+                WorkloadSettings.ITEM_CACHE_TTL_SECONDS, TimeUnit.SECONDS, family -> FamilyJsonCodec.toBytes(family).length);
+            itemReader = new CachingAsyncItemReader<>(container, cache, Family.class, WorkloadSettings.ITEM_CACHE_REVALIDATE);
+        }
+
+        //  <ReadItemCached>
+
+        try {
+
+            pipeline.execute(familiesToCreate, family -> itemReader.readItem(family.getId(), family.getLastName()))
+                .doOnNext(item -> logger.info("Item successfully read from {} with id {} with a charge of {} and within duration {}",
+                    item.getSource(), item.getItem().getId(), item.getRequestCharge(), item.getDuration()))
+                .blockLast();
+
+        } catch (Exception err) {
+            if (err instanceof CosmosException) {
+                //Client-specific errors
+                CosmosException cerr = (CosmosException) err;
+                logger.error("Read Item failed with CosmosException\n", cerr);
+            } else {
+                //General errors
+                logger.error("Read Item failed\n", err);
+            }
+        }
+
+        //  </ReadItemCached>
+
+        logger.info("Item cache {}", itemReader.getCache());
+    }
+
+    private Mono<CosmosItemResponse<Family>> createItem(Family family) {
+        if (rateLimiter == null) {
+            return container.createItem(family);
+        }
+        return rateLimiter.execute("create", () -> container.createItem(family), CosmosItemResponse::getRequestCharge);
+    }
+
+    private Mono<CosmosItemResponse<Family>> readItem(Family family) {
+        if (rateLimiter == null) {
+            return container.readItem(family.getId(), new PartitionKey(family.getLastName()), ReadHedging.itemRequestOptions(), Family.class);
+        }
+        return rateLimiter.execute("read",
+            () -> container.readItem(family.getId(), new PartitionKey(family.getLastName()), ReadHedging.itemRequestOptions(), Family.class),
+            CosmosItemResponse::getRequestCharge);
+    }
+
     private void queryItems() {
         //  <QueryItems>
         // Set some common query options
 
         int preferredPageSize = 10; // We'll use this later
 
-        CosmosQueryRequestOptions queryOptions = new CosmosQueryRequestOptions();
+        CosmosQueryRequestOptions queryOptions = ReadHedging.apply(new CosmosQueryRequestOptions());
 
         //  Set populate query metrics to get metrics around query executions
         queryOptions.setQueryMetricsEnabled(true);
 
-        CosmosPagedFlux<Family> pagedFluxResponse = container.queryItems(
-                "SELECT * FROM Family WHERE Family.lastName IN ('Andersen', 'Wakefield', 'Johnson')", queryOptions, Family.class);
+        CosmosPagedFlux<Family> pagedFluxResponse = container.queryItems(familiesByLastNameQuery(), queryOptions, Family.class);
 
         try {
 
-            pagedFluxResponse.byPage(preferredPageSize).flatMap(fluxResponse -> {
+            //  Pages are fetched one after the other, only as fast as they are handled
+            pipeline.pages(QueryPlanStats.getDefault().recordFirstPage(pagedFluxResponse.byPage(preferredPageSize))).doOnNext(fluxResponse -> {
                 logger.info("Got a page of query result with " +
                         fluxResponse.getResults().size() + " items(s)"
                         + " and request charge of " + fluxResponse.getRequestCharge());
@@ -243,9 +490,9 @@ public class AsyncMain {
                         .stream()
                         .map(Family::getId)
                         .collect(Collectors.toList()));
-
-                return Flux.empty();
             }).blockLast();
+            //  The names span partitions, so the SDK fetches the query plan from the gateway on every run
+            logger.info("Query plans {}", QueryPlanStats.getDefault());
 
         } catch(Exception err) {
             if (err instanceof CosmosException) {
@@ -260,4 +507,118 @@ public class AsyncMain {
 
         // </QueryItems>
     }
+
+    private void queryItemsAdaptively() {
+        //  <QueryItemsAdaptively>
+        CosmosQueryRequestOptions queryOptions = ReadHedging.apply(new CosmosQueryRequestOptions());
+
+        CosmosPagedFlux<Family> pagedFluxResponse = container.queryItems(familiesByLastNameQuery(), queryOptions, Family.class);
+
+        try {
+
+            //  Pages start small for a quick first result and grow while they arrive within the target latency
+            Consumer<FeedResponse<Family>> pageLogger = QueryPlanStats.getDefault().recordFirstPage(fluxResponse ->
+                logger.info("Got a page of query result with " +
+                    fluxResponse.getResults().size() + " items(s)"
+                    + " and request charge of " + fluxResponse.getRequestCharge()));
+            AdaptivePageSizer sizer = new AdaptiveAsyncPageReader(AdaptivePageSizer.fromSettings())
+                .readAll(pagedFluxResponse, fluxResponse -> Mono.fromRunnable(() -> pageLogger.accept(fluxResponse)))
+                .block();
+
+            logger.info("Adaptive paging {}", sizer);
+            logger.info("Query plans {}", QueryPlanStats.getDefault());
+
+        } catch (Exception err) {
+            if (err instanceof CosmosException) {
+                //Client-specific errors
+                CosmosException cerr = (CosmosException) err;
+                logger.error("Query failed with CosmosException\n", cerr);
+            } else {
+                //General errors
+                logger.error("Query failed\n", err);
+            }
+        }
+
+        //  </QueryItemsAdaptively>
+    }
+
+    private SqlQuerySpec familiesByLastNameQuery() {
+        //  The names are parameters, so every set of names shares one query text
+        return ParameterizedQueries.bind(
+            "SELECT * FROM Family f WHERE f.lastName IN (@lastName1, @lastName2, @lastName3)",
+            Arrays.asList(new SqlParameter("@lastName1", "Andersen"),
+                new SqlParameter("@lastName2", "Wakefield"),
+                new SqlParameter("@lastName3", "Johnson")));
+    }
+
+    private void queryItemsToFile(Path file) {
+        //  <QueryItemsToFile>
+        CosmosQueryRequestOptions queryOptions = ReadHedging.apply(new CosmosQueryRequestOptions());
+
+        CosmosPagedFlux<Family> pagedFluxResponse = container.queryItems(familiesByLastNameQuery(), queryOptions, Family.class);
+
+        //  Pages are streamed to the file as they arrive, only one page is held in memory at a time
+        try (NdjsonFileExport export = new NdjsonFileExport(file, new DirectBufferPool(WorkloadSettings.EXPORT_BUFFER_SIZE, 1))) {
+
+            pipeline.pages(QueryPlanStats.getDefault().recordFirstPage(pagedFluxResponse.byPage(WorkloadSettings.SCAN_PAGE_SIZE)))
+                .concatMap(fluxResponse -> Mono.fromCallable(() -> {
+                    export.write(fluxResponse.getResults());
+                    return fluxResponse;
+                }).subscribeOn(Schedulers.boundedElastic())) //File writes block, keep them off the pipeline scheduler
+                .blockLast();
+
+            logger.info("Exported query results to {}: {}", file, export.getStats());
+            logger.info("Query plans {}", QueryPlanStats.getDefault());
+
+        } catch (Exception err) {
+            if (err instanceof CosmosException) {
+                //Client-specific errors
+                CosmosException cerr = (CosmosException) err;
+                logger.error("Query export failed with CosmosException\n", cerr);
+            } else {
+                //General errors
+                logger.error("Query export failed\n", err);
+            }
+        }
+
+        //  </QueryItemsToFile>
+    }
+
+    private void queryItemIds() {
+        //  <QueryItemIds>
+        CosmosQueryRequestOptions queryOptions = ReadHedging.apply(new CosmosQueryRequestOptions());
+        queryOptions.setQueryMetricsEnabled(true);
+
+        //  Only the ids are sent back and deserialized, not the whole families
+        SqlQuerySpec querySpec = FamilyProjection.ID.query("f.lastName IN (@lastName1, @lastName2, @lastName3)",
+            Arrays.asList(new SqlParameter("@lastName1", "Andersen"),
+                new SqlParameter("@lastName2", "Wakefield"),
+                new SqlParameter("@lastName3", "Johnson")));
+
+        CosmosPagedFlux<String> pagedFluxResponse = container.queryItems(querySpec, queryOptions, String.class);
+
+        try {
+
+            pipeline.pages(QueryPlanStats.getDefault().recordFirstPage(pagedFluxResponse.byPage(10))).doOnNext(fluxResponse -> {
+                logger.info("Got a page of query result with " +
+                        fluxResponse.getResults().size() + " items(s)"
+                        + " and request charge of " + fluxResponse.getRequestCharge());
+
+                logger.info("Item Ids " + fluxResponse.getResults());
+            }).blockLast();
+            logger.info("Query plans {}", QueryPlanStats.getDefault());
+
+        } catch(Exception err) {
+            if (err instanceof CosmosException) {
+                //Client-specific errors
+                CosmosException cerr = (CosmosException) err;
+                logger.error("Query failed with CosmosException\n", cerr);
+            } else {
+                //General errors
+                logger.error("Query failed\n", err);
+            }
+        }
+
+        //  </QueryItemIds>
+    }
 }
@@ -28,7 +28,6 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
-import java.util.Collections;
 import java.util.stream.Collectors;
 
 public class AsyncPasswordlessMain {
@@ -81,8 +80,8 @@ public class AsyncPasswordlessMain {
             .endpoint(AccountSettings.HOST)
             .credential(credential)
             //  Setting the preferred location to Cosmos DB Account region
-            //  West US is just an example. User should set preferred location to the Cosmos DB region closest to the application
-            .preferredRegions(Collections.singletonList("West US"))
+            //  PREFERRED_REGIONS defaults to West US, just an example. User should set the Cosmos DB regions closest to the application
+            .preferredRegions(AccountSettings.PREFERRED_REGIONS)
             .consistencyLevel(ConsistencyLevel.EVENTUAL)
             //  Setting content response on write enabled, which enables the SDK to return response on write operations.
             .contentResponseOnWriteEnabled(true)
@@ -0,0 +1,60 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.async;
+
+import com.azure.cosmos.CosmosAsyncContainer;
+import com.azure.cosmos.models.CosmosItemIdentity;
+import com.azure.cosmos.models.FeedResponse;
+import com.azure.cosmos.sample.common.ReadManyBatches;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Reads many items with a few concurrent readMany calls instead of one readItem call per item.
+ *
+ * @param <T> item type.
+ */
+public class BatchedAsyncItemReader<T> {
+
+    private final CosmosAsyncContainer container;
+    private final Class<T> itemType;
+    private final Function<T, CosmosItemIdentity> identityOf;
+    private final int chunkSize;
+    private final int concurrency;
+
+    /**
+     * @param identityOf extracts the identity of a read item, to put the results back into input order.
+     * @param chunkSize maximum number of items per readMany call.
+     * @param concurrency maximum number of readMany calls in flight.
+     */
+    public BatchedAsyncItemReader(CosmosAsyncContainer container, Class<T> itemType,
+                                  Function<T, CosmosItemIdentity> identityOf, int chunkSize, int concurrency) {
+        this.container = container;
+        this.itemType = itemType;
+        this.identityOf = identityOf;
+        this.chunkSize = chunkSize;
+        this.concurrency = concurrency;
+    }
+
+    public Mono<ReadManyBatches.Result<T>> readItems(List<CosmosItemIdentity> identities) {
+        List<List<CosmosItemIdentity>> chunks = ReadManyBatches.chunk(identities, chunkSize);
+        return Flux.fromIterable(chunks)
+            .flatMap(chunk -> container.readMany(chunk, itemType), concurrency)
+            .collectList()
+            .map(responses -> {
+                List<T> items = new ArrayList<>(identities.size());
+                double requestCharge = 0;
+                for (FeedResponse<T> response : responses) {
+                    items.addAll(response.getResults());
+                    requestCharge += response.getRequestCharge();
+                }
+                return new ReadManyBatches.Result<>(ReadManyBatches.inInputOrder(identities, items, identityOf),
+                    requestCharge, chunks.size());
+            });
+    }
+}
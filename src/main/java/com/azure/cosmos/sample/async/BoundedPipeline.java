@@ -0,0 +1,130 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.async;
+
+import com.azure.cosmos.sample.common.WorkloadSettings;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs one async operation per source element with an explicit bound on the requests in flight.
+ *
+ * Demand flows from the subscriber back to the source: flatMap only asks for a new element when one of its
+ * {@code concurrency} operations completes, and the source is asked for at most {@code prefetch} elements at a time,
+ * so a large or lazily generated source is never drained into memory ahead of the requests. Responses are handed
+ * to the given scheduler, with at most {@code prefetch} of them buffered, so that handling them does not run on the
+ * network threads of the client.
+ */
+public class BoundedPipeline {
+
+    private final int concurrency;
+    private final int prefetch;
+    private final Scheduler scheduler;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    /**
+     * @param concurrency maximum number of operations in flight.
+     * @param prefetch number of source elements requested ahead, and of responses buffered for the scheduler.
+     * @param scheduler scheduler the responses are handled on, null to handle them where they complete.
+     */
+    public BoundedPipeline(int concurrency, int prefetch, Scheduler scheduler) {
+        if (concurrency < 1 || prefetch < 1) {
+            throw new IllegalArgumentException("concurrency and prefetch must be positive");
+        }
+        this.concurrency = concurrency;
+        this.prefetch = prefetch;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * @return a pipeline configured with ASYNC_CONCURRENCY, ASYNC_PREFETCH and ASYNC_SCHEDULER.
+     */
+    public static BoundedPipeline fromSettings() {
+        return new BoundedPipeline(WorkloadSettings.ASYNC_CONCURRENCY, WorkloadSettings.ASYNC_PREFETCH,
+            scheduler(WorkloadSettings.ASYNC_SCHEDULER));
+    }
+
+    /**
+     * @param name parallel, boundedElastic, single or immediate.
+     * @return the scheduler, null for immediate.
+     */
+    public static Scheduler scheduler(String name) {
+        switch (name) {
+            case "parallel":
+                return Schedulers.parallel();
+            case "boundedElastic":
+                return Schedulers.boundedElastic();
+            case "single":
+                return Schedulers.single();
+            case "immediate":
+                return null;
+            default:
+                throw new IllegalArgumentException("Unknown scheduler " + name);
+        }
+    }
+
+    /**
+     * Runs the operation for every element of the source.
+     *
+     * @param source elements, subscribed to with backpressure.
+     * @param operation async operation, subscribed to when a slot is free.
+     * @param <T> element type.
+     * @param <R> response type.
+     * @return the responses, in completion order.
+     */
+    public <T, R> Flux<R> execute(Flux<T> source, Function<T, Mono<R>> operation) {
+        Flux<R> responses = source
+            .limitRate(prefetch)
+            .flatMap(element -> operation.apply(element)
+                .doOnSubscribe(subscription -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                //  Counted out before the response is passed on, flatMap may start the next operation right after
+                .doOnSuccess(response -> inFlight.decrementAndGet())
+                .doOnError(error -> inFlight.decrementAndGet())
+                .doOnCancel(inFlight::decrementAndGet), concurrency, 1);
+        return handOff(responses);
+    }
+
+    /**
+     * Hands the pages of a query to the scheduler, the query only fetches the next page once there is room for it.
+     *
+     * @param pages pages of a query.
+     * @param <P> page type.
+     * @return the pages.
+     */
+    public <P> Flux<P> pages(Flux<P> pages) {
+        return handOff(pages);
+    }
+
+    private <R> Flux<R> handOff(Flux<R> responses) {
+        return scheduler != null ? responses.publishOn(scheduler, prefetch) : responses;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public int getPrefetch() {
+        return prefetch;
+    }
+
+    /**
+     * @return number of operations in flight right now.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return the highest number of operations that were in flight at the same time.
+     */
+    public int getMaxInFlight() {
+        return maxInFlight.get();
+    }
+}
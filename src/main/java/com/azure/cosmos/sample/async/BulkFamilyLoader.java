@@ -0,0 +1,100 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.async;
+
+import com.azure.cosmos.CosmosAsyncContainer;
+import com.azure.cosmos.models.CosmosBulkExecutionOptions;
+import com.azure.cosmos.models.CosmosBulkItemResponse;
+import com.azure.cosmos.models.CosmosBulkOperationResponse;
+import com.azure.cosmos.models.CosmosBulkOperations;
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.azure.cosmos.models.PartitionKey;
+import com.azure.cosmos.sample.common.Family;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Creates families through the SDK bulk executor.
+ *
+ * Every family becomes a create operation with its lastName as partition key. The bulk executor groups the
+ * operations by partition key range into micro batches, so one request carries many families of the same
+ * partition. A failed item is logged and counted, it does not abort the rest of the load.
+ */
+public class BulkFamilyLoader {
+
+    private final CosmosAsyncContainer container;
+    private final int maxMicroBatchConcurrency;
+    private final int maxMicroBatchSize;
+
+    protected static Logger logger = LoggerFactory.getLogger(BulkFamilyLoader.class.getSimpleName());
+
+    public BulkFamilyLoader(CosmosAsyncContainer container, int maxMicroBatchConcurrency, int maxMicroBatchSize) {
+        this.container = container;
+        this.maxMicroBatchConcurrency = maxMicroBatchConcurrency;
+        this.maxMicroBatchSize = maxMicroBatchSize;
+    }
+
+    /**
+     * Creates the given families and aggregates the outcome of every item.
+     *
+     * @param families families to create.
+     * @return a Mono emitting the aggregated result once every operation has completed.
+     */
+    public Mono<Result> createFamilies(Flux<Family> families) {
+        CosmosBulkExecutionOptions bulkExecutionOptions = new CosmosBulkExecutionOptions()
+            .setMaxMicroBatchConcurrency(maxMicroBatchConcurrency)
+            .setMaxMicroBatchSize(maxMicroBatchSize);
+
+        //  The family is passed as operation context so failures can be reported per item
+        Flux<CosmosItemOperation> operations = families.map(family ->
+            CosmosBulkOperations.getCreateItemOperation(family, new PartitionKey(family.getLastName()), family));
+
+        return container.<Family>executeBulkOperations(operations, bulkExecutionOptions)
+            .reduce(new Result(), BulkFamilyLoader::accumulate);
+    }
+
+    private static Result accumulate(Result result, CosmosBulkOperationResponse<Family> operationResponse) {
+        CosmosBulkItemResponse itemResponse = operationResponse.getResponse();
+        if (itemResponse != null) {
+            result.requestCharge += itemResponse.getRequestCharge();
+        }
+
+        if (itemResponse != null && itemResponse.isSuccessStatusCode()) {
+            result.succeeded++;
+        } else {
+            result.failed++;
+            Family family = operationResponse.getBatchContext();
+            if (operationResponse.getException() != null) {
+                logger.error("Bulk create of item {} failed", family.getId(), operationResponse.getException());
+            } else {
+                logger.error("Bulk create of item {} failed with status code {}",
+                    family.getId(), itemResponse != null ? itemResponse.getStatusCode() : null);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Aggregated outcome of a bulk load.
+     */
+    public static class Result {
+        private long succeeded;
+        private long failed;
+        private double requestCharge;
+
+        public long getSucceeded() {
+            return succeeded;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public double getRequestCharge() {
+            return requestCharge;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.async;
+
+import com.azure.cosmos.CosmosAsyncContainer;
+import com.azure.cosmos.CosmosException;
+import com.azure.cosmos.models.CosmosItemRequestOptions;
+import com.azure.cosmos.models.PartitionKey;
+import com.azure.cosmos.sample.common.CachedItemResponse;
+import com.azure.cosmos.sample.common.ItemCache;
+import com.azure.cosmos.sample.common.ReadHedging;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Async point reads through an {@link ItemCache}.
+ *
+ * A fresh cached item is returned without a request. An expired one is revalidated with its ETag when enabled,
+ * which costs a 304 Not Modified response instead of the full item when it has not changed.
+ *
+ * @param <T> item type.
+ */
+public class CachingAsyncItemReader<T> {
+
+    private static final int NOT_MODIFIED = 304;
+    private static final int NOT_FOUND = 404;
+
+    private final CosmosAsyncContainer container;
+    private final ItemCache<T> cache;
+    private final Class<T> itemType;
+    private final boolean revalidate;
+
+    public CachingAsyncItemReader(CosmosAsyncContainer container, ItemCache<T> cache, Class<T> itemType, boolean revalidate) {
+        this.container = container;
+        this.cache = cache;
+        this.itemType = itemType;
+        this.revalidate = revalidate;
+    }
+
+    public ItemCache<T> getCache() {
+        return cache;
+    }
+
+    public Mono<CachedItemResponse<T>> readItem(String id, String partitionKey) {
+        return Mono.defer(() -> {
+            ItemCache.Entry<T> entry = cache.get(partitionKey, id);
+            if (entry != null && entry.isFresh()) {
+                cache.recordHit();
+                return Mono.just(new CachedItemResponse<>(entry.getItem(), CachedItemResponse.Source.CACHE, 0, Duration.ZERO));
+            }
+
+            CosmosItemRequestOptions options = ReadHedging.itemRequestOptions();
+            boolean revalidating = revalidate && entry != null && entry.getETag() != null;
+            if (revalidating) {
+                options.setIfNoneMatchETag(entry.getETag());
+            }
+
+            long start = System.nanoTime();
+            return container.readItem(id, new PartitionKey(partitionKey), options, itemType)
+                .map(response -> {
+                    if (revalidating && response.getStatusCode() == NOT_MODIFIED) {
+                        cache.renew(partitionKey, id);
+                        return new CachedItemResponse<>(entry.getItem(), CachedItemResponse.Source.REVALIDATED,
+                            response.getRequestCharge(), response.getDuration());
+                    }
+                    cache.recordMiss();
+                    cache.put(partitionKey, id, response.getItem(), response.getETag());
+                    return new CachedItemResponse<>(response.getItem(), CachedItemResponse.Source.SERVICE,
+                        response.getRequestCharge(), response.getDuration());
+                })
+                .onErrorResume(CosmosException.class, e -> {
+                    if (revalidating && e.getStatusCode() == NOT_MODIFIED) {
+                        cache.renew(partitionKey, id);
+                        return Mono.just(new CachedItemResponse<>(entry.getItem(), CachedItemResponse.Source.REVALIDATED,
+                            e.getRequestCharge(), Duration.ofNanos(System.nanoTime() - start)));
+                    }
+                    if (e.getStatusCode() == NOT_FOUND) {
+                        cache.invalidate(partitionKey, id);
+                    }
+                    return Mono.error(e);
+                });
+        });
+    }
+}
@@ -0,0 +1,141 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.async;
+
+import com.azure.cosmos.CosmosException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Token bucket denominated in request units that paces async operations to stay under a throughput budget.
+ *
+ * Before an operation is subscribed to, its cost is estimated from the charges previously observed for the same
+ * kind of operation and reserved in the bucket; the operation is delayed until the bucket can pay for it. Once the
+ * response arrives, the bucket is corrected by the difference between the actual charge and the estimate, and the
+ * estimate moves towards the actual charge. A 429 response blocks the whole bucket for its retry-after duration.
+ *
+ * The bucket is a single "theoretical arrival time" advanced with compare-and-set, so reserving never locks.
+ * Time and delays come from the given Scheduler, which lets a virtual time scheduler drive it in tests.
+ */
+public class RequestUnitRateLimiter {
+
+    //  Weight of the newest charge in the per-operation cost estimate
+    private static final double ESTIMATE_WEIGHT = 0.2;
+
+    private final double requestUnitsPerSecond;
+    private final long burstNanos;
+    private final double initialCostEstimate;
+    private final Scheduler scheduler;
+    private final AtomicLong theoreticalArrivalNanos;
+    private final Map<String, Double> costEstimates = new ConcurrentHashMap<>();
+
+    /**
+     * @param requestUnitsPerSecond request units per second to stay under, usually a little below the provisioned throughput.
+     * @param burst how long the bucket may run ahead of the budget after a quiet period.
+     * @param initialCostEstimate estimated charge of an operation kind that has not completed yet.
+     */
+    public RequestUnitRateLimiter(double requestUnitsPerSecond, Duration burst, double initialCostEstimate) {
+        this(requestUnitsPerSecond, burst, initialCostEstimate, Schedulers.parallel());
+    }
+
+    public RequestUnitRateLimiter(double requestUnitsPerSecond, Duration burst, double initialCostEstimate, Scheduler scheduler) {
+        if (requestUnitsPerSecond <= 0) {
+            throw new IllegalArgumentException("requestUnitsPerSecond must be positive");
+        }
+        this.requestUnitsPerSecond = requestUnitsPerSecond;
+        this.burstNanos = burst.toNanos();
+        this.initialCostEstimate = initialCostEstimate;
+        this.scheduler = scheduler;
+        this.theoreticalArrivalNanos = new AtomicLong(now());
+    }
+
+    /**
+     * Runs an operation once the budget allows for it.
+     *
+     * @param operationKind operations of the same kind share a cost estimate, e.g. "create" or "read".
+     * @param operation supplies the operation, called when it is its turn.
+     * @param requestCharge extracts the request charge from the response.
+     * @param <T> response type.
+     * @return the paced operation.
+     */
+    public <T> Mono<T> execute(String operationKind, Supplier<Mono<T>> operation, ToDoubleFunction<T> requestCharge) {
+        return Mono.defer(() -> {
+            double estimate = getCostEstimate(operationKind);
+            long delayNanos = reserve(estimate);
+            Mono<T> paced = Mono.defer(operation)
+                .doOnNext(response -> observe(operationKind, estimate, requestCharge.applyAsDouble(response)))
+                .doOnError(error -> onError(estimate, error));
+            return delayNanos > 0
+                ? Mono.delay(Duration.ofNanos(delayNanos), scheduler).then(paced)
+                : paced;
+        });
+    }
+
+    public double getCostEstimate(String operationKind) {
+        return costEstimates.getOrDefault(operationKind, initialCostEstimate);
+    }
+
+    /**
+     * @return how far, in nanoseconds, the reservations run ahead of now. 0 when the bucket is idle.
+     */
+    public long getBacklogNanos() {
+        return Math.max(0, theoreticalArrivalNanos.get() - now());
+    }
+
+    /**
+     * Reserves request units in the bucket.
+     *
+     * @param requestUnits request units to reserve.
+     * @return how long to wait, in nanoseconds, before the reserved request units may be spent.
+     */
+    long reserve(double requestUnits) {
+        long costNanos = toNanos(requestUnits);
+        while (true) {
+            long now = now();
+            long previous = theoreticalArrivalNanos.get();
+            long next = Math.max(previous, now) + costNanos;
+            if (theoreticalArrivalNanos.compareAndSet(previous, next)) {
+                //  The reservation may start once the earlier ones are no more than the burst ahead of now
+                return Math.max(0, previous - burstNanos - now);
+            }
+        }
+    }
+
+    private void observe(String operationKind, double estimate, double actualCharge) {
+        theoreticalArrivalNanos.addAndGet(toNanos(actualCharge - estimate));
+        costEstimates.merge(operationKind, actualCharge,
+            (previous, charge) -> previous + ESTIMATE_WEIGHT * (charge - previous));
+    }
+
+    private void onError(double estimate, Throwable error) {
+        if (!(error instanceof CosmosException)) {
+            return;
+        }
+        CosmosException cosmosException = (CosmosException) error;
+        //  Failed requests are charged too, 429s usually nothing
+        theoreticalArrivalNanos.addAndGet(toNanos(cosmosException.getRequestCharge() - estimate));
+        if (cosmosException.getStatusCode() == 429) {
+            Duration retryAfter = cosmosException.getRetryAfterDuration();
+            long blockedUntil = now() + burstNanos + (retryAfter != null ? retryAfter.toNanos() : 0);
+            theoreticalArrivalNanos.accumulateAndGet(blockedUntil, Math::max);
+        }
+    }
+
+    private long toNanos(double requestUnits) {
+        return (long) (requestUnits / requestUnitsPerSecond * 1e9);
+    }
+
+    private long now() {
+        return scheduler.now(TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,308 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.async;
+
+import com.azure.cosmos.CosmosAsyncContainer;
+import com.azure.cosmos.CosmosException;
+import com.azure.cosmos.models.CosmosBatch;
+import com.azure.cosmos.models.CosmosBatchOperationResult;
+import com.azure.cosmos.models.CosmosBatchResponse;
+import com.azure.cosmos.models.PartitionKey;
+import com.azure.cosmos.sample.common.Family;
+import com.azure.cosmos.sample.common.FamilyJsonCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Creates families with transactional batches, one batch per partition key.
+ *
+ * Families that share a lastName live in the same logical partition, so they can be committed together with a
+ * single {@link CosmosBatch} request. The families are grouped by lastName as they stream in, and every group is cut
+ * into batches that stay under the operation count and request size limits of a transactional batch. At most one
+ * unfinished batch per lastName is held in memory, and the batches are sent through a {@link BoundedPipeline},
+ * which only pulls more families while a batch slot is free, and paced by a {@link RequestUnitRateLimiter}.
+ *
+ * A transactional batch succeeds or fails as a whole. When a batch fails because of some of its items, those items
+ * are reported with their own status code and the rest of the batch, which failed with 424 (failed dependency), is
+ * sent again without them. A batch the service rejects as too large (413) is split in two halves.
+ */
+public class TransactionalFamilyWriter {
+
+    //  Service limits of a transactional batch
+    public static final int MAX_OPERATIONS = 100;
+    public static final int MAX_REQUEST_BYTES = 2 * 1024 * 1024;
+
+    //  Room left in a batch request for the operation headers around every item
+    private static final int OPERATION_OVERHEAD_BYTES = 256;
+
+    private static final int FAILED_DEPENDENCY = 424;
+    private static final int REQUEST_ENTITY_TOO_LARGE = 413;
+
+    private final CosmosAsyncContainer container;
+    private final int maxOperations;
+    private final int maxRequestBytes;
+    private final BoundedPipeline pipeline;
+    private final RequestUnitRateLimiter rateLimiter;
+
+    protected static Logger logger = LoggerFactory.getLogger(TransactionalFamilyWriter.class.getSimpleName());
+
+    /**
+     * @param container container partitioned by /lastName.
+     * @param maxOperations maximum number of operations in one batch, at most {@link #MAX_OPERATIONS}.
+     * @param maxRequestBytes maximum size of one batch request, at most {@link #MAX_REQUEST_BYTES}.
+     * @param pipeline bounds the batches in flight.
+     * @param rateLimiter paces every batch request, null to send them as fast as the pipeline allows.
+     */
+    public TransactionalFamilyWriter(CosmosAsyncContainer container, int maxOperations, int maxRequestBytes,
+                                     BoundedPipeline pipeline, RequestUnitRateLimiter rateLimiter) {
+        if (maxOperations < 1 || maxOperations > MAX_OPERATIONS) {
+            throw new IllegalArgumentException("maxOperations must be between 1 and " + MAX_OPERATIONS);
+        }
+        if (maxRequestBytes <= OPERATION_OVERHEAD_BYTES || maxRequestBytes > MAX_REQUEST_BYTES) {
+            throw new IllegalArgumentException("maxRequestBytes must be between " + OPERATION_OVERHEAD_BYTES
+                + " and " + MAX_REQUEST_BYTES);
+        }
+        this.container = container;
+        this.maxOperations = maxOperations;
+        this.maxRequestBytes = maxRequestBytes;
+        this.pipeline = pipeline;
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Creates the given families.
+     *
+     * @param families families to create, subscribed to with backpressure.
+     * @return the outcome of every batch as it completes, with the outcome of its families.
+     */
+    public Flux<Result> createFamilies(Flux<Family> families) {
+        //  Every lastName group stays subscribed until the source completes, its batches are cut as it streams
+        Flux<List<Family>> batches = families
+            .groupBy(Family::getLastName)
+            .flatMap(this::batches, Integer.MAX_VALUE);
+        return pipeline.execute(batches, this::execute);
+    }
+
+    /**
+     * Cuts the families of one partition key into batches that fit the limits.
+     *
+     * @param group families of one partition key.
+     * @return the batches, the families keep their relative order.
+     */
+    private Flux<List<Family>> batches(Flux<Family> group) {
+        return Flux.defer(() -> {
+            BatchLimits limits = new BatchLimits();
+            return group.bufferUntil(limits::startsNewBatch, true);
+        });
+    }
+
+    /**
+     * Size of the batch being filled, one per lastName group.
+     */
+    private class BatchLimits {
+        private int operations;
+        private int bytes;
+
+        boolean startsNewBatch(Family family) {
+            int familyBytes = FamilyJsonCodec.toBytes(family).length + OPERATION_OVERHEAD_BYTES;
+            boolean full = operations > 0 && (operations == maxOperations || bytes + familyBytes > maxRequestBytes);
+            if (full) {
+                operations = 0;
+                bytes = 0;
+            }
+            //  A family too large for any batch still gets its own, the service reports it as 413
+            operations++;
+            bytes += familyBytes;
+            return full;
+        }
+    }
+
+    private Mono<Result> execute(List<Family> families) {
+        PartitionKey partitionKey = new PartitionKey(families.get(0).getLastName());
+        CosmosBatch batch = CosmosBatch.createCosmosBatch(partitionKey);
+        for (Family family : families) {
+            batch.createItemOperation(family);
+        }
+
+        Mono<CosmosBatchResponse> response = rateLimiter == null
+            ? container.executeCosmosBatch(batch)
+            : rateLimiter.execute("batch", () -> container.executeCosmosBatch(batch), CosmosBatchResponse::getRequestCharge);
+        return response
+            .flatMap(batchResponse -> onResponse(families, batchResponse))
+            .onErrorResume(CosmosException.class, error -> onError(families, error));
+    }
+
+    private Mono<Result> onResponse(List<Family> families, CosmosBatchResponse response) {
+        Result result = new Result();
+        result.batches++;
+        result.requestCharge += response.getRequestCharge();
+
+        if (response.isSuccessStatusCode()) {
+            for (int i = 0; i < families.size(); i++) {
+                CosmosBatchOperationResult operationResult = response.getResults().get(i);
+                result.addItem(families.get(i), operationResult.getStatusCode(), operationResult.getRequestCharge());
+            }
+            return Mono.just(result);
+        }
+
+        if (response.getStatusCode() == REQUEST_ENTITY_TOO_LARGE) {
+            return split(families, result, response.getStatusCode());
+        }
+
+        //  Report the items that caused the failure and retry the ones that only failed along with them
+        List<Family> retry = new ArrayList<>();
+        List<CosmosBatchOperationResult> operationResults = response.getResults();
+        for (int i = 0; i < families.size(); i++) {
+            int statusCode = i < operationResults.size() ? operationResults.get(i).getStatusCode() : response.getStatusCode();
+            if (statusCode == FAILED_DEPENDENCY) {
+                retry.add(families.get(i));
+            } else {
+                logger.error("Batch create of item {} failed with status code {}", families.get(i).getId(), statusCode);
+                result.addItem(families.get(i), statusCode, 0);
+            }
+        }
+
+        if (retry.isEmpty()) {
+            return Mono.just(result);
+        }
+        if (retry.size() == families.size()) {
+            //  No item to blame, e.g. the batch timed out or was throttled beyond the retries of the client
+            for (Family family : families) {
+                result.addItem(family, response.getStatusCode(), 0);
+            }
+            logger.error("Batch create of {} items for {} failed with status code {}",
+                families.size(), families.get(0).getLastName(), response.getStatusCode());
+            return Mono.just(result);
+        }
+        return execute(retry).map(result::add);
+    }
+
+    private Mono<Result> onError(List<Family> families, CosmosException error) {
+        Result result = new Result();
+        result.batches++;
+        result.requestCharge += error.getRequestCharge();
+        if (error.getStatusCode() == REQUEST_ENTITY_TOO_LARGE) {
+            return split(families, result, error.getStatusCode());
+        }
+
+        logger.error("Batch create of {} items for {} failed", families.size(), families.get(0).getLastName(), error);
+        for (Family family : families) {
+            result.addItem(family, error.getStatusCode(), 0);
+        }
+        return Mono.just(result);
+    }
+
+    private Mono<Result> split(List<Family> families, Result result, int statusCode) {
+        if (families.size() == 1) {
+            logger.error("Item {} is too large for a batch", families.get(0).getId());
+            result.addItem(families.get(0), statusCode, 0);
+            return Mono.just(result);
+        }
+        int half = families.size() / 2;
+        return Flux.just(families.subList(0, half), families.subList(half, families.size()))
+            .concatMap(this::execute)
+            .reduce(result, Result::add);
+    }
+
+    /**
+     * Outcome of one family.
+     */
+    public static class ItemResult {
+        private final Family family;
+        private final int statusCode;
+        private final double requestCharge;
+
+        ItemResult(Family family, int statusCode, double requestCharge) {
+            this.family = family;
+            this.statusCode = statusCode;
+            this.requestCharge = requestCharge;
+        }
+
+        public Family getFamily() {
+            return family;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        public double getRequestCharge() {
+            return requestCharge;
+        }
+
+        public boolean isSuccessStatusCode() {
+            return statusCode >= 200 && statusCode < 300;
+        }
+    }
+
+    /**
+     * Outcome of one batch, including the batches sent again for part of its families, with the outcome of every
+     * family. Totals over many batches are summed with {@link #addTotals(Result)}, which does not keep the families.
+     */
+    public static class Result {
+        private final List<ItemResult> items = new ArrayList<>();
+        private long succeeded;
+        private long failed;
+        private long batches;
+        private double requestCharge;
+
+        private void addItem(Family family, int statusCode, double requestCharge) {
+            ItemResult item = new ItemResult(family, statusCode, requestCharge);
+            items.add(item);
+            if (item.isSuccessStatusCode()) {
+                succeeded++;
+            } else {
+                failed++;
+            }
+        }
+
+        private Result add(Result other) {
+            items.addAll(other.items);
+            return addTotals(other);
+        }
+
+        /**
+         * Adds the counts and the request charge of another result, without its items.
+         *
+         * @param other result to add.
+         * @return this result.
+         */
+        public Result addTotals(Result other) {
+            succeeded += other.succeeded;
+            failed += other.failed;
+            batches += other.batches;
+            requestCharge += other.requestCharge;
+            return this;
+        }
+
+        public List<ItemResult> getItems() {
+            return Collections.unmodifiableList(items);
+        }
+
+        public long getSucceeded() {
+            return succeeded;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        /**
+         * @return number of batch requests sent, including the ones sent again after a failure.
+         */
+        public long getBatches() {
+            return batches;
+        }
+
+        public double getRequestCharge() {
+            return requestCharge;
+        }
+    }
+}
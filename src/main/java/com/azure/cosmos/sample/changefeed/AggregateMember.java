@@ -0,0 +1,87 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.changefeed;
+
+import com.azure.cosmos.sample.common.Child;
+import com.azure.cosmos.sample.common.Family;
+
+/**
+ * What one family currently contributes to one aggregate.
+ *
+ * Stored next to the aggregate, in the same logical partition, so that an aggregate and its members are updated
+ * together by one transactional batch. When a family changes, its old contribution is taken back from the stored
+ * member before the new one is added, so replaying a change does not count it twice.
+ */
+public class AggregateMember {
+
+    static String idOf(String familyId) {
+        return "member:" + familyId;
+    }
+
+    static AggregateMember of(String key, Family family) {
+        AggregateMember member = new AggregateMember();
+        member.setId(idOf(family.getId()));
+        member.setKey(key);
+        member.setFamilyId(family.getId());
+        if (family.getChildren() != null) {
+            member.setChildCount(family.getChildren().length);
+            long gradeSum = 0;
+            for (Child child : family.getChildren()) {
+                gradeSum += child.getGrade();
+            }
+            member.setGradeSum(gradeSum);
+        }
+        return member;
+    }
+
+    boolean sameContribution(AggregateMember other) {
+        return other != null && childCount == other.childCount && gradeSum == other.gradeSum;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public String getFamilyId() {
+        return familyId;
+    }
+
+    public void setFamilyId(String familyId) {
+        this.familyId = familyId;
+    }
+
+    public long getChildCount() {
+        return childCount;
+    }
+
+    public void setChildCount(long childCount) {
+        this.childCount = childCount;
+    }
+
+    public long getGradeSum() {
+        return gradeSum;
+    }
+
+    public void setGradeSum(long gradeSum) {
+        this.gradeSum = gradeSum;
+    }
+
+    private String id;
+    private String key;
+    private String familyId;
+    private long childCount;
+    private long gradeSum;
+}
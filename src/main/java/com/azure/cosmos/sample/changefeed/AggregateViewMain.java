@@ -0,0 +1,99 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.changefeed;
+
+import com.azure.cosmos.ChangeFeedProcessor;
+import com.azure.cosmos.ChangeFeedProcessorBuilder;
+import com.azure.cosmos.CosmosAsyncClient;
+import com.azure.cosmos.CosmosAsyncContainer;
+import com.azure.cosmos.CosmosAsyncDatabase;
+import com.azure.cosmos.models.ChangeFeedProcessorOptions;
+import com.azure.cosmos.models.CosmosContainerProperties;
+import com.azure.cosmos.models.ThroughputProperties;
+import com.azure.cosmos.sample.common.ClientBuilderFactory;
+import com.azure.cosmos.sample.workload.WorkloadMain;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Runs a change feed processor over FamilyContainer that maintains per district and per state family statistics in
+ * the FamilyAggregates container, then reads a few of them with point reads.
+ *
+ * The leases live in the FamilyAggregatesLeases container. On the first run the processor starts from the beginning
+ * of the change feed and so builds the view from the existing families, later runs continue from the leases.
+ * Several instances can run at the same time, the leases are spread between them.
+ * The run time in seconds is passed as argument: mvn exec:java@aggregate-view -Dexec.args="[seconds]"
+ */
+public class AggregateViewMain {
+
+    private static final String LEASE_CONTAINER_NAME = "FamilyAggregatesLeases";
+
+    protected static Logger logger = LoggerFactory.getLogger(AggregateViewMain.class.getSimpleName());
+
+    public static void main(String[] args) {
+        long seconds = args.length > 0 ? Long.parseLong(args[0]) : 60;
+
+        try (CosmosAsyncClient client = ClientBuilderFactory.newClientBuilder().buildAsyncClient()) {
+            CosmosAsyncDatabase database = client.getDatabase(WorkloadMain.DATABASE_NAME);
+            CosmosAsyncContainer feedContainer = database.getContainer(WorkloadMain.CONTAINER_NAME);
+            CosmosAsyncContainer viewContainer = createContainerIfNotExists(database,
+                FamilyAggregateView.CONTAINER_NAME, FamilyAggregateView.PARTITION_KEY_PATH);
+            CosmosAsyncContainer leaseContainer = createContainerIfNotExists(database, LEASE_CONTAINER_NAME, "/id");
+
+            AggregateViewUpdater updater = new AggregateViewUpdater(viewContainer);
+            ChangeFeedProcessorOptions options = new ChangeFeedProcessorOptions()
+                .setLeasePrefix("aggregates")
+                .setStartFromBeginning(true)
+                .setFeedPollDelay(Duration.ofSeconds(1))
+                //  The handler blocks on its reads and batches
+                .setScheduler(Schedulers.boundedElastic());
+
+            //  <ChangeFeedProcessor>
+            ChangeFeedProcessor processor = new ChangeFeedProcessorBuilder()
+                .hostName(ManagementFactory.getRuntimeMXBean().getName())
+                .feedContainer(feedContainer)
+                .leaseContainer(leaseContainer)
+                .options(options)
+                .handleChanges(updater::handleChanges)
+                .buildChangeFeedProcessor();
+            //  </ChangeFeedProcessor>
+
+            processor.start().block();
+            logger.info("Change feed processor started, running for {} s", seconds);
+            long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+            while (System.nanoTime() < deadline) {
+                Thread.sleep(Math.min(10_000, Math.max(0, (deadline - System.nanoTime()) / 1_000_000)));
+                Map<String, Integer> lag = processor.getEstimatedLag().block();
+                int totalLag = lag.values().stream().mapToInt(Integer::intValue).sum();
+                logger.info("{} changes applied with {} aggregate updates ({} conflicts), estimated lag {}",
+                    updater.getChanges(), updater.getAggregateUpdates(), updater.getConflicts(), totalLag);
+            }
+            processor.stop().block();
+
+            //  <ReadAggregates>
+            FamilyAggregateView view = new FamilyAggregateView(viewContainer);
+            for (String state : new String[] {"WA", "NY"}) {
+                view.readState(state).doOnNext(aggregate -> logger.info("{}", aggregate)).block();
+            }
+            for (String district : new String[] {"WA5", "NY23"}) {
+                view.readDistrict(district).doOnNext(aggregate -> logger.info("{}", aggregate)).block();
+            }
+            //  </ReadAggregates>
+        } catch (Exception e) {
+            logger.error("Aggregate view failed with", e);
+        }
+        System.exit(0);
+    }
+
+    private static CosmosAsyncContainer createContainerIfNotExists(CosmosAsyncDatabase database, String name, String partitionKeyPath) {
+        database.createContainerIfNotExists(new CosmosContainerProperties(name, partitionKeyPath),
+            ThroughputProperties.createManualThroughput(400)).block();
+        return database.getContainer(name);
+    }
+}
@@ -0,0 +1,231 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.changefeed;
+
+import com.azure.cosmos.CosmosAsyncContainer;
+import com.azure.cosmos.CosmosException;
+import com.azure.cosmos.models.CosmosBatch;
+import com.azure.cosmos.models.CosmosBatchItemRequestOptions;
+import com.azure.cosmos.models.CosmosBatchResponse;
+import com.azure.cosmos.models.CosmosItemIdentity;
+import com.azure.cosmos.models.CosmosItemResponse;
+import com.azure.cosmos.models.PartitionKey;
+import com.azure.cosmos.sample.common.Family;
+import com.azure.cosmos.sample.common.FamilyJsonCodec;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change feed handler keeping the per district and per state aggregates of the view container up to date.
+ *
+ * For every batch of changed families the handler works out which aggregates they enter, stay in or leave, using
+ * the {@link FamilyMembership} of each family. Every affected aggregate is then updated with one transactional batch
+ * that replaces the aggregate, guarded by its ETag, and upserts or deletes the {@link AggregateMember}s of the
+ * changed families. Because the members and the aggregate always change together, a change delivered again after
+ * a failure finds its contribution already counted and leaves the aggregate as it is. Concurrent handlers of other
+ * leases updating the same aggregate make the ETag check fail, and the update is redone from a fresh read.
+ *
+ * The change feed only delivers the latest version of families that were created or replaced, deleted families are
+ * not taken out of the aggregates.
+ */
+public class AggregateViewUpdater {
+
+    //  One operation of a transactional batch is the aggregate itself
+    private static final int MAX_MEMBERS_PER_BATCH = 99;
+    private static final int MAX_ATTEMPTS = 10;
+
+    private final CosmosAsyncContainer viewContainer;
+    private final AtomicLong changes = new AtomicLong();
+    private final AtomicLong aggregateUpdates = new AtomicLong();
+    private final AtomicLong conflicts = new AtomicLong();
+
+    protected static Logger logger = LoggerFactory.getLogger(AggregateViewUpdater.class.getSimpleName());
+
+    public AggregateViewUpdater(CosmosAsyncContainer viewContainer) {
+        this.viewContainer = viewContainer;
+    }
+
+    /**
+     * Applies a batch of changes, called by the change feed processor on a thread that may block.
+     * A failure is thrown to the processor, which delivers the batch again.
+     *
+     * @param documents latest versions of the changed families.
+     */
+    public void handleChanges(List<JsonNode> documents) {
+        Map<String, Family> families = new LinkedHashMap<>();
+        for (JsonNode document : documents) {
+            Family family = toFamily(document);
+            families.put(family.getId(), family);
+        }
+        changes.addAndGet(families.size());
+
+        Map<String, List<String>> oldKeys = readMemberships(families.keySet());
+        Map<String, List<String>> newKeys = new HashMap<>();
+        Map<String, Set<String>> familiesByKey = new LinkedHashMap<>();
+        for (Family family : families.values()) {
+            List<String> keys = FamilyAggregateView.keysOf(family);
+            newKeys.put(family.getId(), keys);
+            Set<String> affectedKeys = new LinkedHashSet<>(keys);
+            affectedKeys.addAll(oldKeys.getOrDefault(family.getId(), Collections.emptyList()));
+            for (String key : affectedKeys) {
+                familiesByKey.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(family.getId());
+            }
+        }
+
+        for (Map.Entry<String, Set<String>> entry : familiesByKey.entrySet()) {
+            List<String> familyIds = new ArrayList<>(entry.getValue());
+            for (int i = 0; i < familyIds.size(); i += MAX_MEMBERS_PER_BATCH) {
+                List<String> chunk = familyIds.subList(i, Math.min(familyIds.size(), i + MAX_MEMBERS_PER_BATCH));
+                updateAggregate(entry.getKey(), chunk, families, newKeys);
+            }
+        }
+
+        //  Only once the aggregates are updated, so a failure before still finds the old memberships
+        for (Family family : families.values()) {
+            List<String> keys = newKeys.get(family.getId());
+            if (!keys.equals(oldKeys.getOrDefault(family.getId(), Collections.emptyList()))) {
+                FamilyMembership membership = FamilyMembership.of(family.getId(), keys);
+                viewContainer.upsertItem(membership, new PartitionKey(membership.getKey()), null).block();
+            }
+        }
+    }
+
+    private Map<String, List<String>> readMemberships(Set<String> familyIds) {
+        List<CosmosItemIdentity> identities = new ArrayList<>(familyIds.size());
+        for (String familyId : familyIds) {
+            String id = FamilyMembership.idOf(familyId);
+            identities.add(new CosmosItemIdentity(new PartitionKey(id), id));
+        }
+
+        Map<String, List<String>> memberships = new HashMap<>();
+        if (identities.isEmpty()) {
+            return memberships;
+        }
+        for (FamilyMembership membership : viewContainer.readMany(identities, FamilyMembership.class).block().getResults()) {
+            memberships.put(membership.getId().substring(FamilyMembership.ID_PREFIX.length()), membership.getAggregateKeys());
+        }
+        return memberships;
+    }
+
+    private void updateAggregate(String key, List<String> familyIds, Map<String, Family> families,
+                                 Map<String, List<String>> newKeys) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            CosmosItemResponse<FamilyAggregate> current = readAggregate(key);
+            FamilyAggregate aggregate = current != null
+                ? current.getItem()
+                : FamilyAggregate.empty(key, key.substring(0, key.indexOf(':')), key.substring(key.indexOf(':') + 1));
+            Map<String, AggregateMember> members = readMembers(key, familyIds);
+
+            List<AggregateMember> upserts = new ArrayList<>();
+            List<AggregateMember> deletes = new ArrayList<>();
+            for (String familyId : familyIds) {
+                AggregateMember old = members.get(familyId);
+                AggregateMember now = newKeys.get(familyId).contains(key)
+                    ? AggregateMember.of(key, families.get(familyId))
+                    : null;
+                if (now != null ? now.sameContribution(old) : old == null) {
+                    continue;
+                }
+                if (old != null) {
+                    aggregate.add(old, -1);
+                }
+                if (now != null) {
+                    aggregate.add(now, 1);
+                    upserts.add(now);
+                } else {
+                    deletes.add(old);
+                }
+            }
+            if (upserts.isEmpty() && deletes.isEmpty()) {
+                return;
+            }
+
+            CosmosBatch batch = CosmosBatch.createCosmosBatch(new PartitionKey(key));
+            if (current == null) {
+                batch.createItemOperation(aggregate);
+            } else {
+                batch.replaceItemOperation(key, aggregate, new CosmosBatchItemRequestOptions().setIfMatchETag(current.getETag()));
+            }
+            for (AggregateMember member : upserts) {
+                batch.upsertItemOperation(member);
+            }
+            for (AggregateMember member : deletes) {
+                batch.deleteItemOperation(member.getId());
+            }
+
+            CosmosBatchResponse response = viewContainer.executeCosmosBatch(batch).block();
+            if (response.isSuccessStatusCode()) {
+                aggregateUpdates.incrementAndGet();
+                return;
+            }
+            //  412: replaced since read, 409: created since read
+            int statusCode = response.getResults().isEmpty()
+                ? response.getStatusCode()
+                : response.getResults().get(0).getStatusCode();
+            if (statusCode != 412 && statusCode != 409) {
+                throw new IllegalStateException("Updating aggregate " + key + " failed with status code " + statusCode);
+            }
+            conflicts.incrementAndGet();
+            logger.debug("Aggregate {} changed concurrently, attempt {}", key, attempt);
+        }
+        throw new IllegalStateException("Updating aggregate " + key + " kept conflicting");
+    }
+
+    private CosmosItemResponse<FamilyAggregate> readAggregate(String key) {
+        return viewContainer.readItem(key, new PartitionKey(key), FamilyAggregate.class)
+            .onErrorResume(CosmosException.class, error -> error.getStatusCode() == 404 ? Mono.empty() : Mono.error(error))
+            .block();
+    }
+
+    private Map<String, AggregateMember> readMembers(String key, List<String> familyIds) {
+        List<CosmosItemIdentity> identities = new ArrayList<>(familyIds.size());
+        for (String familyId : familyIds) {
+            identities.add(new CosmosItemIdentity(new PartitionKey(key), AggregateMember.idOf(familyId)));
+        }
+        Map<String, AggregateMember> members = new HashMap<>();
+        for (AggregateMember member : viewContainer.readMany(identities, AggregateMember.class).block().getResults()) {
+            members.put(member.getFamilyId(), member);
+        }
+        return members;
+    }
+
+    private static Family toFamily(JsonNode document) {
+        try (JsonParser parser = document.traverse()) {
+            parser.nextToken();
+            return FamilyJsonCodec.read(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long getChanges() {
+        return changes.get();
+    }
+
+    public long getAggregateUpdates() {
+        return aggregateUpdates.get();
+    }
+
+    /**
+     * @return number of aggregate updates redone because another handler updated the aggregate first.
+     */
+    public long getConflicts() {
+        return conflicts.get();
+    }
+}
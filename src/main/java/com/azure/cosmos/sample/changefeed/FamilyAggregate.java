@@ -0,0 +1,107 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.changefeed;
+
+/**
+ * Statistics of the families of one district or one state, as stored in the aggregate view container.
+ *
+ * The id is also the partition key, e.g. "district:NY/Manhattan" or "state:WA", so a dashboard reads an aggregate
+ * with a point read.
+ */
+public class FamilyAggregate {
+
+    static FamilyAggregate empty(String key, String kind, String name) {
+        FamilyAggregate aggregate = new FamilyAggregate();
+        aggregate.setId(key);
+        aggregate.setKey(key);
+        aggregate.setKind(kind);
+        aggregate.setName(name);
+        return aggregate;
+    }
+
+    void add(AggregateMember member, int sign) {
+        familyCount += sign;
+        childCount += sign * member.getChildCount();
+        gradeSum += sign * member.getGradeSum();
+        averageGrade = childCount > 0 ? (double) gradeSum / childCount : 0;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public void setKind(String kind) {
+        this.kind = kind;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getFamilyCount() {
+        return familyCount;
+    }
+
+    public void setFamilyCount(long familyCount) {
+        this.familyCount = familyCount;
+    }
+
+    public long getChildCount() {
+        return childCount;
+    }
+
+    public void setChildCount(long childCount) {
+        this.childCount = childCount;
+    }
+
+    public long getGradeSum() {
+        return gradeSum;
+    }
+
+    public void setGradeSum(long gradeSum) {
+        this.gradeSum = gradeSum;
+    }
+
+    public double getAverageGrade() {
+        return averageGrade;
+    }
+
+    public void setAverageGrade(double averageGrade) {
+        this.averageGrade = averageGrade;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d families, %d children, average grade %.2f", id, familyCount, childCount, averageGrade);
+    }
+
+    private String id;
+    private String key;
+    private String kind;
+    private String name;
+    private long familyCount;
+    private long childCount;
+    private long gradeSum;
+    private double averageGrade;
+}
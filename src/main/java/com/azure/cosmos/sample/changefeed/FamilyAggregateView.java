@@ -0,0 +1,75 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.changefeed;
+
+import com.azure.cosmos.CosmosAsyncContainer;
+import com.azure.cosmos.CosmosException;
+import com.azure.cosmos.models.PartitionKey;
+import com.azure.cosmos.sample.common.Family;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the per district and per state family statistics maintained by {@link AggregateViewUpdater}.
+ *
+ * Every aggregate is a single document, so reading one costs a point read instead of a query over FamilyContainer.
+ */
+public class FamilyAggregateView {
+
+    public static final String CONTAINER_NAME = "FamilyAggregates";
+    public static final String PARTITION_KEY_PATH = "/key";
+
+    static final String DISTRICT = "district";
+    static final String STATE = "state";
+
+    private final CosmosAsyncContainer container;
+
+    public FamilyAggregateView(CosmosAsyncContainer container) {
+        this.container = container;
+    }
+
+    public static String districtKey(String district) {
+        return DISTRICT + ":" + district;
+    }
+
+    public static String stateKey(String state) {
+        return STATE + ":" + state;
+    }
+
+    /**
+     * @return keys of the aggregates the family belongs to, those of its district and of its state.
+     */
+    static List<String> keysOf(Family family) {
+        List<String> keys = new ArrayList<>(2);
+        if (family.getDistrict() != null) {
+            keys.add(districtKey(family.getDistrict()));
+        }
+        if (family.getAddress() != null && family.getAddress().getState() != null) {
+            keys.add(stateKey(family.getAddress().getState()));
+        }
+        return keys;
+    }
+
+    /**
+     * @return the aggregate of the district, empty if no family of the district was seen yet.
+     */
+    public Mono<FamilyAggregate> readDistrict(String district) {
+        return read(districtKey(district));
+    }
+
+    /**
+     * @return the aggregate of the state, empty if no family of the state was seen yet.
+     */
+    public Mono<FamilyAggregate> readState(String state) {
+        return read(stateKey(state));
+    }
+
+    private Mono<FamilyAggregate> read(String key) {
+        return container.readItem(key, new PartitionKey(key), FamilyAggregate.class)
+            .map(response -> response.getItem())
+            .onErrorResume(CosmosException.class, error -> error.getStatusCode() == 404 ? Mono.empty() : Mono.error(error));
+    }
+}
@@ -0,0 +1,56 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.changefeed;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Aggregates a family currently belongs to, so that moving a family to another district or state takes it out of
+ * the old aggregates. Its id is also its partition key.
+ */
+public class FamilyMembership {
+
+    static final String ID_PREFIX = "family:";
+
+    static String idOf(String familyId) {
+        return ID_PREFIX + familyId;
+    }
+
+    static FamilyMembership of(String familyId, List<String> aggregateKeys) {
+        FamilyMembership membership = new FamilyMembership();
+        membership.setId(idOf(familyId));
+        membership.setKey(membership.getId());
+        membership.setAggregateKeys(new ArrayList<>(aggregateKeys));
+        return membership;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public List<String> getAggregateKeys() {
+        return aggregateKeys;
+    }
+
+    public void setAggregateKeys(List<String> aggregateKeys) {
+        this.aggregateKeys = aggregateKeys;
+    }
+
+    private String id;
+    private String key;
+    private List<String> aggregateKeys = new ArrayList<>();
+}
@@ -5,6 +5,10 @@ package com.azure.cosmos.sample.common;
 
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Contains the account configurations for Sample.
  * 
@@ -37,4 +41,12 @@ public class AccountSettings {
                     StringUtils.defaultString(StringUtils.trimToNull(
                             System.getenv().get("ACCOUNT_HOST")),
                             "https://localhost:443/"));
+
+    // Regions the clients send requests to, in order of preference, comma separated, e.g. "West US,East US".
+    // West US is just an example. Set the Cosmos DB regions closest to the application.
+    public static List<String> PREFERRED_REGIONS = Collections.unmodifiableList(Arrays.asList(
+            System.getProperty("PREFERRED_REGIONS",
+                    StringUtils.defaultString(StringUtils.trimToNull(
+                            System.getenv().get("PREFERRED_REGIONS")),
+                            "West US")).trim().split("\\s*,\\s*")));
 }
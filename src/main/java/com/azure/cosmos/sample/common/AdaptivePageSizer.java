@@ -0,0 +1,153 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.common;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Picks the page size of the next page of a query from how the previous pages went.
+ *
+ * A query starts with the minimum page size, so its first results arrive quickly, and the page size grows as long
+ * as pages come back within the target latency. The next page size is the number of items the service returned
+ * within the target latency per page, limited to the maximum request charge per page, and to the number of items
+ * the consumer handles within the target latency once it is slower than the service: larger pages would then only
+ * pile up in memory. The page size at most doubles from one page to the next and stays within the bounds.
+ * A page the service cut short, e.g. the last page of a partition of a cross partition query, can only shrink the
+ * page size: it shows how fast items come, but not that a larger page would be filled.
+ *
+ * Changing the page size of a running query means resuming it from a continuation token, which discards the
+ * pipeline and the pages the SDK prefetched, so readers only do so when {@link #shouldResize(int)} says the new
+ * size differs enough to be worth it.
+ *
+ * The sizer also records the page sizes it picked and the throughput of the query.
+ */
+public class AdaptivePageSizer {
+
+    private final int minPageSize;
+    private final int maxPageSize;
+    private final long targetPageNanos;
+    private final double maxPageRequestCharge;
+
+    private int pageSize;
+
+    private final Map<Integer, Long> pageSizes = new TreeMap<>();
+    private long pages;
+    private long items;
+    private double requestCharge;
+    private long fetchNanos;
+    private long consumeNanos;
+
+    /**
+     * @param minPageSize page size of the first page and lower bound.
+     * @param maxPageSize upper bound of the page size.
+     * @param targetPageLatency latency of one page to aim for.
+     * @param maxPageRequestCharge maximum request charge of one page, 0 for no limit.
+     */
+    public AdaptivePageSizer(int minPageSize, int maxPageSize, Duration targetPageLatency, double maxPageRequestCharge) {
+        if (minPageSize < 1 || maxPageSize < minPageSize) {
+            throw new IllegalArgumentException("Page size bounds must satisfy 1 <= minPageSize <= maxPageSize");
+        }
+        this.minPageSize = minPageSize;
+        this.maxPageSize = maxPageSize;
+        this.targetPageNanos = targetPageLatency.toNanos();
+        this.maxPageRequestCharge = maxPageRequestCharge;
+        this.pageSize = minPageSize;
+    }
+
+    /**
+     * @return a sizer configured with the QUERY_PAGE_* settings.
+     */
+    public static AdaptivePageSizer fromSettings() {
+        return new AdaptivePageSizer(WorkloadSettings.QUERY_PAGE_SIZE_MIN, WorkloadSettings.QUERY_PAGE_SIZE_MAX,
+            Duration.ofMillis(WorkloadSettings.QUERY_PAGE_TARGET_MILLIS), WorkloadSettings.QUERY_PAGE_MAX_RU);
+    }
+
+    /**
+     * @return page size to request for the next page.
+     */
+    public synchronized int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Records a page and picks the size of the next one.
+     *
+     * @param requestedPageSize page size the page was requested with.
+     * @param itemCount number of items in the page.
+     * @param pageRequestCharge request charge of the page.
+     * @param pageFetchNanos time from requesting the page to receiving it.
+     * @param pageConsumeNanos time the consumer took to handle the page.
+     */
+    public synchronized void observe(int requestedPageSize, int itemCount, double pageRequestCharge,
+                                     long pageFetchNanos, long pageConsumeNanos) {
+        pageSizes.merge(requestedPageSize, 1L, Long::sum);
+        pages++;
+        items += itemCount;
+        requestCharge += pageRequestCharge;
+        fetchNanos += pageFetchNanos;
+        consumeNanos += pageConsumeNanos;
+
+        if (itemCount == 0) {
+            return;
+        }
+
+        long next = (long) ((double) targetPageNanos * itemCount / Math.max(1, pageFetchNanos));
+        if (maxPageRequestCharge > 0 && pageRequestCharge > 0) {
+            next = Math.min(next, (long) (maxPageRequestCharge * itemCount / pageRequestCharge));
+        }
+        if (pageConsumeNanos > pageFetchNanos) {
+            next = Math.min(next, (long) ((double) targetPageNanos * itemCount / pageConsumeNanos));
+        }
+        //  A short page says little about larger ones, so it may only shrink the page size
+        next = Math.min(next, itemCount < requestedPageSize ? requestedPageSize : 2L * requestedPageSize);
+        pageSize = (int) Math.max(minPageSize, Math.min(maxPageSize, next));
+    }
+
+    /**
+     * @param openPageSize page size the query is currently read with.
+     * @return whether the picked page size is at least twice or at most half the open one, so resuming the query
+     * with it is worth discarding its pipeline.
+     */
+    public synchronized boolean shouldResize(int openPageSize) {
+        return pageSize >= 2L * openPageSize || 2L * pageSize <= openPageSize;
+    }
+
+    public synchronized long getPages() {
+        return pages;
+    }
+
+    public synchronized long getItems() {
+        return items;
+    }
+
+    public synchronized double getRequestCharge() {
+        return requestCharge;
+    }
+
+    /**
+     * @return number of pages requested with each page size.
+     */
+    public synchronized Map<Integer, Long> getPageSizes() {
+        return new TreeMap<>(pageSizes);
+    }
+
+    /**
+     * @return items per second over the time spent fetching and consuming the pages.
+     */
+    public synchronized double getItemsPerSecond() {
+        long elapsedNanos = fetchNanos + consumeNanos;
+        return elapsedNanos == 0 ? 0 : items * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("pages=%d, items=%d, page sizes=%s, %.1f items/s, %.1f RU, avg fetch=%d ms, avg consume=%d ms",
+            pages, items, pageSizes, getItemsPerSecond(), requestCharge,
+            pages == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(fetchNanos / pages),
+            pages == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(consumeNanos / pages));
+    }
+}
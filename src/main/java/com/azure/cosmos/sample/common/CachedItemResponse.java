@@ -0,0 +1,54 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.common;
+
+import java.time.Duration;
+
+/**
+ * Result of a read through an {@link ItemCache}.
+ *
+ * @param <T> item type.
+ */
+public class CachedItemResponse<T> {
+
+    /**
+     * Where the item came from.
+     */
+    public enum Source {
+        //  Fresh cache entry, no request sent
+        CACHE,
+        //  Expired cache entry confirmed unchanged by a 304 Not Modified response
+        REVALIDATED,
+        //  Full read from the service
+        SERVICE
+    }
+
+    private final T item;
+    private final Source source;
+    private final double requestCharge;
+    private final Duration duration;
+
+    public CachedItemResponse(T item, Source source, double requestCharge, Duration duration) {
+        this.item = item;
+        this.source = source;
+        this.requestCharge = requestCharge;
+        this.duration = duration;
+    }
+
+    public T getItem() {
+        return item;
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    public double getRequestCharge() {
+        return requestCharge;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+}
@@ -0,0 +1,46 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.common;
+
+import com.azure.cosmos.ConsistencyLevel;
+import com.azure.cosmos.CosmosClientBuilder;
+import com.azure.cosmos.sample.metrics.CosmosMetrics;
+import com.azure.cosmos.sample.region.RegionLatencyProber;
+
+/**
+ * Creates client builders configured like the ones of the sync and async applications, for the tools that run
+ * workloads outside of them.
+ */
+public final class ClientBuilderFactory {
+
+    private ClientBuilderFactory() {
+    }
+
+    public static CosmosClientBuilder newClientBuilder() {
+        return newClientBuilder(ConnectionProfile.fromSettings());
+    }
+
+    /**
+     * @param profile connection settings of the client, instead of CLIENT_PROFILE.
+     */
+    public static CosmosClientBuilder newClientBuilder(ConnectionProfile profile) {
+        CosmosClientBuilder clientBuilder = new CosmosClientBuilder()
+            .endpoint(AccountSettings.HOST)
+            .key(AccountSettings.MASTER_KEY)
+            //  PREFERRED_REGIONS defaults to West US, just an example. User should set the Cosmos DB regions closest to the application
+            //  With REGION_PROBING the readable regions of the account are ordered by measured latency instead
+            .preferredRegions(RegionLatencyProber.preferredRegions())
+            .consistencyLevel(ConsistencyLevel.EVENTUAL)
+            .contentResponseOnWriteEnabled(true);
+        profile.apply(clientBuilder);
+
+        if (WorkloadSettings.CUSTOM_SERIALIZER) {
+            clientBuilder.customItemSerializer(new FamilyItemSerializer());
+        }
+        if (WorkloadSettings.METRICS_ENABLED || WorkloadSettings.HEDGING_ENABLED) {
+            clientBuilder.clientTelemetryConfig(CosmosMetrics.telemetryConfigFromSettings());
+        }
+        return clientBuilder;
+    }
+}
@@ -0,0 +1,140 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.common;
+
+import com.azure.cosmos.CosmosClientBuilder;
+import com.azure.cosmos.CosmosEndToEndOperationLatencyPolicyConfigBuilder;
+import com.azure.cosmos.DirectConnectionConfig;
+import com.azure.cosmos.GatewayConnectionConfig;
+import com.azure.cosmos.ThrottlingRetryOptions;
+
+import java.time.Duration;
+
+/**
+ * Named connection settings of a client, chosen with CLIENT_PROFILE, for workloads that the SDK defaults do not
+ * fit.
+ *
+ * Direct mode opens TCP connections to every replica the client talks to and multiplexes requests over them.
+ * Gateway mode sends every request over HTTPS to the gateway of the account, one more hop, with a single
+ * connection pool however many partitions the container has.
+ */
+public enum ConnectionProfile {
+
+    /**
+     * The SDK defaults: direct mode, up to 130 connections per replica with 30 requests each, 5 s network request
+     * timeout.
+     */
+    DEFAULT("default") {
+        @Override
+        public CosmosClientBuilder apply(CosmosClientBuilder clientBuilder) {
+            return clientBuilder;
+        }
+    },
+
+    /**
+     * Direct mode for point operations with a tight latency budget. Fewer requests share a connection, so a slow
+     * response delays fewer others. Idle connections are kept open, so requests after a lull do not pay for a TLS
+     * handshake. Connects and requests time out early, so a stuck replica fails over to another one quickly.
+     */
+    LOW_LATENCY_DIRECT("low-latency-direct") {
+        @Override
+        public CosmosClientBuilder apply(CosmosClientBuilder clientBuilder) {
+            return clientBuilder.directMode(DirectConnectionConfig.getDefaultConfig()
+                .setMaxConnectionsPerEndpoint(130)
+                .setMaxRequestsPerConnection(10)
+                //  Zero keeps idle connections open
+                .setIdleConnectionTimeout(Duration.ZERO)
+                .setIdleEndpointTimeout(Duration.ofHours(6))
+                .setConnectTimeout(Duration.ofSeconds(1))
+                .setNetworkRequestTimeout(Duration.ofSeconds(2)));
+        }
+    },
+
+    /**
+     * Gateway mode for many concurrent requests spread over many partitions, e.g. cross partition queries, or for
+     * hosts that cannot keep a connection per replica open, e.g. behind a NAT with few ports. The pool is twice
+     * the default size and returns idle connections sooner. Requests time out after 10 s end to end.
+     *
+     * With HEDGING_ENABLED, point reads and queries carry the end-to-end policy of {@link ReadHedging}, which the
+     * SDK applies instead of the one of the client, so they time out after HEDGING_TIMEOUT_MILLIS instead.
+     */
+    HIGH_FANOUT_GATEWAY("high-fanout-gateway") {
+        @Override
+        public CosmosClientBuilder apply(CosmosClientBuilder clientBuilder) {
+            return clientBuilder
+                .gatewayMode(GatewayConnectionConfig.getDefaultConfig()
+                    .setMaxConnectionPoolSize(2000)
+                    .setIdleConnectionTimeout(Duration.ofSeconds(30)))
+                //  Gateway mode has no network request timeout of its own
+                .endToEndOperationLatencyPolicyConfig(
+                    new CosmosEndToEndOperationLatencyPolicyConfigBuilder(Duration.ofSeconds(10)).build());
+        }
+    },
+
+    /**
+     * Direct mode for bulk writes, e.g. imports. More connections per replica carry more requests each, large
+     * batches get a longer network request timeout, and throttled requests are retried for longer instead of
+     * failing the import.
+     */
+    BATCH_INGEST("batch-ingest") {
+        @Override
+        public CosmosClientBuilder apply(CosmosClientBuilder clientBuilder) {
+            return clientBuilder
+                .directMode(DirectConnectionConfig.getDefaultConfig()
+                    .setMaxConnectionsPerEndpoint(260)
+                    .setMaxRequestsPerConnection(60)
+                    .setIdleConnectionTimeout(Duration.ofMinutes(10))
+                    .setNetworkRequestTimeout(Duration.ofSeconds(10)))
+                .throttlingRetryOptions(new ThrottlingRetryOptions()
+                    .setMaxRetryAttemptsOnThrottledRequests(30)
+                    .setMaxRetryWaitTime(Duration.ofMinutes(2)));
+        }
+    };
+
+    private final String profileName;
+
+    ConnectionProfile(String profileName) {
+        this.profileName = profileName;
+    }
+
+    /**
+     * Applies the connection settings of the profile.
+     *
+     * @param clientBuilder builder to configure.
+     * @return the same builder.
+     */
+    public abstract CosmosClientBuilder apply(CosmosClientBuilder clientBuilder);
+
+    public String getProfileName() {
+        return profileName;
+    }
+
+    /**
+     * @param profileName name of a profile, e.g. "low-latency-direct".
+     * @return the profile of that name.
+     * @throws IllegalArgumentException if there is no profile of that name.
+     */
+    public static ConnectionProfile fromName(String profileName) {
+        StringBuilder names = new StringBuilder();
+        for (ConnectionProfile profile : values()) {
+            if (profile.profileName.equalsIgnoreCase(profileName.trim())) {
+                return profile;
+            }
+            names.append(names.length() == 0 ? "" : ", ").append(profile.profileName);
+        }
+        throw new IllegalArgumentException("Unknown connection profile " + profileName + ", expected one of " + names);
+    }
+
+    /**
+     * @return the profile named by CLIENT_PROFILE.
+     */
+    public static ConnectionProfile fromSettings() {
+        return fromName(WorkloadSettings.CLIENT_PROFILE);
+    }
+
+    @Override
+    public String toString() {
+        return profileName;
+    }
+}
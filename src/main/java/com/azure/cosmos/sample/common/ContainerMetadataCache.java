@@ -0,0 +1,79 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.common;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+/**
+ * Remembers across runs which containers of which accounts are known to exist, with their partition key path, so
+ * an application started again can skip its create-if-not-exists calls.
+ *
+ * The cache is a properties file. A container deleted since it was remembered fails the first operation with a
+ * 404; delete the file, or run without STARTUP_WARMUP once, to create the container again.
+ */
+public class ContainerMetadataCache {
+
+    private static final ContainerMetadataCache DEFAULT = new ContainerMetadataCache(new File(WorkloadSettings.STARTUP_METADATA_FILE));
+
+    private final File file;
+    private final Properties containers = new Properties();
+
+    /**
+     * @param file file the cache is loaded from and saved to, which need not exist yet.
+     */
+    public ContainerMetadataCache(File file) {
+        this.file = file;
+        if (file.isFile()) {
+            try (InputStream input = new FileInputStream(file)) {
+                containers.load(input);
+            } catch (IOException e) {
+                //  An unreadable cache only costs the create-if-not-exists calls
+                containers.clear();
+            }
+        }
+    }
+
+    /**
+     * @return the cache in STARTUP_METADATA_FILE.
+     */
+    public static ContainerMetadataCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @return the partition key path of the container, null if it is not known to exist.
+     */
+    public synchronized String getPartitionKeyPath(String databaseName, String containerName) {
+        return containers.getProperty(key(databaseName, containerName));
+    }
+
+    /**
+     * Remembers that the container exists and saves the cache.
+     */
+    public synchronized void remember(String databaseName, String containerName, String partitionKeyPath) throws IOException {
+        if (partitionKeyPath.equals(containers.getProperty(key(databaseName, containerName)))) {
+            return;
+        }
+        containers.setProperty(key(databaseName, containerName), partitionKeyPath);
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create directory " + directory);
+        }
+        try (OutputStream output = new FileOutputStream(file)) {
+            containers.store(output, "Containers known to exist, see ContainerMetadataCache");
+        }
+    }
+
+    private static String key(String databaseName, String containerName) {
+        String host = AccountSettings.HOST.endsWith("/")
+            ? AccountSettings.HOST.substring(0, AccountSettings.HOST.length() - 1) : AccountSettings.HOST;
+        return host + "/dbs/" + databaseName + "/colls/" + containerName;
+    }
+}
@@ -7,7 +7,7 @@ public class Families {
  
     public static Family getAndersenFamilyItem() {
         Family andersenFamily = new Family();
-        andersenFamily.setId("Andersen-" + System.currentTimeMillis());
+        andersenFamily.setId(FamilyIdGenerator.getDefault().nextId("Andersen"));
         andersenFamily.setLastName("Andersen");
 
         Parent parent1 = new Parent();
@@ -42,7 +42,7 @@ public class Families {
 
     public static Family getWakefieldFamilyItem() {
         Family wakefieldFamily = new Family();
-        wakefieldFamily.setId("Wakefield-" + System.currentTimeMillis());
+        wakefieldFamily.setId(FamilyIdGenerator.getDefault().nextId("Wakefield"));
         wakefieldFamily.setLastName("Wakefield");
 
         Parent parent1 = new Parent();
@@ -89,7 +89,7 @@ public class Families {
 
     public static Family getJohnsonFamilyItem() {
         Family andersenFamily = new Family();
-        andersenFamily.setId("Johnson-" + System.currentTimeMillis());
+        andersenFamily.setId(FamilyIdGenerator.getDefault().nextId("Johnson"));
         andersenFamily.setLastName("Johnson");
 
         Parent parent1 = new Parent();
@@ -103,7 +103,7 @@ public class Families {
     
     public static Family getSmithFamilyItem() {
         Family andersenFamily = new Family();
-        andersenFamily.setId("Smith-" + System.currentTimeMillis());
+        andersenFamily.setId(FamilyIdGenerator.getDefault().nextId("Smith"));
         andersenFamily.setLastName("Smith");
 
         Parent parent1 = new Parent();
@@ -0,0 +1,208 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.common;
+
+import reactor.core.publisher.Flux;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * Generates synthetic Family items for load tests and benchmarks.
+ *
+ * The generator is lazy: items are built one at a time while iterating, so memory stays flat no matter how many
+ * items are requested. Every item is derived from the seed and its index only, hence the same seed always produces
+ * the same items and {@link #familyAt(long)} can rebuild any item without iterating up to it.
+ *
+ * The lastName, which is the partition key of FamilyContainer, is drawn from a pool of distinct names following
+ * a Zipf distribution. A skew of 0 spreads the items evenly over the pool, larger values concentrate them on the
+ * first names of the pool to simulate hot partitions.
+ */
+public class FamilyGenerator implements Iterable<Family> {
+
+    private static final String[] LAST_NAME_PREFIXES = {
+        "Ander", "Wake", "John", "Smi", "Mill", "Robin", "Thom", "Hender", "Peter", "Nichol",
+        "Harri", "Richard", "Ed", "Clark", "Ham", "Car", "Good", "Fair", "Black", "White",
+        "Green", "Wood", "Ash", "Brook", "Hill", "Stan", "Mor", "Wil", "Hud", "Law", "Gar", "Bell"
+    };
+    private static final String[] LAST_NAME_SUFFIXES = {
+        "sen", "field", "son", "th", "er", "ley", "ton", "man", "wood", "ford",
+        "ridge", "well", "by", "ham", "worth", "ing", "stone", "land", "more", "dale",
+        "burn", "croft", "ville", "hurst", "mont", "ard", "sby", "wick", "gate", "win", "lock", "ter"
+    };
+    private static final String[] FIRST_NAMES_FEMALE = {
+        "Mary Kay", "Robin", "Lili", "Cynthia", "Henriette", "Lisa", "Anna", "Emma", "Olivia", "Sophia",
+        "Mia", "Isabella", "Grace", "Chloe", "Zoe", "Hannah"
+    };
+    private static final String[] FIRST_NAMES_MALE = {
+        "Thomas", "Ben", "John", "Jesse", "Liam", "Noah", "Lucas", "Ethan", "Mason", "Logan",
+        "James", "Oliver", "Henry", "Jack", "Samuel", "David"
+    };
+    private static final String[] PET_NAMES = {
+        "Fluffy", "Goofy", "Shadow", "Rex", "Bella", "Max", "Luna", "Charlie", "Daisy", "Rocky",
+        "Milo", "Coco", "Buddy", "Nala", "Oreo", "Pepper"
+    };
+    private static final String[][] ADDRESSES = {
+        { "WA", "King", "Seattle" }, { "WA", "King", "Redmond" }, { "WA", "Pierce", "Tacoma" },
+        { "NY", "Manhattan", "NY" }, { "NY", "Kings", "Brooklyn" }, { "NY", "Erie", "Buffalo" },
+        { "CA", "Los Angeles", "Los Angeles" }, { "CA", "San Francisco", "San Francisco" }, { "CA", "Santa Clara", "San Jose" },
+        { "TX", "Travis", "Austin" }, { "TX", "Harris", "Houston" }, { "IL", "Cook", "Chicago" },
+        { "FL", "Miami-Dade", "Miami" }, { "MA", "Suffolk", "Boston" }, { "CO", "Denver", "Denver" },
+        { "OR", "Multnomah", "Portland" }
+    };
+
+    private final long seed;
+    private final long count;
+    private final String[] lastNames;
+    private final double[] lastNameCdf;
+
+    /**
+     * Creates a generator.
+     *
+     * @param seed seed all items are derived from.
+     * @param count number of items to generate.
+     * @param lastNameCount number of distinct lastName values, i.e. logical partitions.
+     * @param skew Zipf exponent of the lastName distribution, 0 for uniform.
+     */
+    public FamilyGenerator(long seed, long count, int lastNameCount, double skew) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative");
+        }
+        if (lastNameCount < 1) {
+            throw new IllegalArgumentException("lastNameCount must be positive");
+        }
+        if (skew < 0) {
+            throw new IllegalArgumentException("skew must not be negative");
+        }
+        this.seed = seed;
+        this.count = count;
+        this.lastNames = new String[lastNameCount];
+        this.lastNameCdf = new double[lastNameCount];
+
+        double total = 0;
+        for (int rank = 0; rank < lastNameCount; rank++) {
+            lastNames[rank] = lastName(rank);
+            total += 1.0 / Math.pow(rank + 1, skew);
+            lastNameCdf[rank] = total;
+        }
+        for (int rank = 0; rank < lastNameCount; rank++) {
+            lastNameCdf[rank] /= total;
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Builds the item at the given index.
+     *
+     * @param index index of the item, between 0 and count - 1.
+     * @return the family, always the same for the same seed and index.
+     */
+    public Family familyAt(long index) {
+        SplittableRandom random = new SplittableRandom(mix(seed ^ mix(index)));
+        String lastName = lastNames[pickLastName(random.nextDouble())];
+
+        Family family = new Family();
+        family.setId(lastName + "-" + Long.toHexString(seed) + "-" + index);
+        family.setLastName(lastName);
+
+        Parent[] parents = new Parent[1 + random.nextInt(2)];
+        for (int i = 0; i < parents.length; i++) {
+            Parent parent = new Parent(firstName(random, i % 2 == 0));
+            //  As in the Wakefield family, some parents keep their own family name
+            if (random.nextInt(4) == 0) {
+                parent.setFamilyName(lastName(random.nextInt(LAST_NAME_PREFIXES.length * LAST_NAME_SUFFIXES.length)));
+            }
+            parents[i] = parent;
+        }
+        family.setParents(parents);
+
+        Child[] children = new Child[random.nextInt(5)];
+        for (int i = 0; i < children.length; i++) {
+            boolean female = random.nextBoolean();
+            Child child = new Child();
+            child.setFirstName(firstName(random, female));
+            child.setFamilyName(lastName);
+            child.setGender(female ? "female" : "male");
+            child.setGrade(1 + random.nextInt(12));
+
+            Pet[] pets = new Pet[random.nextInt(3)];
+            for (int j = 0; j < pets.length; j++) {
+                pets[j] = new Pet();
+                pets[j].setGivenName(PET_NAMES[random.nextInt(PET_NAMES.length)]);
+            }
+            child.setPets(pets);
+            children[i] = child;
+        }
+        family.setChildren(children);
+
+        String[] location = ADDRESSES[random.nextInt(ADDRESSES.length)];
+        Address address = new Address();
+        address.setState(location[0]);
+        address.setCounty(location[1]);
+        address.setCity(location[2]);
+        family.setAddress(address);
+        family.setDistrict(location[0] + (1 + random.nextInt(50)));
+        family.setRegistered(random.nextInt(10) != 0);
+
+        return family;
+    }
+
+    @Override
+    public Iterator<Family> iterator() {
+        return new Iterator<Family>() {
+            private long next;
+
+            @Override
+            public boolean hasNext() {
+                return next < count;
+            }
+
+            @Override
+            public Family next() {
+                if (next >= count) {
+                    throw new NoSuchElementException();
+                }
+                return familyAt(next++);
+            }
+        };
+    }
+
+    /**
+     * @return a cold Flux generating the items on demand, honoring backpressure.
+     */
+    public Flux<Family> toFlux() {
+        return Flux.fromIterable(this);
+    }
+
+    private int pickLastName(double uniform) {
+        int position = Arrays.binarySearch(lastNameCdf, uniform);
+        int rank = position >= 0 ? position : -position - 1;
+        return Math.min(rank, lastNames.length - 1);
+    }
+
+    private static String firstName(SplittableRandom random, boolean female) {
+        String[] names = female ? FIRST_NAMES_FEMALE : FIRST_NAMES_MALE;
+        return names[random.nextInt(names.length)];
+    }
+
+    private static String lastName(int rank) {
+        int combinations = LAST_NAME_PREFIXES.length * LAST_NAME_SUFFIXES.length;
+        int combination = rank % combinations;
+        String name = LAST_NAME_PREFIXES[combination / LAST_NAME_SUFFIXES.length]
+            + LAST_NAME_SUFFIXES[combination % LAST_NAME_SUFFIXES.length];
+        return rank < combinations ? name : name + "-" + (rank / combinations);
+    }
+
+    //  Stafford variant 13 of the 64-bit finalizer, spreads consecutive indexes over unrelated seeds
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,88 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.common;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates unique, monotonically increasing ids for Family items.
+ *
+ * An id packs a millisecond timestamp, a sequence number within that millisecond and a node number:
+ * <pre>
+ *  | 41 bits milliseconds since 2020-01-01 | 12 bits sequence | 10 bits node |
+ * </pre>
+ * The timestamp and the sequence live in a single AtomicLong advanced with compare-and-set, so generation never
+ * locks. When more than 4096 ids are requested within one millisecond the timestamp part simply runs ahead of the
+ * clock instead of waiting for it, and catches up once the load drops.
+ *
+ * Ids are unique within the process. Processes loading the same container concurrently must use distinct node
+ * numbers, see {@link WorkloadSettings#NODE_ID}.
+ */
+public class FamilyIdGenerator {
+
+    private static final long EPOCH_MILLIS = 1577836800000L;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int NODE_BITS = 10;
+    private static final long MAX_NODE = (1L << NODE_BITS) - 1;
+
+    private static final FamilyIdGenerator DEFAULT = new FamilyIdGenerator(
+        WorkloadSettings.NODE_ID >= 0 ? WorkloadSettings.NODE_ID : defaultNode());
+
+    private final long node;
+    private final AtomicLong lastState = new AtomicLong();
+
+    /**
+     * @param node node number of this process, between 0 and 1023.
+     */
+    public FamilyIdGenerator(long node) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("node must be between 0 and " + MAX_NODE);
+        }
+        this.node = node;
+    }
+
+    /**
+     * @return the process wide generator.
+     */
+    public static FamilyIdGenerator getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @return the next id as a number.
+     */
+    public long nextLong() {
+        long clockState = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long previous;
+        long next;
+        do {
+            previous = lastState.get();
+            next = Math.max(previous + 1, clockState);
+        } while (!lastState.compareAndSet(previous, next));
+        return (next << NODE_BITS) | node;
+    }
+
+    /**
+     * Builds a Family item id such as "Andersen-0001a2b3c4d5e6f7".
+     *
+     * The numeric part has a fixed width, so ids of the same prefix sort in generation order.
+     *
+     * @param prefix prefix of the id, usually the family lastName.
+     * @return the next id.
+     */
+    public String nextId(String prefix) {
+        String hex = Long.toHexString(nextLong());
+        StringBuilder id = new StringBuilder(prefix.length() + 17).append(prefix).append('-');
+        for (int i = hex.length(); i < 16; i++) {
+            id.append('0');
+        }
+        return id.append(hex).toString();
+    }
+
+    private static long defaultNode() {
+        //  pid@hostname on the usual JVMs
+        return ManagementFactory.getRuntimeMXBean().getName().hashCode() & MAX_NODE;
+    }
+}
@@ -0,0 +1,59 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.common;
+
+import com.azure.cosmos.CosmosItemSerializer;
+import com.azure.cosmos.implementation.ObjectNodeMap;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * Item serializer that converts Family items with {@link FamilyJsonCodec} instead of reflective Jackson databinding.
+ *
+ * Register it with {@link com.azure.cosmos.CosmosClientBuilder#customItemSerializer(CosmosItemSerializer)}.
+ * Any other type is handed to {@link CosmosItemSerializer#DEFAULT_SERIALIZER}.
+ *
+ * The SDK exchanges items with a serializer as Map instances backed by the JSON tree of the item, and reads or
+ * writes that tree directly when it gets one back. On write the codec streams the Family into the tree, on read
+ * it walks the tree with a streaming parser, so the tree is never converted into nested Map instances, which the
+ * first {@link Map#get(Object)} on the SDK's Map would do.
+ */
+public class FamilyItemSerializer extends CosmosItemSerializer {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Override
+    public <T> Map<String, Object> serialize(T item) {
+        if (!(item instanceof Family)) {
+            return DEFAULT_SERIALIZER.serialize(item);
+        }
+        TokenBuffer buffer = new TokenBuffer(OBJECT_MAPPER, false);
+        try {
+            FamilyJsonCodec.write((Family) item, buffer);
+            ObjectNode tree = OBJECT_MAPPER.readTree(buffer.asParser());
+            return new ObjectNodeMap(tree);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public <T> T deserialize(Map<String, Object> jsonNodeMap, Class<T> classType) {
+        if (classType != Family.class || !(jsonNodeMap instanceof ObjectNodeMap)) {
+            return DEFAULT_SERIALIZER.deserialize(jsonNodeMap, classType);
+        }
+        try (JsonParser parser = ((ObjectNodeMap) jsonNodeMap).getObjectNode().traverse()) {
+            parser.nextToken();
+            return classType.cast(FamilyJsonCodec.read(parser));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,274 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.common;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-written JSON reader and writer for Family items based on the Jackson streaming API.
+ *
+ * Fields are written and read by name without reflection or intermediate tree nodes. The JSON layout is the one
+ * produced by Jackson databinding of the model classes, except that null fields are left out. Fields the model
+ * does not know, such as the system properties _rid, _etag or _ts, are skipped on read.
+ */
+public final class FamilyJsonCodec {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private FamilyJsonCodec() {
+    }
+
+    public static JsonFactory getJsonFactory() {
+        return JSON_FACTORY;
+    }
+
+    public static byte[] toBytes(Family family) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            write(family, generator);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public static Family fromBytes(byte[] json) {
+        return fromBytes(json, 0, json.length);
+    }
+
+    public static Family fromBytes(byte[] json, int offset, int length) {
+        try (JsonParser parser = JSON_FACTORY.createParser(json, offset, length)) {
+            parser.nextToken();
+            return read(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the family as one JSON object.
+     *
+     * @param family family to write.
+     * @param generator generator to write to.
+     * @throws IOException if the generator fails.
+     */
+    public static void write(Family family, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, "id", family.getId());
+        writeString(generator, "lastName", family.getLastName());
+        writeString(generator, "district", family.getDistrict());
+
+        Parent[] parents = family.getParents();
+        if (parents != null) {
+            generator.writeArrayFieldStart("parents");
+            for (Parent parent : parents) {
+                generator.writeStartObject();
+                writeString(generator, "familyName", parent.getFamilyName());
+                writeString(generator, "firstName", parent.getFirstName());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+
+        Child[] children = family.getChildren();
+        if (children != null) {
+            generator.writeArrayFieldStart("children");
+            for (Child child : children) {
+                writeChild(child, generator);
+            }
+            generator.writeEndArray();
+        }
+
+        Address address = family.getAddress();
+        if (address != null) {
+            generator.writeObjectFieldStart("address");
+            writeString(generator, "state", address.getState());
+            writeString(generator, "county", address.getCounty());
+            writeString(generator, "city", address.getCity());
+            generator.writeEndObject();
+        }
+
+        generator.writeBooleanField("registered", family.isRegistered());
+        generator.writeEndObject();
+    }
+
+    /**
+     * Reads one family.
+     *
+     * @param parser parser positioned on the START_OBJECT token of the family.
+     * @return the family, the parser is left on the matching END_OBJECT token.
+     * @throws IOException if the input is not a valid family.
+     */
+    public static Family read(JsonParser parser) throws IOException {
+        expect(parser, JsonToken.START_OBJECT);
+        Family family = new Family();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id":
+                    family.setId(parser.getValueAsString());
+                    break;
+                case "lastName":
+                    family.setLastName(parser.getValueAsString());
+                    break;
+                case "district":
+                    family.setDistrict(parser.getValueAsString());
+                    break;
+                case "parents":
+                    family.setParents(value == JsonToken.VALUE_NULL ? null : readParents(parser));
+                    break;
+                case "children":
+                    family.setChildren(value == JsonToken.VALUE_NULL ? null : readChildren(parser));
+                    break;
+                case "address":
+                    family.setAddress(value == JsonToken.VALUE_NULL ? null : readAddress(parser));
+                    break;
+                case "registered":
+                    family.setRegistered(parser.getValueAsBoolean());
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return family;
+    }
+
+    private static void writeChild(Child child, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        writeString(generator, "familyName", child.getFamilyName());
+        writeString(generator, "firstName", child.getFirstName());
+        writeString(generator, "gender", child.getGender());
+        generator.writeNumberField("grade", child.getGrade());
+        Pet[] pets = child.getPets();
+        if (pets != null) {
+            generator.writeArrayFieldStart("pets");
+            for (Pet pet : pets) {
+                generator.writeStartObject();
+                writeString(generator, "givenName", pet.getGivenName());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    private static Parent[] readParents(JsonParser parser) throws IOException {
+        expect(parser, JsonToken.START_ARRAY);
+        List<Parent> parents = new ArrayList<>(2);
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            Parent parent = new Parent();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("familyName".equals(field)) {
+                    parent.setFamilyName(parser.getValueAsString());
+                } else if ("firstName".equals(field)) {
+                    parent.setFirstName(parser.getValueAsString());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            parents.add(parent);
+        }
+        return parents.toArray(new Parent[0]);
+    }
+
+    private static Child[] readChildren(JsonParser parser) throws IOException {
+        expect(parser, JsonToken.START_ARRAY);
+        List<Child> children = new ArrayList<>(4);
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            Child child = new Child();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "familyName":
+                        child.setFamilyName(parser.getValueAsString());
+                        break;
+                    case "firstName":
+                        child.setFirstName(parser.getValueAsString());
+                        break;
+                    case "gender":
+                        child.setGender(parser.getValueAsString());
+                        break;
+                    case "grade":
+                        child.setGrade(parser.getValueAsInt());
+                        break;
+                    case "pets":
+                        child.setPets(value == JsonToken.VALUE_NULL ? null : readPets(parser));
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+            children.add(child);
+        }
+        return children.toArray(new Child[0]);
+    }
+
+    private static Pet[] readPets(JsonParser parser) throws IOException {
+        expect(parser, JsonToken.START_ARRAY);
+        List<Pet> pets = new ArrayList<>(2);
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            Pet pet = new Pet();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("givenName".equals(field)) {
+                    pet.setGivenName(parser.getValueAsString());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            pets.add(pet);
+        }
+        return pets.toArray(new Pet[0]);
+    }
+
+    private static Address readAddress(JsonParser parser) throws IOException {
+        expect(parser, JsonToken.START_OBJECT);
+        Address address = new Address();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "state":
+                    address.setState(parser.getValueAsString());
+                    break;
+                case "county":
+                    address.setCounty(parser.getValueAsString());
+                    break;
+                case "city":
+                    address.setCity(parser.getValueAsString());
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return address;
+    }
+
+    private static void writeString(JsonGenerator generator, String field, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(field, value);
+        }
+    }
+
+    private static void expect(JsonParser parser, JsonToken token) throws IOException {
+        if (parser.currentToken() != token) {
+            throw new IOException("Expected " + token + " but found " + parser.currentToken()
+                + " at " + parser.currentLocation());
+        }
+    }
+}
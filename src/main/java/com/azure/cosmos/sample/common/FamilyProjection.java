@@ -0,0 +1,59 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.common;
+
+import com.azure.cosmos.models.SqlParameter;
+import com.azure.cosmos.models.SqlQuerySpec;
+
+import java.util.List;
+
+/**
+ * A query over Family items that only selects some fields and maps them to a lightweight type.
+ *
+ * The service sends only the selected fields, without the system properties of the items, and the client only
+ * parses and binds those. {@link #ID} selects the bare id values, which are deserialized as strings.
+ *
+ * @param <T> type the results are mapped to.
+ */
+public final class FamilyProjection<T> {
+
+    public static final FamilyProjection<String> ID = new FamilyProjection<>("VALUE f.id", String.class);
+
+    public static final FamilyProjection<FamilySummary> SUMMARY = new FamilyProjection<>(
+        "f.id, f.lastName, f.district, f.address.state", FamilySummary.class);
+
+    /**
+     * Selects whole families, to compare projections against.
+     */
+    public static final FamilyProjection<Family> ALL = new FamilyProjection<>("*", Family.class);
+
+    private final String selectList;
+    private final Class<T> resultType;
+
+    /**
+     * @param selectList select list over the alias f, e.g. "f.id, f.lastName".
+     * @param resultType type the results are mapped to.
+     */
+    public FamilyProjection(String selectList, Class<T> resultType) {
+        this.selectList = selectList;
+        this.resultType = resultType;
+    }
+
+    /**
+     * @param filter condition over the alias f, may use parameters, e.g. "f.lastName IN (@name1, @name2)".
+     * @param parameters values of the parameters used by the filter.
+     * @return the query, prepared through {@link ParameterizedQueries}.
+     */
+    public SqlQuerySpec query(String filter, List<SqlParameter> parameters) {
+        return ParameterizedQueries.bind("SELECT " + selectList + " FROM Family f WHERE " + filter, parameters);
+    }
+
+    public String getSelectList() {
+        return selectList;
+    }
+
+    public Class<T> getResultType() {
+        return resultType;
+    }
+}
@@ -0,0 +1,206 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.common;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+
+/**
+ * Bounded cache of items keyed by partition key and id, for read-through point reads.
+ *
+ * The cache is bounded by the total estimated size of its items and evicts the least recently used ones first.
+ * An entry is fresh for the configured time to live. An expired entry is kept, along with its ETag, until it is
+ * evicted, so a reader can revalidate it with an If-None-Match read instead of reading the full item again.
+ *
+ * @param <T> item type.
+ */
+public class ItemCache<T> {
+
+    private final long maxWeight;
+    private final long timeToLiveNanos;
+    private final ToIntFunction<T> weigher;
+    private final LinkedHashMap<Key, Entry<T>> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long weight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxWeight maximum total weight of the cached items, e.g. in bytes.
+     * @param timeToLive how long an item is served without asking the service.
+     * @param weigher estimates the weight of an item.
+     */
+    public ItemCache(long maxWeight, long timeToLive, TimeUnit unit, ToIntFunction<T> weigher) {
+        this.maxWeight = maxWeight;
+        this.timeToLiveNanos = unit.toNanos(timeToLive);
+        this.weigher = weigher;
+    }
+
+    /**
+     * Looks an item up. Does not count as a hit or a miss, see {@link #recordHit()} and {@link #recordMiss()}.
+     *
+     * @return the entry, fresh or expired, or null if the item is not cached.
+     */
+    public synchronized Entry<T> get(String partitionKey, String id) {
+        return entries.get(new Key(partitionKey, id));
+    }
+
+    public synchronized void put(String partitionKey, String id, T item, String eTag) {
+        int itemWeight = weigher.applyAsInt(item);
+        Key key = new Key(partitionKey, id);
+        if (itemWeight > maxWeight) {
+            //  Too large to cache, but the cached version is outdated now
+            Entry<T> removed = entries.remove(key);
+            if (removed != null) {
+                weight -= removed.weight;
+            }
+            return;
+        }
+        Entry<T> previous = entries.put(key,
+            new Entry<>(item, eTag, itemWeight, System.nanoTime() + timeToLiveNanos));
+        weight += itemWeight - (previous != null ? previous.weight : 0);
+        evict();
+    }
+
+    /**
+     * Marks an entry fresh again after the service confirmed the cached version is current.
+     */
+    public synchronized void renew(String partitionKey, String id) {
+        Entry<T> entry = entries.get(new Key(partitionKey, id));
+        if (entry != null) {
+            entry.expiresAtNanos = System.nanoTime() + timeToLiveNanos;
+        }
+        revalidations.increment();
+    }
+
+    public synchronized void invalidate(String partitionKey, String id) {
+        Entry<T> removed = entries.remove(new Key(partitionKey, id));
+        if (removed != null) {
+            weight -= removed.weight;
+        }
+    }
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return number of expired entries the service confirmed as unchanged, served from the cache.
+     */
+    public long getRevalidationCount() {
+        return revalidations.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return share of lookups answered without reading the item from the service, revalidations included.
+     */
+    public double getHitRate() {
+        long served = hits.sum() + revalidations.sum();
+        long total = served + misses.sum();
+        return total == 0 ? 0 : (double) served / total;
+    }
+
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d, revalidations=%d, misses=%d, hit rate=%.1f%%, evictions=%d, size=%d, weight=%d/%d",
+            getHitCount(), getRevalidationCount(), getMissCount(), getHitRate() * 100, getEvictionCount(),
+            size(), getWeight(), maxWeight);
+    }
+
+    private void evict() {
+        Iterator<Entry<T>> leastRecentlyUsed = entries.values().iterator();
+        while (weight > maxWeight && leastRecentlyUsed.hasNext()) {
+            weight -= leastRecentlyUsed.next().weight;
+            leastRecentlyUsed.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Cached item with its ETag.
+     */
+    public static final class Entry<T> {
+        private final T item;
+        private final String eTag;
+        private final int weight;
+        private volatile long expiresAtNanos;
+
+        private Entry(T item, String eTag, int weight, long expiresAtNanos) {
+            this.item = item;
+            this.eTag = eTag;
+            this.weight = weight;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        public boolean isFresh() {
+            return System.nanoTime() - expiresAtNanos < 0;
+        }
+    }
+
+    private static final class Key {
+        private final String partitionKey;
+        private final String id;
+
+        private Key(String partitionKey, String id) {
+            this.partitionKey = partitionKey;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return partitionKey.equals(key.partitionKey) && id.equals(key.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(partitionKey, id);
+        }
+    }
+}
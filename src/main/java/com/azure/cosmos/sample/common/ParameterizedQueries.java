@@ -0,0 +1,216 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.common;
+
+import com.azure.cosmos.models.SqlParameter;
+import com.azure.cosmos.models.SqlQuerySpec;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds parameterized queries, so queries that only differ in their values share one query text.
+ *
+ * The shape of a query is its text with whitespace collapsed and every string and number literal replaced by a
+ * parameter. Sending values as parameters instead of literals keeps them out of the query text, which avoids
+ * escaping mistakes and lets the service and the SDK treat all executions of a shape as the same query.
+ */
+public final class ParameterizedQueries {
+
+    private static final String LITERAL_PARAMETER_PREFIX = "@literal";
+
+    private ParameterizedQueries() {
+    }
+
+    /**
+     * Parameterizes a query that embeds its values as literals, e.g. "... WHERE f.lastName IN ('Andersen', 'Wakefield')".
+     *
+     * @param queryText query with literals.
+     * @return the query with its literals turned into parameters.
+     */
+    public static SqlQuerySpec parameterize(String queryText) {
+        List<Object> literals = new ArrayList<>();
+        String shape = normalize(queryText, literals);
+        List<SqlParameter> parameters = new ArrayList<>(literals.size());
+        for (int i = 0; i < literals.size(); i++) {
+            parameters.add(new SqlParameter(LITERAL_PARAMETER_PREFIX + i, literals.get(i)));
+        }
+        return new SqlQuerySpec(shape, parameters);
+    }
+
+    /**
+     * Binds the values of a parameterized query.
+     *
+     * @param queryText query with parameters, e.g. "... WHERE f.lastName = @lastName".
+     * @param parameters values of every parameter of the query.
+     * @return the query.
+     * @throws IllegalArgumentException if the query also embeds literals or a parameter has no value.
+     */
+    public static SqlQuerySpec bind(String queryText, List<SqlParameter> parameters) {
+        List<Object> literals = new ArrayList<>();
+        String shape = normalize(queryText, literals);
+        if (!literals.isEmpty()) {
+            throw new IllegalArgumentException("Query embeds " + literals.size() + " literals, use parameterize: " + queryText);
+        }
+        Set<String> missing = parameterNames(shape);
+        for (SqlParameter parameter : parameters) {
+            missing.remove(parameter.getName());
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("No value for parameters " + missing + " of query: " + queryText);
+        }
+        return new SqlQuerySpec(shape, parameters);
+    }
+
+    /**
+     * Collapses whitespace and replaces the string and number literals of a query with parameters.
+     * true, false and null are kept, as are array indexes and property names in brackets.
+     *
+     * @param queryText query to normalize.
+     * @param literals receives the values of the replaced literals, in order.
+     * @return the shape of the query.
+     */
+    static String normalize(String queryText, List<Object> literals) {
+        StringBuilder shape = new StringBuilder(queryText.length());
+        int i = 0;
+        int length = queryText.length();
+        while (i < length) {
+            char c = queryText.charAt(i);
+            if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(queryText.charAt(i))) {
+                    i++;
+                }
+                if (shape.length() > 0 && i < length) {
+                    shape.append(' ');
+                }
+            } else if (c == '\'' || c == '"') {
+                int start = i;
+                StringBuilder value = new StringBuilder();
+                i++;
+                while (i < length && queryText.charAt(i) != c) {
+                    if (queryText.charAt(i) == '\\') {
+                        i = unescape(queryText, i, value);
+                    } else {
+                        value.append(queryText.charAt(i++));
+                    }
+                }
+                if (i == length) {
+                    throw new IllegalArgumentException("Unterminated string literal in query: " + queryText);
+                }
+                i++;
+                if (isIndex(shape)) {
+                    shape.append(queryText, start, i);
+                } else {
+                    shape.append(LITERAL_PARAMETER_PREFIX).append(literals.size());
+                    literals.add(value.toString());
+                }
+            } else if (Character.isDigit(c) && !isIdentifierPart(shape) && !isIndex(shape)) {
+                int start = i;
+                boolean integer = true;
+                while (i < length && Character.isDigit(queryText.charAt(i))) {
+                    i++;
+                }
+                if (i + 1 < length && queryText.charAt(i) == '.' && Character.isDigit(queryText.charAt(i + 1))) {
+                    integer = false;
+                    i++;
+                    while (i < length && Character.isDigit(queryText.charAt(i))) {
+                        i++;
+                    }
+                }
+                if (i < length && (queryText.charAt(i) == 'e' || queryText.charAt(i) == 'E')) {
+                    int exponent = i + 1;
+                    if (exponent < length && (queryText.charAt(exponent) == '+' || queryText.charAt(exponent) == '-')) {
+                        exponent++;
+                    }
+                    if (exponent < length && Character.isDigit(queryText.charAt(exponent))) {
+                        integer = false;
+                        i = exponent;
+                        while (i < length && Character.isDigit(queryText.charAt(i))) {
+                            i++;
+                        }
+                    }
+                }
+                String number = queryText.substring(start, i);
+                shape.append(LITERAL_PARAMETER_PREFIX).append(literals.size());
+                literals.add(integer ? (Object) Long.parseLong(number) : (Object) Double.parseDouble(number));
+            } else {
+                shape.append(c);
+                i++;
+            }
+        }
+        return shape.toString();
+    }
+
+    //  Appends the character of the escape sequence at the backslash at index i, returns the index after it
+    private static int unescape(String queryText, int i, StringBuilder value) {
+        if (i + 1 >= queryText.length()) {
+            throw new IllegalArgumentException("Unterminated string literal in query: " + queryText);
+        }
+        char escaped = queryText.charAt(i + 1);
+        switch (escaped) {
+            case 'b':
+                value.append('\b');
+                break;
+            case 'f':
+                value.append('\f');
+                break;
+            case 'n':
+                value.append('\n');
+                break;
+            case 'r':
+                value.append('\r');
+                break;
+            case 't':
+                value.append('\t');
+                break;
+            case 'u':
+                if (i + 6 > queryText.length()) {
+                    throw new IllegalArgumentException("Invalid unicode escape in query: " + queryText);
+                }
+                try {
+                    value.append((char) Integer.parseInt(queryText.substring(i + 2, i + 6), 16));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid unicode escape in query: " + queryText, e);
+                }
+                return i + 6;
+            default:
+                //  \' \" \\ \/ stand for the character itself
+                value.append(escaped);
+                break;
+        }
+        return i + 2;
+    }
+
+    private static Set<String> parameterNames(String queryText) {
+        Set<String> names = new LinkedHashSet<>();
+        for (int i = queryText.indexOf('@'); i >= 0; i = queryText.indexOf('@', i + 1)) {
+            int end = i + 1;
+            while (end < queryText.length()
+                && (Character.isLetterOrDigit(queryText.charAt(end)) || queryText.charAt(end) == '_')) {
+                end++;
+            }
+            names.add(queryText.substring(i, end));
+        }
+        return names;
+    }
+
+    private static boolean isIdentifierPart(StringBuilder shape) {
+        if (shape.length() == 0) {
+            return false;
+        }
+        char previous = shape.charAt(shape.length() - 1);
+        return Character.isLetterOrDigit(previous) || previous == '_' || previous == '@';
+    }
+
+    //  Array indexes and property names in brackets stay literals, they are part of the shape
+    private static boolean isIndex(StringBuilder shape) {
+        int last = shape.length() - 1;
+        if (last >= 0 && shape.charAt(last) == ' ') {
+            last--;
+        }
+        return last >= 0 && shape.charAt(last) == '[';
+    }
+}
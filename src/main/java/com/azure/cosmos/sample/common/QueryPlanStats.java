@@ -0,0 +1,162 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.common;
+
+import com.azure.cosmos.CosmosDiagnostics;
+import com.azure.cosmos.models.FeedResponse;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Counts how the queries of the application got their query plan, read from the diagnostics of their first page.
+ *
+ * Before running a query the SDK needs its query plan. It fetches the plan from the gateway, reuses the plan it
+ * cached for the same query text, which it only does for queries scoped to one partition key, or runs a query
+ * that needs no plan without one. The first page of a query carries the query plan diagnostics in its
+ * {@link CosmosDiagnostics}: a fetched plan comes with the timeline of a gateway request sent while the query
+ * started, a cached plan with the timeline of the earlier request that fetched it.
+ */
+public final class QueryPlanStats {
+
+    /**
+     * Where a query got its query plan from.
+     */
+    public enum Source {
+        FETCHED,
+        CACHED,
+        NONE
+    }
+
+    protected static Logger logger = LoggerFactory.getLogger(QueryPlanStats.class.getSimpleName());
+
+    private static final QueryPlanStats DEFAULT = new QueryPlanStats();
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String CONTEXT_FIELD = "\"queryPlanDiagnosticsContext\":";
+
+    private final LongAdder fetched = new LongAdder();
+    private final LongAdder cached = new LongAdder();
+    private final LongAdder none = new LongAdder();
+
+    private QueryPlanStats() {
+    }
+
+    public static QueryPlanStats getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Records the query plan of a query.
+     *
+     * @param firstPage first page of the query, later pages carry no query plan diagnostics.
+     * @return where the query got its query plan from.
+     */
+    public Source record(FeedResponse<?> firstPage) {
+        Source source = sourceOf(firstPage.getCosmosDiagnostics());
+        switch (source) {
+            case FETCHED:
+                fetched.increment();
+                break;
+            case CACHED:
+                cached.increment();
+                break;
+            default:
+                none.increment();
+        }
+        logger.debug("Query plan {}", source);
+        return source;
+    }
+
+    /**
+     * Records the query plan of every query the pages are subscribed for.
+     */
+    public <T> Flux<FeedResponse<T>> recordFirstPage(Flux<FeedResponse<T>> pages) {
+        return Flux.defer(() -> {
+            AtomicBoolean first = new AtomicBoolean(true);
+            return pages.doOnNext(page -> {
+                if (first.getAndSet(false)) {
+                    record(page);
+                }
+            });
+        });
+    }
+
+    /**
+     * Records the query plan of the query whose pages the consumer is given.
+     */
+    public <T> Consumer<FeedResponse<T>> recordFirstPage(Consumer<FeedResponse<T>> consumer) {
+        AtomicBoolean first = new AtomicBoolean(true);
+        return page -> {
+            if (first.getAndSet(false)) {
+                record(page);
+            }
+            consumer.accept(page);
+        };
+    }
+
+    static Source sourceOf(CosmosDiagnostics diagnostics) {
+        if (diagnostics == null) {
+            return Source.NONE;
+        }
+        //  The query plan diagnostics are internal to the SDK, only their JSON form is public
+        String json = diagnostics.toString();
+        int start = json.indexOf(CONTEXT_FIELD);
+        if (start < 0) {
+            return Source.NONE;
+        }
+        JsonNode context;
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(json.substring(start + CONTEXT_FIELD.length()))) {
+            context = OBJECT_MAPPER.readTree(parser);
+        } catch (IOException e) {
+            logger.debug("Unreadable query plan diagnostics", e);
+            return Source.NONE;
+        }
+        if (context == null || !context.isObject()) {
+            return Source.NONE;
+        }
+        JsonNode timeline = context.path("requestTimeline");
+        if (!timeline.isArray() || timeline.size() == 0) {
+            return Source.NONE;
+        }
+        Instant queryStart = Instant.parse(context.get("startTimeUTC").asText());
+        Instant planRequestStart = Instant.parse(timeline.get(0).get("startTimeUTC").asText());
+        return planRequestStart.isBefore(queryStart) ? Source.CACHED : Source.FETCHED;
+    }
+
+    public long getFetchedCount() {
+        return fetched.sum();
+    }
+
+    public long getCachedCount() {
+        return cached.sum();
+    }
+
+    public long getNoneCount() {
+        return none.sum();
+    }
+
+    /**
+     * @return share of the queries needing a plan that reused a cached one.
+     */
+    public double getHitRate() {
+        long fetchedCount = getFetchedCount();
+        long cachedCount = getCachedCount();
+        return fetchedCount + cachedCount == 0 ? 0 : (double) cachedCount / (fetchedCount + cachedCount);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("fetched=%d, cached=%d, without plan=%d, hit rate=%.1f%%",
+            getFetchedCount(), getCachedCount(), getNoneCount(), getHitRate() * 100);
+    }
+}
@@ -0,0 +1,83 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.common;
+
+import com.azure.cosmos.CosmosEndToEndOperationLatencyPolicyConfig;
+import com.azure.cosmos.CosmosEndToEndOperationLatencyPolicyConfigBuilder;
+import com.azure.cosmos.ThresholdBasedAvailabilityStrategy;
+import com.azure.cosmos.models.CosmosItemRequestOptions;
+import com.azure.cosmos.models.CosmosQueryRequestOptions;
+
+import java.time.Duration;
+
+/**
+ * Hedges point reads and queries across the preferred regions, to keep a slow replica or region out of the tail
+ * latency.
+ *
+ * A hedged request goes to the first preferred region. If it has not answered within the threshold, the SDK sends
+ * it to the next preferred region as well, then to the following one after every threshold step, and completes
+ * with the first successful response. Every request sent is charged, so hedging trades request units for latency.
+ * Writes are not hedged.
+ *
+ * Hedging is configured with the HEDGING_* settings and is a no-op when HEDGING_ENABLED is false.
+ */
+public final class ReadHedging {
+
+    private static final CosmosEndToEndOperationLatencyPolicyConfig POLICY = WorkloadSettings.HEDGING_ENABLED
+        ? newPolicy(Duration.ofMillis(WorkloadSettings.HEDGING_TIMEOUT_MILLIS),
+            Duration.ofMillis(WorkloadSettings.HEDGING_THRESHOLD_MILLIS),
+            Duration.ofMillis(WorkloadSettings.HEDGING_THRESHOLD_STEP_MILLIS))
+        : null;
+
+    private ReadHedging() {
+    }
+
+    /**
+     * @param timeout time after which the operation fails, in all regions.
+     * @param threshold time after which the request is also sent to the second preferred region.
+     * @param thresholdStep time after which the request is also sent to each following preferred region.
+     */
+    public static CosmosEndToEndOperationLatencyPolicyConfig newPolicy(Duration timeout, Duration threshold,
+                                                                       Duration thresholdStep) {
+        return new CosmosEndToEndOperationLatencyPolicyConfigBuilder(timeout)
+            .availabilityStrategy(new ThresholdBasedAvailabilityStrategy(threshold, thresholdStep))
+            .enable(true)
+            .build();
+    }
+
+    public static boolean isEnabled() {
+        return POLICY != null;
+    }
+
+    /**
+     * @return options of a point read, hedged if enabled.
+     */
+    public static CosmosItemRequestOptions itemRequestOptions() {
+        return apply(new CosmosItemRequestOptions());
+    }
+
+    /**
+     * Hedges a point read if enabled.
+     *
+     * @return the options.
+     */
+    public static CosmosItemRequestOptions apply(CosmosItemRequestOptions options) {
+        if (POLICY != null) {
+            options.setCosmosEndToEndOperationLatencyPolicyConfig(POLICY);
+        }
+        return options;
+    }
+
+    /**
+     * Hedges every page of a query if enabled.
+     *
+     * @return the options.
+     */
+    public static CosmosQueryRequestOptions apply(CosmosQueryRequestOptions options) {
+        if (POLICY != null) {
+            options.setCosmosEndToEndOperationLatencyPolicyConfig(POLICY);
+        }
+        return options;
+    }
+}
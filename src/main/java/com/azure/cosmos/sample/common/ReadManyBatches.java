@@ -0,0 +1,116 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.common;
+
+import com.azure.cosmos.models.CosmosItemIdentity;
+import com.azure.cosmos.models.PartitionKey;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Splits point reads into readMany chunks and puts the results back into input order.
+ *
+ * Identities are grouped by partition key before chunking, so a chunk spans as few partitions as possible and
+ * the SDK can serve most of it with a single request per partition.
+ */
+public final class ReadManyBatches {
+
+    private ReadManyBatches() {
+    }
+
+    /**
+     * @param identities identities to read, duplicates are read once.
+     * @param chunkSize maximum number of identities per readMany call.
+     * @return the chunks, identities of the same partition key next to each other.
+     */
+    public static List<List<CosmosItemIdentity>> chunk(List<CosmosItemIdentity> identities, int chunkSize) {
+        Map<PartitionKey, Set<CosmosItemIdentity>> byPartitionKey = new LinkedHashMap<>();
+        for (CosmosItemIdentity identity : identities) {
+            byPartitionKey.computeIfAbsent(identity.getPartitionKey(), pk -> new LinkedHashSet<>()).add(identity);
+        }
+
+        List<List<CosmosItemIdentity>> chunks = new ArrayList<>();
+        List<CosmosItemIdentity> chunk = new ArrayList<>(chunkSize);
+        for (Set<CosmosItemIdentity> partition : byPartitionKey.values()) {
+            for (CosmosItemIdentity identity : partition) {
+                chunk.add(identity);
+                if (chunk.size() == chunkSize) {
+                    chunks.add(chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    /**
+     * @param identities identities in input order.
+     * @param items items read, in any order.
+     * @param identityOf extracts the identity of an item.
+     * @return one element per identity, in input order, null for an item that does not exist.
+     */
+    public static <T> List<T> inInputOrder(List<CosmosItemIdentity> identities, Collection<T> items,
+                                           Function<T, CosmosItemIdentity> identityOf) {
+        Map<CosmosItemIdentity, T> byIdentity = new HashMap<>(items.size() * 2);
+        for (T item : items) {
+            byIdentity.put(identityOf.apply(item), item);
+        }
+        List<T> ordered = new ArrayList<>(identities.size());
+        for (CosmosItemIdentity identity : identities) {
+            ordered.add(byIdentity.get(identity));
+        }
+        return ordered;
+    }
+
+    /**
+     * @return the identity of a Family, whose partition key is its lastName.
+     */
+    public static CosmosItemIdentity identityOf(Family family) {
+        return new CosmosItemIdentity(new PartitionKey(family.getLastName()), family.getId());
+    }
+
+    /**
+     * Items read in input order along with the cost of reading them.
+     */
+    public static class Result<T> {
+        private final List<T> items;
+        private final double requestCharge;
+        private final int requestCount;
+
+        public Result(List<T> items, double requestCharge, int requestCount) {
+            this.items = items;
+            this.requestCharge = requestCharge;
+            this.requestCount = requestCount;
+        }
+
+        /**
+         * @return one element per requested identity, in input order, null for an item that does not exist.
+         */
+        public List<T> getItems() {
+            return items;
+        }
+
+        public double getRequestCharge() {
+            return requestCharge;
+        }
+
+        /**
+         * @return number of readMany calls issued.
+         */
+        public int getRequestCount() {
+            return requestCount;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.common;
+
+import com.azure.cosmos.CosmosContainerProactiveInitConfig;
+import com.azure.cosmos.CosmosContainerProactiveInitConfigBuilder;
+import com.azure.cosmos.models.CosmosContainerIdentity;
+
+import java.time.Duration;
+import java.util.Collections;
+
+/**
+ * Proactive initialization of a client, so its first requests do not pay for metadata, address resolution and
+ * connection setup.
+ *
+ * While the client is built, it reads the container and the addresses of its partitions, and opens connections
+ * to their replicas in the first STARTUP_WARMUP_REGIONS preferred regions. Building blocks for at most
+ * STARTUP_WARMUP_MILLIS; connections still missing by then are opened in the background. This applies to direct
+ * mode only, gateway mode has no replica connections to open.
+ */
+public final class StartupWarmup {
+
+    private StartupWarmup() {
+    }
+
+    /**
+     * @return the configuration to pass to CosmosClientBuilder.openConnectionsAndInitCaches.
+     */
+    public static CosmosContainerProactiveInitConfig proactiveInitConfig(String databaseName, String containerName) {
+        return new CosmosContainerProactiveInitConfigBuilder(
+                Collections.singletonList(new CosmosContainerIdentity(databaseName, containerName)))
+            .setProactiveConnectionRegionsCount(WorkloadSettings.STARTUP_WARMUP_REGIONS)
+            .setAggressiveWarmupDuration(Duration.ofMillis(WorkloadSettings.STARTUP_WARMUP_MILLIS))
+            .build();
+    }
+}
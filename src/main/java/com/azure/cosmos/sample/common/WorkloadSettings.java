@@ -0,0 +1,227 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.common;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Contains the workload configurations for Sample.
+ *
+ * Like {@link AccountSettings}, every value can be passed either as a JVM command-line option
+ * (for example -DBULK_MODE=true) or as an environment variable of the same name.
+ * If neither is set, the default shown below is used.
+ */
+public class WorkloadSettings {
+    // Use the SDK bulk executor instead of one createItem call per family.
+    public static boolean BULK_MODE = Boolean.parseBoolean(get("BULK_MODE", "false"));
+
+    // Maximum number of micro batches the bulk executor sends concurrently per partition key range.
+    public static int BULK_MAX_MICRO_BATCH_CONCURRENCY = Integer.parseInt(get("BULK_MAX_MICRO_BATCH_CONCURRENCY", "1"));
+
+    // Maximum number of operations in one micro batch sent by the bulk executor.
+    public static int BULK_MAX_MICRO_BATCH_SIZE = Integer.parseInt(get("BULK_MAX_MICRO_BATCH_SIZE", "100"));
+
+    // Create the families of each lastName with transactional batches instead of one createItem call per family.
+    public static boolean TRANSACTIONAL_BATCH_MODE = Boolean.parseBoolean(get("TRANSACTIONAL_BATCH_MODE", "false"));
+
+    // Maximum number of operations (at most 100) and request size in bytes (at most 2 MB) of one transactional batch.
+    public static int TRANSACTIONAL_BATCH_MAX_OPERATIONS = Integer.parseInt(get("TRANSACTIONAL_BATCH_MAX_OPERATIONS", "100"));
+    public static int TRANSACTIONAL_BATCH_MAX_BYTES = Integer.parseInt(get("TRANSACTIONAL_BATCH_MAX_BYTES", "2097152"));
+
+    // Maximum number of transactional batches in flight.
+    public static int TRANSACTIONAL_BATCH_CONCURRENCY = Integer.parseInt(get("TRANSACTIONAL_BATCH_CONCURRENCY", "4"));
+
+    // Maximum number of blocking calls SyncMain runs concurrently to create and read items, 1 to run them one at a time.
+    public static int SYNC_CONCURRENCY = Integer.parseInt(get("SYNC_CONCURRENCY", "1"));
+
+    // Run the concurrent blocking calls of SyncMain on virtual threads instead of a pool of SYNC_CONCURRENCY
+    // platform threads. Needs a build with -Pjava21 and a Java 21 runtime.
+    public static boolean SYNC_VIRTUAL_THREADS = Boolean.parseBoolean(get("SYNC_VIRTUAL_THREADS", "false"));
+
+    // Maximum number of requests in flight in each AsyncMain pipeline.
+    public static int ASYNC_CONCURRENCY = Integer.parseInt(get("ASYNC_CONCURRENCY", "16"));
+
+    // Number of items AsyncMain pipelines request ahead from their source, and of responses or query pages
+    // they buffer for the scheduler.
+    public static int ASYNC_PREFETCH = Integer.parseInt(get("ASYNC_PREFETCH", "32"));
+
+    // Scheduler AsyncMain handles responses on: parallel, boundedElastic, single or immediate (the client's own threads).
+    public static String ASYNC_SCHEDULER = get("ASYNC_SCHEDULER", "parallel");
+
+    // Directory ContainerExport writes its files and its checkpoint to. An interrupted export run again with the
+    // same directory resumes where it stopped.
+    public static String EXPORT_DIR = get("EXPORT_DIR", "target/export");
+
+    // Gzip compress the files written by ContainerExport.
+    public static boolean EXPORT_GZIP = Boolean.parseBoolean(get("EXPORT_GZIP", "false"));
+
+    // Size in bytes of the pooled direct buffers exported pages are written through.
+    public static int EXPORT_BUFFER_SIZE = Integer.parseInt(get("EXPORT_BUFFER_SIZE", "262144"));
+
+    // File the AsyncMain query results are exported to as newline delimited JSON, gzip compressed if the name
+    // ends with .gz. Empty for no export.
+    public static String QUERY_EXPORT_FILE = get("QUERY_EXPORT_FILE", "");
+
+    // Target size in bytes of the line aligned chunks ContainerImport splits its input file into.
+    public static long IMPORT_CHUNK_BYTES = Long.parseLong(get("IMPORT_CHUNK_BYTES", "67108864"));
+
+    // Number of chunks ContainerImport parses at the same time, 0 for one per processor.
+    public static int IMPORT_PARSERS = Integer.parseInt(get("IMPORT_PARSERS", "0"));
+
+    // Parse the input of ContainerImport without writing anything, to measure how fast it can be parsed.
+    public static boolean IMPORT_DRY_RUN = Boolean.parseBoolean(get("IMPORT_DRY_RUN", "false"));
+
+    // Preferred number of items per page of a container scan.
+    public static int SCAN_PAGE_SIZE = Integer.parseInt(get("SCAN_PAGE_SIZE", "1000"));
+
+    // Maximum number of feed ranges scanned at the same time, 0 for all of them.
+    public static int SCAN_CONCURRENCY = Integer.parseInt(get("SCAN_CONCURRENCY", "0"));
+
+    // Minimum time between two saves of the checkpoint of a scan, 0 to save after every page.
+    public static long SCAN_CHECKPOINT_MILLIS = Long.parseLong(get("SCAN_CHECKPOINT_MILLIS", "1000"));
+
+    // Let the sync and async applications adapt the page size of their query to how fast pages arrive and are handled.
+    public static boolean QUERY_ADAPTIVE_PAGING = Boolean.parseBoolean(get("QUERY_ADAPTIVE_PAGING", "false"));
+
+    // Page size of the first page of an adaptively paged query, and lower bound.
+    public static int QUERY_PAGE_SIZE_MIN = Integer.parseInt(get("QUERY_PAGE_SIZE_MIN", "10"));
+
+    // Upper bound of the page size of an adaptively paged query.
+    public static int QUERY_PAGE_SIZE_MAX = Integer.parseInt(get("QUERY_PAGE_SIZE_MAX", "1000"));
+
+    // Latency of one page an adaptively paged query aims for.
+    public static long QUERY_PAGE_TARGET_MILLIS = Long.parseLong(get("QUERY_PAGE_TARGET_MILLIS", "200"));
+
+    // Maximum request charge of one page of an adaptively paged query, 0 for no limit.
+    public static double QUERY_PAGE_MAX_RU = Double.parseDouble(get("QUERY_PAGE_MAX_RU", "0"));
+
+    // Query only the ids of the families the sync and async applications log, instead of whole families.
+    public static boolean QUERY_PROJECTION = Boolean.parseBoolean(get("QUERY_PROJECTION", "false"));
+
+    // Node number (0-1023) embedded in generated item ids. Must differ between processes loading the same container.
+    // A negative value derives it from the process name.
+    public static int NODE_ID = Integer.parseInt(get("NODE_ID", "-1"));
+
+    // Register FamilyItemSerializer with the client instead of the default reflective serializer.
+    public static boolean CUSTOM_SERIALIZER = Boolean.parseBoolean(get("CUSTOM_SERIALIZER", "false"));
+
+    // Record Micrometer metrics of every operation and log the diagnostics of the operations above the thresholds.
+    public static boolean METRICS_ENABLED = Boolean.parseBoolean(get("METRICS_ENABLED", "false"));
+
+    // Latency above which the full diagnostics of a point operation, or of another operation, are logged.
+    public static long DIAGNOSTICS_POINT_LATENCY_MILLIS = Long.parseLong(get("DIAGNOSTICS_POINT_LATENCY_MILLIS", "1000"));
+    public static long DIAGNOSTICS_NON_POINT_LATENCY_MILLIS = Long.parseLong(get("DIAGNOSTICS_NON_POINT_LATENCY_MILLIS", "3000"));
+
+    // Request charge above which the full diagnostics of an operation are logged.
+    public static float DIAGNOSTICS_REQUEST_CHARGE_THRESHOLD = Float.parseFloat(get("DIAGNOSTICS_REQUEST_CHARGE_THRESHOLD", "1000"));
+
+    // Hedge point reads and queries: when the first preferred region has not answered within the threshold, send
+    // the request to the next preferred region too, and every threshold step to the next one, and take the first
+    // response. Needs at least two PREFERRED_REGIONS.
+    public static boolean HEDGING_ENABLED = Boolean.parseBoolean(get("HEDGING_ENABLED", "false"));
+    public static long HEDGING_THRESHOLD_MILLIS = Long.parseLong(get("HEDGING_THRESHOLD_MILLIS", "100"));
+    public static long HEDGING_THRESHOLD_STEP_MILLIS = Long.parseLong(get("HEDGING_THRESHOLD_STEP_MILLIS", "50"));
+
+    // Time after which a hedged read or query is abandoned, in all regions.
+    public static long HEDGING_TIMEOUT_MILLIS = Long.parseLong(get("HEDGING_TIMEOUT_MILLIS", "3000"));
+
+    // Order the preferred regions of the clients by the latency measured by probing the readable regions of the
+    // account, instead of using PREFERRED_REGIONS as they are.
+    public static boolean REGION_PROBING = Boolean.parseBoolean(get("REGION_PROBING", "false"));
+
+    // Interval between probe rounds, requests per region per round, and time after which a probe counts as failed.
+    public static long REGION_PROBE_INTERVAL_SECONDS = Long.parseLong(get("REGION_PROBE_INTERVAL_SECONDS", "60"));
+    public static int REGION_PROBE_SAMPLES = Integer.parseInt(get("REGION_PROBE_SAMPLES", "3"));
+    public static long REGION_PROBE_TIMEOUT_MILLIS = Long.parseLong(get("REGION_PROBE_TIMEOUT_MILLIS", "2000"));
+
+    // Weight of a new probe round in the moving average of the latency of a region.
+    public static double REGION_LATENCY_ALPHA = Double.parseDouble(get("REGION_LATENCY_ALPHA", "0.3"));
+
+    // Connection mode and pool settings of the clients, one of default, low-latency-direct, high-fanout-gateway or
+    // batch-ingest, see ConnectionProfile.
+    public static String CLIENT_PROFILE = get("CLIENT_PROFILE", "default");
+
+    // Warm the sync and async applications up: open the connections of the client and load the metadata of the
+    // container while it is built, and skip the create-if-not-exists calls for a container an earlier run created.
+    public static boolean STARTUP_WARMUP = Boolean.parseBoolean(get("STARTUP_WARMUP", "false"));
+
+    // Number of preferred regions connections are opened to, and how long building the client may wait for them.
+    public static int STARTUP_WARMUP_REGIONS = Integer.parseInt(get("STARTUP_WARMUP_REGIONS", "1"));
+    public static long STARTUP_WARMUP_MILLIS = Long.parseLong(get("STARTUP_WARMUP_MILLIS", "5000"));
+
+    // File the containers known to exist are remembered in across runs.
+    public static String STARTUP_METADATA_FILE = get("STARTUP_METADATA_FILE", "target/cosmos-metadata.properties");
+
+    // Request units per second the async creates and reads are paced to, 0 for no pacing.
+    // Keep it a little below the provisioned throughput of the container (400 RU/s in the samples).
+    public static double RU_BUDGET = Double.parseDouble(get("RU_BUDGET", "0"));
+
+    // Maximum size in bytes of the read-through item cache used by readItems, 0 to read every item from the service.
+    public static long ITEM_CACHE_MAX_BYTES = Long.parseLong(get("ITEM_CACHE_MAX_BYTES", "0"));
+
+    // How long a cached item is served without asking the service.
+    public static long ITEM_CACHE_TTL_SECONDS = Long.parseLong(get("ITEM_CACHE_TTL_SECONDS", "60"));
+
+    // Revalidate expired cached items with their ETag instead of reading them again.
+    public static boolean ITEM_CACHE_REVALIDATE = Boolean.parseBoolean(get("ITEM_CACHE_REVALIDATE", "true"));
+
+    // Maximum number of items per readMany call when readItems batches its point reads, 0 for one readItem per item.
+    public static int READ_MANY_CHUNK_SIZE = Integer.parseInt(get("READ_MANY_CHUNK_SIZE", "0"));
+
+    // Maximum number of readMany calls in flight.
+    public static int READ_MANY_CONCURRENCY = Integer.parseInt(get("READ_MANY_CONCURRENCY", "4"));
+
+    // Clients the workload runner drives, one run each: sync, async or sync,async.
+    public static String WORKLOAD_CLIENTS = get("WORKLOAD_CLIENTS", "sync,async");
+
+    // Weighted mix of workload operations.
+    public static String WORKLOAD_MIX = get("WORKLOAD_MIX", "create:10,read:80,query:10");
+
+    // Maximum number of workload operations in flight.
+    public static int WORKLOAD_CONCURRENCY = Integer.parseInt(get("WORKLOAD_CONCURRENCY", "32"));
+
+    // Target rate of workload operations per second, 0 to run as fast as the concurrency allows.
+    public static double WORKLOAD_TARGET_RATE = Double.parseDouble(get("WORKLOAD_TARGET_RATE", "0"));
+
+    public static long WORKLOAD_DURATION_SECONDS = Long.parseLong(get("WORKLOAD_DURATION_SECONDS", "60"));
+
+    // Number of generated families created before the run, read and queried by the workload.
+    public static long WORKLOAD_PRELOAD_COUNT = Long.parseLong(get("WORKLOAD_PRELOAD_COUNT", "1000"));
+
+    public static long WORKLOAD_SEED = Long.parseLong(get("WORKLOAD_SEED", "42"));
+
+    // Number of distinct lastName values, and Zipf skew of their distribution, of generated families.
+    public static int WORKLOAD_LAST_NAME_COUNT = Integer.parseInt(get("WORKLOAD_LAST_NAME_COUNT", "100"));
+    public static double WORKLOAD_SKEW = Double.parseDouble(get("WORKLOAD_SKEW", "0"));
+
+    // Directory the latency distributions are exported to as .hgrm files, empty for no export.
+    public static String WORKLOAD_REPORT_DIR = get("WORKLOAD_REPORT_DIR", "");
+
+    // Number of families read by one readMany workload operation, and created by one batch workload operation.
+    public static int WORKLOAD_READ_MANY_SIZE = Integer.parseInt(get("WORKLOAD_READ_MANY_SIZE", "10"));
+    public static int WORKLOAD_BATCH_SIZE = Integer.parseInt(get("WORKLOAD_BATCH_SIZE", "5"));
+
+    // Run the async workload against an in-memory container instead of a Cosmos DB account.
+    public static boolean WORKLOAD_OFFLINE = Boolean.parseBoolean(get("WORKLOAD_OFFLINE", "false"));
+
+    // Number of physical partitions of the in-memory container, and request units per second of each one.
+    public static int OFFLINE_PARTITIONS = Integer.parseInt(get("OFFLINE_PARTITIONS", "1"));
+    public static double OFFLINE_RU_PER_SECOND = Double.parseDouble(get("OFFLINE_RU_PER_SECOND", "400"));
+
+    // Median and 99th percentile of the log-normal latency of in-memory container requests.
+    public static long OFFLINE_LATENCY_MEDIAN_MILLIS = Long.parseLong(get("OFFLINE_LATENCY_MEDIAN_MILLIS", "5"));
+    public static long OFFLINE_LATENCY_P99_MILLIS = Long.parseLong(get("OFFLINE_LATENCY_P99_MILLIS", "25"));
+
+    // Share of in-memory container requests failing with a 503, and with a 408 after OFFLINE_TIMEOUT_MILLIS.
+    public static double OFFLINE_UNAVAILABLE_RATE = Double.parseDouble(get("OFFLINE_UNAVAILABLE_RATE", "0"));
+    public static double OFFLINE_TIMEOUT_RATE = Double.parseDouble(get("OFFLINE_TIMEOUT_RATE", "0"));
+    public static long OFFLINE_TIMEOUT_MILLIS = Long.parseLong(get("OFFLINE_TIMEOUT_MILLIS", "1000"));
+
+    static String get(String name, String defaultValue) {
+        return System.getProperty(name,
+                StringUtils.defaultString(StringUtils.trimToNull(
+                        System.getenv().get(name)),
+                        defaultValue));
+    }
+}
@@ -0,0 +1,125 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.export;
+
+import com.azure.cosmos.CosmosAsyncClient;
+import com.azure.cosmos.CosmosAsyncContainer;
+import com.azure.cosmos.sample.common.ClientBuilderFactory;
+import com.azure.cosmos.sample.common.Family;
+import com.azure.cosmos.sample.common.WorkloadSettings;
+import com.azure.cosmos.sample.workload.WorkloadMain;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exports every family of FamilyContainer to newline delimited JSON files, one file per feed range, optionally gzip
+ * compressed.
+ *
+ * The feed ranges are scanned in parallel by {@link FeedRangeScanner}. Every page is appended to the file of its
+ * range and forced to disk before the checkpoint records it, together with the new length of the file. A resumed
+ * export first cuts each file back to the length in the checkpoint, dropping the pages that were written but not
+ * recorded, so no family is exported twice.
+ *
+ * Configured with EXPORT_DIR, EXPORT_GZIP, EXPORT_BUFFER_SIZE, SCAN_PAGE_SIZE, SCAN_CONCURRENCY and
+ * SCAN_CHECKPOINT_MILLIS: mvn exec:java@export
+ */
+public class ContainerExport {
+
+    static final String QUERY = "SELECT * FROM c";
+    static final String CHECKPOINT_FILE = "checkpoint.json";
+
+    private final Path directory;
+    private final NdjsonPageWriter writer;
+    private final Map<Integer, FileChannel> channels = new ConcurrentHashMap<>();
+
+    protected static Logger logger = LoggerFactory.getLogger(ContainerExport.class.getSimpleName());
+
+    ContainerExport(Path directory, NdjsonPageWriter writer) {
+        this.directory = directory;
+        this.writer = writer;
+    }
+
+    public static void main(String[] args) {
+        Path directory = Paths.get(WorkloadSettings.EXPORT_DIR);
+        //  One buffer per range being written
+        DirectBufferPool bufferPool = new DirectBufferPool(WorkloadSettings.EXPORT_BUFFER_SIZE, 64);
+        ExportStats stats = new ExportStats();
+        ContainerExport export = new ContainerExport(directory,
+            new NdjsonPageWriter(bufferPool, WorkloadSettings.EXPORT_GZIP, stats));
+
+        try (CosmosAsyncClient client = ClientBuilderFactory.newClientBuilder().buildAsyncClient()) {
+            CosmosAsyncContainer container = client.getDatabase(WorkloadMain.DATABASE_NAME).getContainer(WorkloadMain.CONTAINER_NAME);
+            FeedRangeScanner<Family> scanner = new FeedRangeScanner<>(container, Family.class,
+                WorkloadSettings.SCAN_PAGE_SIZE, WorkloadSettings.SCAN_CONCURRENCY, Schedulers.boundedElastic());
+
+            Files.createDirectories(directory);
+            Path checkpointFile = directory.resolve(CHECKPOINT_FILE);
+            boolean resume = ScanCheckpoint.exists(checkpointFile);
+            if (resume) {
+                logger.info("Resuming the export in {}", directory);
+            }
+            //  A resumed export keeps the feed ranges it started with, the SDK follows their splits
+            ScanCheckpoint checkpoint = ScanCheckpoint.openOrCreate(checkpointFile, QUERY,
+                resume ? null : scanner.getFeedRanges().block(), Duration.ofMillis(WorkloadSettings.SCAN_CHECKPOINT_MILLIS));
+            logger.info("Exporting {} feed ranges to {}", checkpoint.getRanges().size(), directory);
+
+            try {
+                scanner.scan(checkpoint, export::write).block();
+            } finally {
+                //  Records the pages handled since the last save, also when the scan failed
+                checkpoint.save();
+                export.close();
+            }
+
+            logger.info("Exported {}, {} pages, {} RU", stats, scanner.getPages(), String.format("%.2f", scanner.getRequestCharge()));
+            logger.info("{} families exported in total, {} direct buffers allocated", checkpoint.getItems(), bufferPool.getAllocated());
+        } catch (Exception e) {
+            logger.error("Export failed with", e);
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Appends one page to the file of its range.
+     */
+    void write(ScanCheckpoint.RangeState range, List<Family> families) throws IOException {
+        FileChannel channel = channels.get(range.getIndex());
+        if (channel == null) {
+            Path file = directory.resolve("range-" + range.getIndex() + (writer.isGzip() ? ".ndjson.gz" : ".ndjson"));
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            if (channel.size() < range.getPosition()) {
+                channel.close();
+                throw new IllegalStateException(file + " is shorter than recorded in the checkpoint,"
+                    + " resume the export with the same EXPORT_GZIP setting");
+            }
+            //  Drop what was written after the last checkpoint
+            channel.truncate(range.getPosition());
+            channel.position(range.getPosition());
+            channels.put(range.getIndex(), channel);
+        }
+
+        writer.write(channel, families);
+        channel.force(false);
+        range.setPosition(channel.position());
+    }
+
+    void close() throws IOException {
+        for (FileChannel channel : channels.values()) {
+            channel.close();
+        }
+        channels.clear();
+    }
+}
@@ -0,0 +1,139 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.export;
+
+import com.azure.cosmos.CosmosAsyncClient;
+import com.azure.cosmos.CosmosAsyncContainer;
+import com.azure.cosmos.CosmosException;
+import com.azure.cosmos.models.CosmosItemRequestOptions;
+import com.azure.cosmos.models.CosmosItemResponse;
+import com.azure.cosmos.models.PartitionKey;
+import com.azure.cosmos.sample.async.BoundedPipeline;
+import com.azure.cosmos.sample.async.RequestUnitRateLimiter;
+import com.azure.cosmos.sample.common.ClientBuilderFactory;
+import com.azure.cosmos.sample.common.Family;
+import com.azure.cosmos.sample.common.WorkloadSettings;
+import com.azure.cosmos.sample.workload.WorkloadMain;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Imports families from a newline delimited JSON file, e.g. one written by {@link ContainerExport}, into
+ * FamilyContainer.
+ *
+ * The file is split into line aligned {@link NdjsonChunk}s that are memory mapped and parsed in parallel, each on a
+ * worker of the parallel scheduler. The parsed families are merged into a {@link BoundedPipeline} of upserts, whose
+ * demand travels back to the parsers: a chunk is only parsed as fast as its families are written, so the file is
+ * never loaded as a whole. With RU_BUDGET set the upserts are paced by a {@link RequestUnitRateLimiter}.
+ * Upserts make an interrupted import safe to run again.
+ *
+ * Configured with IMPORT_CHUNK_BYTES, IMPORT_PARSERS, IMPORT_DRY_RUN, ASYNC_CONCURRENCY and RU_BUDGET:
+ * mvn exec:java@import -Dexec.args="families.ndjson"
+ */
+public class ContainerImport {
+
+    protected static Logger logger = LoggerFactory.getLogger(ContainerImport.class.getSimpleName());
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            logger.error("Usage: ContainerImport <file.ndjson>");
+            System.exit(1);
+        }
+        Path file = Paths.get(args[0]);
+        int parsers = WorkloadSettings.IMPORT_PARSERS > 0
+            ? WorkloadSettings.IMPORT_PARSERS
+            : Runtime.getRuntime().availableProcessors();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<NdjsonChunk> chunks = NdjsonChunk.split(channel, WorkloadSettings.IMPORT_CHUNK_BYTES);
+            logger.info("Importing {} ({} MB) in {} chunks with {} parsers", file,
+                String.format("%.1f", channel.size() / 1e6), chunks.size(), parsers);
+
+            AtomicLong malformed = new AtomicLong();
+            Flux<Family> families = parse(channel, chunks, parsers, malformed);
+
+            if (WorkloadSettings.IMPORT_DRY_RUN) {
+                long start = System.nanoTime();
+                long parsed = families.count().block();
+                double seconds = (System.nanoTime() - start) / 1e9;
+                logger.info(String.format("Parsed %d families (%d malformed lines) in %.1f s, %.0f docs/s, %.1f MB/s",
+                    parsed, malformed.get(), seconds, parsed / seconds, channel.size() / 1e6 / seconds));
+            } else {
+                try (CosmosAsyncClient client = ClientBuilderFactory.newClientBuilder().buildAsyncClient()) {
+                    CosmosAsyncContainer container = client.getDatabase(WorkloadMain.DATABASE_NAME).getContainer(WorkloadMain.CONTAINER_NAME);
+                    write(container, families, channel.size(), malformed);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Import failed with", e);
+        }
+        System.exit(0);
+    }
+
+    static Flux<Family> parse(FileChannel channel, List<NdjsonChunk> chunks, int parsers, AtomicLong malformed) {
+        //  subscribeOn also moves the requests, and so the parsing, of every chunk to its worker
+        return Flux.fromIterable(chunks)
+            .flatMap(chunk -> chunk.families(channel, (offset, error) -> {
+                malformed.incrementAndGet();
+                logger.warn("Skipping malformed line at offset {}: {}", offset, error.getMessage());
+            }).subscribeOn(Schedulers.parallel()), parsers);
+    }
+
+    private static void write(CosmosAsyncContainer container, Flux<Family> families, long fileBytes, AtomicLong malformed) {
+        BoundedPipeline pipeline = BoundedPipeline.fromSettings();
+        RequestUnitRateLimiter rateLimiter = WorkloadSettings.RU_BUDGET > 0
+            ? new RequestUnitRateLimiter(WorkloadSettings.RU_BUDGET, Duration.ofMillis(100), 10)
+            : null;
+
+        AtomicLong imported = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicLong throttled = new AtomicLong();
+        DoubleAdder requestCharge = new DoubleAdder();
+        long start = System.nanoTime();
+
+        pipeline.execute(families, family -> {
+            CosmosItemRequestOptions options = new CosmosItemRequestOptions().setContentResponseOnWriteEnabled(false);
+            Mono<CosmosItemResponse<Family>> upsert = rateLimiter == null
+                ? container.upsertItem(family, new PartitionKey(family.getLastName()), options)
+                : rateLimiter.execute("upsert",
+                    () -> container.upsertItem(family, new PartitionKey(family.getLastName()), options),
+                    CosmosItemResponse::getRequestCharge);
+            return upsert
+                .doOnNext(response -> {
+                    imported.incrementAndGet();
+                    requestCharge.add(response.getRequestCharge());
+                })
+                .onErrorResume(err -> {
+                    failed.incrementAndGet();
+                    if (err instanceof CosmosException) {
+                        CosmosException cerr = (CosmosException) err;
+                        requestCharge.add(cerr.getRequestCharge());
+                        if (cerr.getStatusCode() == 429) {
+                            throttled.incrementAndGet();
+                        }
+                    }
+                    logger.error("Upsert of item {} failed", family.getId(), err);
+                    return Mono.empty();
+                });
+        }).blockLast();
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        logger.info(String.format("Imported %d families (%d failed, %d throttled, %d malformed lines) in %.1f s,"
+                + " %.0f docs/s, %.1f MB/s, %.2f RU, %.1f RU/s",
+            imported.get(), failed.get(), throttled.get(), malformed.get(), seconds,
+            imported.get() / seconds, fileBytes / 1e6 / seconds, requestCharge.sum(), requestCharge.sum() / seconds));
+    }
+}
@@ -0,0 +1,43 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.export;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the documents and bytes an export wrote, and reports its rates.
+ */
+public class ExportStats {
+
+    private final LongAdder documents = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final long startNanos = System.nanoTime();
+
+    void add(long pageDocuments, long pageBytes) {
+        documents.add(pageDocuments);
+        bytes.add(pageBytes);
+    }
+
+    public long getDocuments() {
+        return documents.sum();
+    }
+
+    /**
+     * @return bytes written to the files, after compression if any.
+     */
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    public double getElapsedSeconds() {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+
+    @Override
+    public String toString() {
+        double seconds = getElapsedSeconds();
+        return String.format("%d docs, %.1f MB in %.1f s, %.0f docs/s, %.2f MB/s",
+            getDocuments(), getBytes() / 1e6, seconds, getDocuments() / seconds, getBytes() / 1e6 / seconds);
+    }
+}
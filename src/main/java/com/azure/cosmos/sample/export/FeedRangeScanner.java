@@ -0,0 +1,143 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.export;
+
+import com.azure.cosmos.CosmosAsyncContainer;
+import com.azure.cosmos.models.CosmosQueryRequestOptions;
+import com.azure.cosmos.models.FeedRange;
+import com.azure.cosmos.models.FeedResponse;
+import com.azure.cosmos.util.CosmosPagedFlux;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Scans a whole container with one query per feed range, the ranges in parallel.
+ *
+ * A container has one feed range per physical partition, so every partition is read by its own query and the scan
+ * throughput grows with the number of partitions instead of being limited by one cross-partition query. The pages
+ * of a range are handled one after the other on a worker of the given scheduler, and after every page the
+ * continuation token of the range is recorded in the {@link ScanCheckpoint}, which saves it on its save interval
+ * and when the range is done. A scan resumed from a checkpoint skips
+ * the ranges that are done and continues the others from their last saved page.
+ *
+ * @param <T> item type.
+ */
+public class FeedRangeScanner<T> {
+
+    /**
+     * Handles the pages of a feed range, called by the worker of the range, one page at a time.
+     *
+     * @param <T> item type.
+     */
+    public interface PageHandler<T> {
+        /**
+         * Handles one page, the page is only recorded in the checkpoint once this returns.
+         *
+         * @param range range the page belongs to, the handler may update its position.
+         * @param items items of the page.
+         * @throws IOException if the page cannot be handled, which fails the scan.
+         */
+        void onPage(ScanCheckpoint.RangeState range, List<T> items) throws IOException;
+    }
+
+    private final CosmosAsyncContainer container;
+    private final Class<T> itemType;
+    private final int pageSize;
+    private final int concurrency;
+    private final Scheduler scheduler;
+    private final AtomicLong pages = new AtomicLong();
+    private final DoubleAdder requestCharge = new DoubleAdder();
+
+    protected static Logger logger = LoggerFactory.getLogger(FeedRangeScanner.class.getSimpleName());
+
+    /**
+     * @param pageSize preferred number of items per page.
+     * @param concurrency maximum number of ranges scanned at the same time, 0 for all of them.
+     * @param scheduler scheduler the pages are handled on, blocking handlers need one that allows blocking.
+     */
+    public FeedRangeScanner(CosmosAsyncContainer container, Class<T> itemType, int pageSize, int concurrency, Scheduler scheduler) {
+        this.container = container;
+        this.itemType = itemType;
+        this.pageSize = pageSize;
+        this.concurrency = concurrency;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * @return JSON representations of the current feed ranges of the container, one per physical partition.
+     */
+    public Mono<List<String>> getFeedRanges() {
+        return container.getFeedRanges()
+            .flatMapMany(Flux::fromIterable)
+            .map(FeedRange::toString)
+            .collectList();
+    }
+
+    /**
+     * Scans the ranges of the checkpoint that are not done yet.
+     *
+     * @param checkpoint progress of the scan, recorded after every page.
+     * @param handler handles the pages.
+     * @return a Mono completing once every range is done.
+     */
+    public Mono<Void> scan(ScanCheckpoint checkpoint, PageHandler<T> handler) {
+        List<ScanCheckpoint.RangeState> ranges = checkpoint.getRanges();
+        int rangeConcurrency = concurrency > 0 ? concurrency : Math.max(1, ranges.size());
+        return Flux.fromIterable(ranges)
+            .filter(range -> !range.isDone())
+            .flatMap(range -> scanRange(checkpoint, range, handler), rangeConcurrency)
+            .then();
+    }
+
+    private Mono<Void> scanRange(ScanCheckpoint checkpoint, ScanCheckpoint.RangeState range, PageHandler<T> handler) {
+        return Flux.defer(() -> {
+            logger.info("Scanning range {} {}", range.getIndex(),
+                range.getContinuation() != null ? "from its checkpoint" : "from the start");
+            CosmosQueryRequestOptions options = new CosmosQueryRequestOptions()
+                .setFeedRange(FeedRange.fromString(range.getFeedRange()));
+            CosmosPagedFlux<T> query = container.queryItems(checkpoint.getQuery(), options, itemType);
+            return range.getContinuation() != null
+                ? query.byPage(range.getContinuation(), pageSize)
+                : query.byPage(pageSize);
+        })
+            //  One page at a time per range, the next page is only fetched once this one is handled
+            .publishOn(scheduler, 1)
+            .doOnNext(page -> onPage(checkpoint, range, page, handler))
+            .then(Mono.fromRunnable(() -> {
+                //  Also covers a range whose query ended without a page
+                range.advance(null, 0);
+                checkpoint.save();
+                logger.info("Range {} done with {} items", range.getIndex(), range.getItems());
+            }));
+    }
+
+    private void onPage(ScanCheckpoint checkpoint, ScanCheckpoint.RangeState range, FeedResponse<T> page, PageHandler<T> handler) {
+        try {
+            handler.onPage(range, page.getResults());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        pages.incrementAndGet();
+        requestCharge.add(page.getRequestCharge());
+        range.advance(page.getContinuationToken(), page.getResults().size());
+        checkpoint.saveIfDue();
+    }
+
+    public long getPages() {
+        return pages.get();
+    }
+
+    public double getRequestCharge() {
+        return requestCharge.sum();
+    }
+}
@@ -0,0 +1,161 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.export;
+
+import com.azure.cosmos.sample.common.Family;
+import com.azure.cosmos.sample.common.FamilyJsonCodec;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * A line aligned byte range of a newline delimited JSON file, read through a memory mapping.
+ *
+ * A file is split into chunks of roughly equal size whose boundaries are moved forward to the next line start, so
+ * every line belongs to exactly one chunk and the chunks can be parsed independently and in parallel. A chunk is
+ * only mapped when its families are subscribed to, and families are only parsed as they are requested.
+ */
+public class NdjsonChunk {
+
+    //  A single mapping cannot exceed 2 GB
+    public static final long MAX_CHUNK_BYTES = Integer.MAX_VALUE;
+
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+
+    private final long start;
+    private final long end;
+
+    NdjsonChunk(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Splits a file into line aligned chunks.
+     *
+     * @param channel channel of the file.
+     * @param chunkBytes target size of a chunk, at most {@link #MAX_CHUNK_BYTES}.
+     * @return the chunks, in file order, covering the whole file.
+     * @throws IOException if the file cannot be read.
+     */
+    public static List<NdjsonChunk> split(FileChannel channel, long chunkBytes) throws IOException {
+        if (chunkBytes < 1 || chunkBytes > MAX_CHUNK_BYTES) {
+            throw new IllegalArgumentException("chunkBytes must be between 1 and " + MAX_CHUNK_BYTES);
+        }
+        long size = channel.size();
+        List<NdjsonChunk> chunks = new ArrayList<>();
+        long start = 0;
+        while (start < size) {
+            long end = start + chunkBytes >= size ? size : nextLineStart(channel, start + chunkBytes, size);
+            if (end - start > MAX_CHUNK_BYTES) {
+                throw new IOException("Line too long after offset " + start);
+            }
+            chunks.add(new NdjsonChunk(start, end));
+            start = end;
+        }
+        return chunks;
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /**
+     * Parses the families of the chunk, one line each. Blank lines are skipped.
+     *
+     * @param channel channel of the file, must stay open until the Flux completes.
+     * @param onMalformedLine called with the file offset of a line that is not a valid family, the line is skipped.
+     * @return the families, parsed on demand on the thread requesting them.
+     */
+    public Flux<Family> families(FileChannel channel, BiConsumer<Long, Exception> onMalformedLine) {
+        return Flux.generate(() -> new LineReader(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start)),
+            (reader, sink) -> {
+                Family family = reader.next(onMalformedLine);
+                if (family != null) {
+                    sink.next(family);
+                } else {
+                    sink.complete();
+                }
+                return reader;
+            });
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getLength() {
+        return end - start;
+    }
+
+    private final class LineReader {
+        private final MappedByteBuffer buffer;
+        private byte[] line = new byte[4096];
+
+        private LineReader(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+         * @return the next family, null at the end of the chunk.
+         */
+        private Family next(BiConsumer<Long, Exception> onMalformedLine) {
+            while (buffer.hasRemaining()) {
+                int lineStart = buffer.position();
+                int lineEnd = lineStart;
+                int limit = buffer.limit();
+                while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+
+                int length = lineEnd - lineStart;
+                if (length > line.length) {
+                    line = new byte[Math.max(length, line.length * 2)];
+                }
+                buffer.get(line, 0, length);
+                if (buffer.hasRemaining()) {
+                    //  Skip the newline
+                    buffer.get();
+                }
+
+                if (isBlank(line, length)) {
+                    continue;
+                }
+                try {
+                    return FamilyJsonCodec.fromBytes(line, 0, length);
+                } catch (UncheckedIOException e) {
+                    onMalformedLine.accept(start + lineStart, e);
+                }
+            }
+            return null;
+        }
+
+        private boolean isBlank(byte[] bytes, int length) {
+            for (int i = 0; i < length; i++) {
+                if (bytes[i] != ' ' && bytes[i] != '\t' && bytes[i] != '\r') {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
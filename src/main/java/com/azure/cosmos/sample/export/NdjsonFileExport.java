@@ -0,0 +1,55 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.export;
+
+import com.azure.cosmos.sample.common.Family;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Exports pages of families, e.g. the pages of a query, to one newline delimited JSON file.
+ *
+ * The file is gzip compressed when its name ends with ".gz".
+ */
+public class NdjsonFileExport implements Closeable {
+
+    private final Path file;
+    private final FileChannel channel;
+    private final NdjsonPageWriter writer;
+
+    public NdjsonFileExport(Path file, DirectBufferPool bufferPool) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.writer = new NdjsonPageWriter(bufferPool, file.getFileName().toString().endsWith(".gz"), new ExportStats());
+    }
+
+    /**
+     * Appends one page, pages of concurrent callers are written one after the other.
+     *
+     * @param families families of the page.
+     * @throws IOException if the file cannot be written.
+     */
+    public synchronized void write(List<Family> families) throws IOException {
+        writer.write(channel, families);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public ExportStats getStats() {
+        return writer.getStats();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
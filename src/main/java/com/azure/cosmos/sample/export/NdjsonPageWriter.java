@@ -0,0 +1,75 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.export;
+
+import com.azure.cosmos.sample.common.Family;
+import com.azure.cosmos.sample.common.FamilyJsonCodec;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes pages of families to a file channel as newline delimited JSON.
+ *
+ * Families are streamed by {@link FamilyJsonCodec} straight into a pooled direct buffer, which is written to the
+ * channel whenever it fills up, so neither a page nor a document is ever held as a String or a byte array.
+ *
+ * With gzip, every page is compressed as a gzip member of its own. Concatenated members form a valid gzip file,
+ * and a file cut back to the end of a page, as a resumed export does, is still valid.
+ */
+public class NdjsonPageWriter {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final DirectBufferPool bufferPool;
+    private final boolean gzip;
+    private final ExportStats stats;
+
+    public NdjsonPageWriter(DirectBufferPool bufferPool, boolean gzip, ExportStats stats) {
+        this.bufferPool = bufferPool;
+        this.gzip = gzip;
+        this.stats = stats;
+    }
+
+    /**
+     * Writes one line per family at the current position of the channel.
+     *
+     * @param channel channel to write to, not closed.
+     * @param families families of the page.
+     * @return number of bytes written to the channel.
+     * @throws IOException if the channel cannot be written.
+     */
+    public long write(FileChannel channel, List<Family> families) throws IOException {
+        ByteBuffer buffer = bufferPool.acquire();
+        try {
+            ChannelOutputStream channelOut = new ChannelOutputStream(channel, buffer);
+            OutputStream out = gzip ? new GZIPOutputStream(channelOut, GZIP_BUFFER_SIZE) : channelOut;
+            try (JsonGenerator generator = FamilyJsonCodec.getJsonFactory().createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                for (Family family : families) {
+                    FamilyJsonCodec.write(family, generator);
+                    generator.writeRaw('\n');
+                }
+            }
+            //  Closing the generator closed the gzip stream, which finished the member, and flushed the buffer
+            stats.add(families.size(), channelOut.getWritten());
+            return channelOut.getWritten();
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    public ExportStats getStats() {
+        return stats;
+    }
+}
@@ -0,0 +1,248 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of a feed range scan, saved to a JSON file so that an interrupted scan can resume.
+ *
+ * For every feed range the checkpoint keeps the continuation token of the next page, whether the range is done,
+ * the number of items handled so far and a position owned by the page handler, e.g. the length of its output file
+ * after the last handled page. The file is replaced atomically, and every range in it is at a page boundary.
+ *
+ * Pages call {@link #saveIfDue()}, which saves at most once per save interval and never makes a range wait for
+ * another range's save. A resumed scan repeats the pages handled after the last save, so the page handler has to
+ * drop their output, e.g. by cutting its file back to the saved position.
+ */
+public class ScanCheckpoint {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final Path file;
+    private final String query;
+    private final List<RangeState> ranges;
+    private final long saveIntervalNanos;
+    private final AtomicLong lastSaveNanos = new AtomicLong(System.nanoTime());
+    private final AtomicBoolean saving = new AtomicBoolean();
+
+    private ScanCheckpoint(Path file, String query, List<RangeState> ranges, Duration saveInterval) {
+        this.file = file;
+        this.query = query;
+        this.ranges = Collections.unmodifiableList(ranges);
+        this.saveIntervalNanos = saveInterval.toNanos();
+    }
+
+    /**
+     * Starts a new scan of the given feed ranges, or resumes the scan saved in the file.
+     *
+     * @param file checkpoint file.
+     * @param query query of the scan, a saved scan of a different query is not resumed.
+     * @param feedRanges JSON representations of the feed ranges to scan when there is no saved scan.
+     * @param saveInterval minimum time between two saves by {@link #saveIfDue()}, zero to save after every page.
+     * @return the checkpoint, saved.
+     * @throws IOException if the file cannot be read or written.
+     */
+    public static ScanCheckpoint openOrCreate(Path file, String query, List<String> feedRanges, Duration saveInterval)
+        throws IOException {
+        if (Files.exists(file)) {
+            ScanCheckpoint saved = read(file, saveInterval);
+            if (!saved.query.equals(query)) {
+                throw new IllegalStateException("Checkpoint " + file + " belongs to the query " + saved.query);
+            }
+            return saved;
+        }
+        List<RangeState> ranges = new ArrayList<>(feedRanges.size());
+        for (int i = 0; i < feedRanges.size(); i++) {
+            ranges.add(new RangeState(i, feedRanges.get(i), null, false, 0, 0));
+        }
+        ScanCheckpoint checkpoint = new ScanCheckpoint(file, query, ranges, saveInterval);
+        checkpoint.save();
+        return checkpoint;
+    }
+
+    public static boolean exists(Path file) {
+        return Files.exists(file);
+    }
+
+    private static ScanCheckpoint read(Path file, Duration saveInterval) throws IOException {
+        JsonNode root = OBJECT_MAPPER.readTree(file.toFile());
+        List<RangeState> ranges = new ArrayList<>();
+        for (JsonNode range : root.get("ranges")) {
+            JsonNode continuation = range.get("continuation");
+            ranges.add(new RangeState(ranges.size(),
+                range.get("feedRange").asText(),
+                continuation == null || continuation.isNull() ? null : continuation.asText(),
+                range.get("done").asBoolean(),
+                range.get("items").asLong(),
+                range.get("position").asLong()));
+        }
+        return new ScanCheckpoint(file, root.get("query").asText(), ranges, saveInterval);
+    }
+
+    /**
+     * Saves the checkpoint if the save interval passed since the last save and no other save is running.
+     */
+    public void saveIfDue() {
+        if (System.nanoTime() - lastSaveNanos.get() < saveIntervalNanos || !saving.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            write();
+        } finally {
+            saving.set(false);
+        }
+    }
+
+    /**
+     * Writes the state of every range to a temporary file and moves it over the checkpoint file, waiting for a
+     * running save to finish first.
+     */
+    public void save() {
+        while (!saving.compareAndSet(false, true)) {
+            Thread.yield();
+        }
+        try {
+            write();
+        } finally {
+            saving.set(false);
+        }
+    }
+
+    private void write() {
+        lastSaveNanos.set(System.nanoTime());
+        ObjectNode root = OBJECT_MAPPER.createObjectNode();
+        root.put("query", query);
+        ArrayNode rangesNode = root.putArray("ranges");
+        for (RangeState range : ranges) {
+            ObjectNode rangeNode = rangesNode.addObject();
+            rangeNode.put("feedRange", range.feedRange);
+            synchronized (range) {
+                rangeNode.put("continuation", range.continuation);
+                rangeNode.put("done", range.done);
+                rangeNode.put("items", range.items);
+                rangeNode.put("position", range.position);
+            }
+        }
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValue(temporary.toFile(), root);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public List<RangeState> getRanges() {
+        return ranges;
+    }
+
+    public boolean isDone() {
+        for (RangeState range : ranges) {
+            if (!range.isDone()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getItems() {
+        long items = 0;
+        for (RangeState range : ranges) {
+            items += range.getItems();
+        }
+        return items;
+    }
+
+    /**
+     * Progress of one feed range. Only the worker scanning the range updates it, and the checkpoint saves it under
+     * its lock.
+     */
+    public static class RangeState {
+        private final int index;
+        private final String feedRange;
+        private volatile String continuation;
+        private volatile boolean done;
+        private volatile long items;
+        private volatile long position;
+        //  Position set by the page handler, recorded together with the continuation of its page
+        private volatile long pendingPosition;
+
+        RangeState(int index, String feedRange, String continuation, boolean done, long items, long position) {
+            this.index = index;
+            this.feedRange = feedRange;
+            this.continuation = continuation;
+            this.done = done;
+            this.items = items;
+            this.position = position;
+            this.pendingPosition = position;
+        }
+
+        /**
+         * @return position of the range in the checkpoint, stable across resumes, e.g. to name an output file.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public String getFeedRange() {
+            return feedRange;
+        }
+
+        public String getContinuation() {
+            return continuation;
+        }
+
+        public boolean isDone() {
+            return done;
+        }
+
+        public long getItems() {
+            return items;
+        }
+
+        public long getPosition() {
+            return position;
+        }
+
+        /**
+         * Sets the position after the page being handled, recorded when the page is.
+         */
+        public void setPosition(long position) {
+            this.pendingPosition = position;
+        }
+
+        //  Under the lock the checkpoint saves the range with, so the continuation and the position match
+        synchronized void advance(String nextContinuation, int pageItems) {
+            items += pageItems;
+            continuation = nextContinuation;
+            done = nextContinuation == null;
+            position = pendingPosition;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.metrics;
+
+import com.azure.cosmos.CosmosDiagnosticsHandler;
+import com.azure.cosmos.CosmosDiagnosticsThresholds;
+import com.azure.cosmos.models.CosmosClientTelemetryConfig;
+import com.azure.cosmos.models.CosmosMetricCategory;
+import com.azure.cosmos.models.CosmosMetricTagName;
+import com.azure.cosmos.models.CosmosMicrometerMetricsOptions;
+import com.azure.cosmos.sample.common.WorkloadSettings;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics of the Cosmos DB operations of the applications.
+ *
+ * The meters are registered with the Micrometer global registry, so any registry added to it with
+ * {@link Metrics#addRegistry(MeterRegistry)}, e.g. a Prometheus or an OTLP registry, publishes them. Without one,
+ * an in-memory registry keeps them for {@link #logSummary(Logger)}.
+ */
+public final class CosmosMetrics {
+
+    private CosmosMetrics() {
+    }
+
+    /**
+     * @return the registry the meters are registered with.
+     */
+    public static synchronized MeterRegistry getRegistry() {
+        if (Metrics.globalRegistry.getRegistries().isEmpty()) {
+            Metrics.addRegistry(new SimpleMeterRegistry());
+        }
+        return Metrics.globalRegistry;
+    }
+
+    /**
+     * Telemetry of a client that records the SDK meters and the meters of {@link CosmosOperationMetrics} in the
+     * registry, and logs the full diagnostics of operations above the DIAGNOSTICS_* thresholds.
+     *
+     * @param registry registry to record the meters in.
+     * @return the configuration to pass to CosmosClientBuilder.clientTelemetryConfig.
+     */
+    public static CosmosClientTelemetryConfig newTelemetryConfig(MeterRegistry registry) {
+        CosmosMicrometerMetricsOptions metricsOptions = new CosmosMicrometerMetricsOptions()
+            .meterRegistry(registry)
+            .setMetricCategories(CosmosMetricCategory.DEFAULT)
+            .configureDefaultTagNames(CosmosMetricTagName.DEFAULT, CosmosMetricTagName.PARTITION_KEY_RANGE_ID);
+
+        CosmosDiagnosticsThresholds thresholds = new CosmosDiagnosticsThresholds()
+            .setPointOperationLatencyThreshold(Duration.ofMillis(WorkloadSettings.DIAGNOSTICS_POINT_LATENCY_MILLIS))
+            .setNonPointOperationLatencyThreshold(Duration.ofMillis(WorkloadSettings.DIAGNOSTICS_NON_POINT_LATENCY_MILLIS))
+            .setRequestChargeThreshold(WorkloadSettings.DIAGNOSTICS_REQUEST_CHARGE_THRESHOLD);
+
+        return new CosmosClientTelemetryConfig()
+            .metricsOptions(metricsOptions)
+            .diagnosticsThresholds(thresholds)
+            .diagnosticsHandler(new CosmosOperationMetrics(registry))
+            //  Logs the full diagnostics of the operations that exceed a threshold
+            .diagnosticsHandler(CosmosDiagnosticsHandler.DEFAULT_LOGGING_HANDLER);
+    }
+
+    /**
+     * Telemetry of a client configured by the settings: the meters of {@link #newTelemetryConfig(MeterRegistry)}
+     * with METRICS_ENABLED, and {@link HedgingStats#getDefault()} with HEDGING_ENABLED.
+     *
+     * @return the configuration to pass to CosmosClientBuilder.clientTelemetryConfig, null if none is needed.
+     */
+    public static CosmosClientTelemetryConfig telemetryConfigFromSettings() {
+        if (!WorkloadSettings.METRICS_ENABLED && !WorkloadSettings.HEDGING_ENABLED) {
+            return null;
+        }
+        CosmosClientTelemetryConfig telemetryConfig = WorkloadSettings.METRICS_ENABLED
+            ? newTelemetryConfig(getRegistry()) : new CosmosClientTelemetryConfig();
+        if (WorkloadSettings.HEDGING_ENABLED) {
+            telemetryConfig.diagnosticsHandler(HedgingStats.getDefault());
+        }
+        return telemetryConfig;
+    }
+
+    /**
+     * Telemetry of the client of the sync and async applications: {@link #telemetryConfigFromSettings()} and
+     * {@link StartupMetrics#getDefault()}, which measures the startup of the application.
+     *
+     * @return the configuration to pass to CosmosClientBuilder.clientTelemetryConfig.
+     */
+    public static CosmosClientTelemetryConfig applicationTelemetryConfigFromSettings() {
+        CosmosClientTelemetryConfig telemetryConfig = telemetryConfigFromSettings();
+        return (telemetryConfig != null ? telemetryConfig : new CosmosClientTelemetryConfig())
+            .diagnosticsHandler(StartupMetrics.getDefault());
+    }
+
+    /**
+     * Logs one line per meter of {@link CosmosOperationMetrics} and {@link StartupMetrics}.
+     */
+    public static void logSummary(Logger logger) {
+        List<Meter> meters = new ArrayList<>();
+        for (Meter meter : getRegistry().getMeters()) {
+            String name = meter.getId().getName();
+            if (name.startsWith(CosmosOperationMetrics.PREFIX) || name.startsWith(StartupMetrics.PREFIX)) {
+                meters.add(meter);
+            }
+        }
+        meters.sort(Comparator.comparing((Meter meter) -> meter.getId().getName())
+            .thenComparing(meter -> meter.getId().getTags().toString()));
+
+        for (Meter meter : meters) {
+            String tags = meter.getId().getTags().toString();
+            if (meter instanceof Timer) {
+                Timer timer = (Timer) meter;
+                logger.info("{} {}: count={}, mean={} ms, max={} ms", meter.getId().getName(), tags, timer.count(),
+                    String.format("%.2f", timer.mean(TimeUnit.MILLISECONDS)),
+                    String.format("%.2f", timer.max(TimeUnit.MILLISECONDS)));
+            } else if (meter instanceof DistributionSummary) {
+                DistributionSummary summary = (DistributionSummary) meter;
+                logger.info("{} {}: count={}, total={}, mean={}, max={}", meter.getId().getName(), tags, summary.count(),
+                    String.format("%.2f", summary.totalAmount()), String.format("%.2f", summary.mean()),
+                    String.format("%.2f", summary.max()));
+            } else if (meter instanceof Counter) {
+                logger.info("{} {}: {}", meter.getId().getName(), tags, (long) ((Counter) meter).count());
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.metrics;
+
+import com.azure.core.util.Context;
+import com.azure.cosmos.CosmosDiagnosticsContext;
+import com.azure.cosmos.CosmosDiagnosticsHandler;
+import com.azure.cosmos.CosmosDiagnosticsRequestInfo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records a latency timer, request charge and payload size summaries, and status code and retry counters for every
+ * operation of a client, from the diagnostics context the client hands to its diagnostics handlers.
+ *
+ * Every meter is tagged with the operation, e.g. "Document.Create", "Document.Query" or "Document.Batch", the
+ * container and the partition key range the operation went to. An operation that went to more than one partition
+ * key range, e.g. a cross partition query, is tagged with "multiple" to keep the number of meters bounded.
+ */
+public class CosmosOperationMetrics implements CosmosDiagnosticsHandler {
+
+    public static final String PREFIX = "cosmos.sample.operation";
+
+    public static final String LATENCY = PREFIX + ".latency";
+    public static final String REQUEST_CHARGE = PREFIX + ".requestCharge";
+    public static final String PAYLOAD_SIZE = PREFIX + ".payloadSize";
+    public static final String STATUS_CODES = PREFIX + ".statusCodes";
+    public static final String RETRIES = PREFIX + ".retries";
+
+    private static final String MULTIPLE_RANGES = "multiple";
+    private static final String NONE = "none";
+
+    private final MeterRegistry registry;
+
+    public CosmosOperationMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void handleDiagnostics(CosmosDiagnosticsContext diagnosticsContext, Context traceContext) {
+        if (!diagnosticsContext.isCompleted()) {
+            return;
+        }
+        Tags tags = Tags.of(
+            "operation", diagnosticsContext.getResourceType() + "." + diagnosticsContext.getOperationType(),
+            "container", orNone(diagnosticsContext.getContainerName()),
+            "partitionKeyRange", partitionKeyRangeOf(diagnosticsContext));
+
+        Timer.builder(LATENCY)
+            .tags(tags)
+            .publishPercentiles(0.5, 0.99)
+            .register(registry)
+            .record(diagnosticsContext.getDuration().toNanos(), TimeUnit.NANOSECONDS);
+
+        DistributionSummary.builder(REQUEST_CHARGE)
+            .baseUnit("RU")
+            .tags(tags)
+            .publishPercentiles(0.5, 0.99)
+            .register(registry)
+            .record(diagnosticsContext.getTotalRequestCharge());
+
+        DistributionSummary.builder(PAYLOAD_SIZE)
+            .baseUnit("bytes")
+            .tags(tags.and("direction", "request"))
+            .register(registry)
+            .record(diagnosticsContext.getMaxRequestPayloadSizeInBytes());
+        DistributionSummary.builder(PAYLOAD_SIZE)
+            .baseUnit("bytes")
+            .tags(tags.and("direction", "response"))
+            .register(registry)
+            .record(diagnosticsContext.getMaxResponsePayloadSizeInBytes());
+
+        Counter.builder(STATUS_CODES)
+            .tags(tags.and(
+                "statusCode", String.valueOf(diagnosticsContext.getStatusCode()),
+                "subStatusCode", String.valueOf(diagnosticsContext.getSubStatusCode())))
+            .register(registry)
+            .increment();
+
+        if (diagnosticsContext.getRetryCount() > 0) {
+            Counter.builder(RETRIES)
+                .tags(tags)
+                .register(registry)
+                .increment(diagnosticsContext.getRetryCount());
+        }
+    }
+
+    private static String partitionKeyRangeOf(CosmosDiagnosticsContext diagnosticsContext) {
+        Set<String> ranges = new TreeSet<>();
+        for (CosmosDiagnosticsRequestInfo requestInfo : diagnosticsContext.getRequestInfo()) {
+            if (requestInfo.getPartitionKeyRangeId() != null && !requestInfo.getPartitionKeyRangeId().isEmpty()) {
+                ranges.add(requestInfo.getPartitionKeyRangeId());
+            }
+        }
+        if (ranges.isEmpty()) {
+            return NONE;
+        }
+        return ranges.size() == 1 ? ranges.iterator().next() : MULTIPLE_RANGES;
+    }
+
+    private static String orNone(String value) {
+        return value != null ? value : NONE;
+    }
+}
@@ -0,0 +1,88 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.metrics;
+
+import com.azure.core.util.Context;
+import com.azure.cosmos.CosmosDiagnosticsContext;
+import com.azure.cosmos.CosmosDiagnosticsHandler;
+import com.azure.cosmos.sample.common.ReadHedging;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how often the point reads and queries of a client were hedged by {@link ReadHedging}, and what they cost.
+ *
+ * An operation counts as hedged when it contacted more than one region. The SDK reports the request charge of an
+ * operation across all its regions, not per region, so the request units spent on hedges are estimated as the
+ * share of the charge of a hedged operation beyond one region.
+ */
+public class HedgingStats implements CosmosDiagnosticsHandler {
+
+    private static final HedgingStats DEFAULT = new HedgingStats();
+
+    private final LongAdder operations = new LongAdder();
+    private final LongAdder hedged = new LongAdder();
+    private final DoubleAdder requestCharge = new DoubleAdder();
+    private final DoubleAdder hedgedRequestCharge = new DoubleAdder();
+    private final DoubleAdder hedgeRequestCharge = new DoubleAdder();
+
+    /**
+     * @return the process wide instance, registered with the clients when HEDGING_ENABLED is set.
+     */
+    public static HedgingStats getDefault() {
+        return DEFAULT;
+    }
+
+    @Override
+    public void handleDiagnostics(CosmosDiagnosticsContext diagnosticsContext, Context traceContext) {
+        if (!diagnosticsContext.isCompleted() || !"Document".equals(diagnosticsContext.getResourceType())) {
+            return;
+        }
+        String operationType = diagnosticsContext.getOperationType();
+        if (!"Read".equals(operationType) && !"Query".equals(operationType)) {
+            return;
+        }
+        double charge = diagnosticsContext.getTotalRequestCharge();
+        int regions = diagnosticsContext.getContactedRegionNames().size();
+        operations.increment();
+        requestCharge.add(charge);
+        if (regions > 1) {
+            hedged.increment();
+            hedgedRequestCharge.add(charge);
+            hedgeRequestCharge.add(charge * (regions - 1) / regions);
+        }
+    }
+
+    public long getOperationCount() {
+        return operations.sum();
+    }
+
+    public long getHedgedCount() {
+        return hedged.sum();
+    }
+
+    /**
+     * @return share of the operations that were hedged.
+     */
+    public double getHedgeRate() {
+        long total = operations.sum();
+        return total == 0 ? 0 : (double) hedged.sum() / total;
+    }
+
+    /**
+     * @return estimated request units spent on requests to regions beyond the first one.
+     */
+    public double getHedgeRequestCharge() {
+        return hedgeRequestCharge.sum();
+    }
+
+    @Override
+    public String toString() {
+        double total = requestCharge.sum();
+        return String.format("operations=%d, hedged=%d (%.1f%%), RU=%.1f, RU of hedged operations=%.1f, RU spent on hedges=%.1f (%.1f%%)",
+            getOperationCount(), getHedgedCount(), getHedgeRate() * 100, total, hedgedRequestCharge.sum(),
+            getHedgeRequestCharge(), total == 0 ? 0 : getHedgeRequestCharge() / total * 100);
+    }
+}
@@ -0,0 +1,118 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.metrics;
+
+import com.azure.core.util.Context;
+import com.azure.cosmos.CosmosDiagnosticsContext;
+import com.azure.cosmos.CosmosDiagnosticsHandler;
+import com.azure.cosmos.sample.common.WorkloadSettings;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time from the start of an application to its first successful item operation, e.g. the first
+ * create or read of an item, split into the phases the application marks on the way, e.g. building the client.
+ *
+ * Only the clients of the sync and async applications, which call {@link #start()} before building them, register
+ * it. The time is logged once, and recorded in the {@value #TIME_TO_FIRST_OPERATION} timer tagged with whether
+ * STARTUP_WARMUP was set when METRICS_ENABLED is set, so runs with and without warm-up can be compared.
+ */
+public class StartupMetrics implements CosmosDiagnosticsHandler {
+
+    public static final String PREFIX = "cosmos.sample.startup";
+
+    public static final String TIME_TO_FIRST_OPERATION = PREFIX + ".timeToFirstOperation";
+
+    private static final StartupMetrics DEFAULT = new StartupMetrics();
+
+    protected static Logger logger = LoggerFactory.getLogger(StartupMetrics.class.getSimpleName());
+
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private long startNanos = System.nanoTime();
+    private long lastMarkNanos = startNanos;
+    private Duration timeToFirstOperation;
+    //  Lets every operation after the first successful one skip the lock
+    private volatile boolean recorded;
+
+    /**
+     * @return the process wide instance, registered with the clients of the sync and async applications.
+     */
+    public static StartupMetrics getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Starts the measurement over, e.g. right before the client is built. Until then it runs from class loading.
+     */
+    public synchronized void start() {
+        phases.clear();
+        startNanos = System.nanoTime();
+        lastMarkNanos = startNanos;
+        timeToFirstOperation = null;
+        recorded = false;
+    }
+
+    /**
+     * Marks the end of a phase of the startup, which took the time since the previous mark.
+     */
+    public synchronized void phase(String name) {
+        long now = System.nanoTime();
+        phases.put(name, now - lastMarkNanos);
+        lastMarkNanos = now;
+    }
+
+    /**
+     * @return the time to the first successful operation, null if there was none yet.
+     */
+    public synchronized Duration getTimeToFirstOperation() {
+        return timeToFirstOperation;
+    }
+
+    @Override
+    public void handleDiagnostics(CosmosDiagnosticsContext diagnosticsContext, Context traceContext) {
+        if (recorded || !diagnosticsContext.isCompleted() || diagnosticsContext.isFailure()
+            || !"Document".equals(diagnosticsContext.getResourceType())) {
+            return;
+        }
+        String summary;
+        Duration elapsed;
+        synchronized (this) {
+            if (timeToFirstOperation != null) {
+                return;
+            }
+            phase("first " + diagnosticsContext.getOperationType().toLowerCase());
+            timeToFirstOperation = Duration.ofNanos(lastMarkNanos - startNanos);
+            recorded = true;
+            elapsed = timeToFirstOperation;
+            summary = toString();
+        }
+        logger.info("Time to first successful operation {}", summary);
+
+        if (WorkloadSettings.METRICS_ENABLED) {
+            Timer.builder(TIME_TO_FIRST_OPERATION)
+                .tag("warmup", String.valueOf(WorkloadSettings.STARTUP_WARMUP))
+                .register(CosmosMetrics.getRegistry())
+                .record(elapsed.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(timeToFirstOperation == null ? "pending" : timeToFirstOperation.toMillis() + " ms");
+        String separator = " (";
+        for (Map.Entry<String, Long> phase : phases.entrySet()) {
+            builder.append(separator).append(phase.getKey()).append('=')
+                .append(TimeUnit.NANOSECONDS.toMillis(phase.getValue())).append(" ms");
+            separator = ", ";
+        }
+        return phases.isEmpty() ? builder.toString() : builder.append(')').toString();
+    }
+}
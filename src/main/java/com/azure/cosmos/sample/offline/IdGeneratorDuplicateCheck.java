@@ -0,0 +1,62 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.offline;
+
+import com.azure.cosmos.sample.common.FamilyIdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Checks that a few million ids generated concurrently by {@link FamilyIdGenerator} contain no duplicate.
+ * The IdGeneratorBenchmark JMH benchmark measures the throughput of the generator.
+ *
+ * Runs without a Cosmos DB account: mvn exec:java@id-duplicate-check -Dexec.args="[threads] [ids per thread]"
+ */
+public class IdGeneratorDuplicateCheck {
+
+    protected static Logger logger = LoggerFactory.getLogger(IdGeneratorDuplicateCheck.class.getSimpleName());
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int idsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+
+        int duplicates = countDuplicates(new FamilyIdGenerator(1), threads, idsPerThread);
+        logger.info("{} duplicate ids among {} ids generated concurrently", duplicates, (long) threads * idsPerThread);
+    }
+
+    private static int countDuplicates(FamilyIdGenerator generator, int threads, int idsPerThread) throws InterruptedException {
+        long[][] ids = new long[threads][idsPerThread];
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long[] slice = ids[t];
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < slice.length; i++) {
+                    slice[i] = generator.nextLong();
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        long[] all = new long[threads * idsPerThread];
+        for (int t = 0; t < threads; t++) {
+            System.arraycopy(ids[t], 0, all, t * idsPerThread, idsPerThread);
+        }
+        Arrays.sort(all);
+        int duplicates = 0;
+        for (int i = 1; i < all.length; i++) {
+            if (all[i] == all[i - 1]) {
+                duplicates++;
+            }
+        }
+        return duplicates;
+    }
+}
@@ -0,0 +1,600 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.offline;
+
+import com.azure.cosmos.CosmosException;
+import com.azure.cosmos.models.CosmosItemIdentity;
+import com.azure.cosmos.models.PartitionKey;
+import com.azure.cosmos.models.SqlQuerySpec;
+import com.azure.cosmos.sample.store.ItemStore;
+import com.azure.cosmos.sample.store.StoreResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process stand-in for a Cosmos DB container, to run workloads without an account.
+ *
+ * Items are kept as JSON, spread over a number of simulated physical partitions by the hash of their partition key.
+ * Every request to a partition waits for a latency drawn from a {@link LatencyDistribution}, is charged request
+ * units from the size of the items it reads or writes, and is throttled with a 429 and a retry-after once the
+ * partition spent its throughput of the current second, see {@link ThrottledPartition}. Like the SDK, the store
+ * retries throttled requests after the retry-after, up to a maximum number of retries. Requests may also fail with
+ * a 503 or, after the request timeout, a 408 at configurable rates, which are not retried.
+ *
+ * The request charges follow the shape of the service's, not its exact values: a point read costs 1 RU per KB, a
+ * create about 5 RU plus 0.8 RU per KB, a query page 2.3 RU plus 0.25 RU per KB returned, and its first page in a
+ * partition 0.02 RU per item it scans.
+ *
+ * Queries support the subset of the query language described in {@link SimpleSqlQuery}.
+ *
+ * Every partition draws its latencies and faults from a random of its own, seeded from the seed of the store, so
+ * the requests to one partition do not change the draws of another. Runs still do not repeat exactly: concurrent
+ * requests to the same partition draw in the order they arrive, and the throttling follows the clock of the
+ * scheduler, which is the wall clock in the workload runner.
+ *
+ * @param <T> item type.
+ */
+public class InMemoryItemStore<T> implements ItemStore<T> {
+
+    private static final double KB = 1024;
+    private static final int MAX_BATCH_OPERATIONS = 100;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
+    private final Class<T> itemType;
+    private final String[] partitionKeyPath;
+    private final ObjectMapper mapper = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final Partition[] partitions;
+    private final LatencyDistribution latency;
+    private final double unavailableRate;
+    private final double timeoutRate;
+    private final Duration requestTimeout;
+    private final int maxThrottleRetries;
+    private final Scheduler scheduler;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder throttleRetries = new LongAdder();
+    private final LongAdder unavailable = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    private InMemoryItemStore(Builder<T> builder) {
+        this.itemType = builder.itemType;
+        this.partitionKeyPath = builder.partitionKeyPath.substring(1).split("/");
+        this.partitions = new Partition[builder.partitionCount];
+        SplittableRandom seeds = new SplittableRandom(builder.seed);
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = new Partition(new ThrottledPartition(builder.requestUnitsPerSecond, builder.scheduler),
+                new Random(seeds.nextLong()));
+        }
+        this.latency = builder.latency;
+        this.unavailableRate = builder.unavailableRate;
+        this.timeoutRate = builder.timeoutRate;
+        this.requestTimeout = builder.requestTimeout;
+        this.maxThrottleRetries = builder.maxThrottleRetries;
+        this.scheduler = builder.scheduler;
+    }
+
+    /**
+     * @param itemType item type.
+     * @param partitionKeyPath partition key path of the container, e.g. "/lastName".
+     * @param scheduler scheduler the latencies and retry-after durations are waited on, whose clock the throttling
+     * follows.
+     */
+    public static <T> Builder<T> builder(Class<T> itemType, String partitionKeyPath, Scheduler scheduler) {
+        return new Builder<>(itemType, partitionKeyPath, scheduler);
+    }
+
+    /**
+     * Stores items right away, without latency, charges or faults, e.g. to set up a workload.
+     */
+    public void preload(Iterable<T> items) {
+        for (T item : items) {
+            ObjectNode node = toNode(item);
+            String key = partitionKeyOf(node);
+            partitionOf(key).upsert(key, idOf(node), node);
+        }
+    }
+
+    @Override
+    public Mono<StoreResponse<T>> createItem(T item) {
+        return Mono.defer(() -> {
+            ObjectNode node = toNode(item);
+            String key = partitionKeyOf(node);
+            Partition partition = partitionOf(key);
+            double charge = createCharge(node);
+            return send(partition, () -> {
+                partition.admit(charge);
+                if (!partition.insert(key, Collections.singletonList(node))) {
+                    throw new SimulatedCosmosException(409, "Entity with the specified id already exists", charge, null);
+                }
+                return new StoreResponse<>(item, 201, charge, null);
+            });
+        });
+    }
+
+    @Override
+    public Mono<StoreResponse<T>> readItem(String id, PartitionKey partitionKey) {
+        return Mono.defer(() -> {
+            String key = keyOf(partitionKey);
+            Partition partition = partitionOf(key);
+            return send(partition, () -> {
+                JsonNode node = partition.get(key, id);
+                double charge = node == null ? 1 : readCharge(node);
+                partition.admit(charge);
+                if (node == null) {
+                    throw new SimulatedCosmosException(404, "Entity with the specified id does not exist", charge, null);
+                }
+                return new StoreResponse<>(toItem(node, itemType), 200, charge, null);
+            });
+        });
+    }
+
+    /**
+     * Reads the identities of every physical partition with one request per partition, sent concurrently.
+     */
+    @Override
+    public Mono<StoreResponse<List<T>>> readMany(List<CosmosItemIdentity> identities) {
+        Map<Partition, List<CosmosItemIdentity>> byPartition = new LinkedHashMap<>();
+        for (CosmosItemIdentity identity : identities) {
+            byPartition.computeIfAbsent(partitionOf(keyOf(identity.getPartitionKey())), p -> new ArrayList<>())
+                .add(identity);
+        }
+        return Flux.fromIterable(byPartition.entrySet())
+            .flatMap(entry -> send(entry.getKey(), () -> {
+                Partition partition = entry.getKey();
+                List<JsonNode> found = new ArrayList<>();
+                for (CosmosItemIdentity identity : entry.getValue()) {
+                    JsonNode node = partition.get(keyOf(identity.getPartitionKey()), identity.getId());
+                    if (node != null) {
+                        found.add(node);
+                    }
+                }
+                double charge = entry.getValue().size() == 1
+                    ? (found.isEmpty() ? 1 : readCharge(found.get(0)))
+                    : queryPageCharge(found, entry.getValue().size());
+                partition.admit(charge);
+                List<T> items = new ArrayList<>(found.size());
+                for (JsonNode node : found) {
+                    items.add(toItem(node, itemType));
+                }
+                return new StoreResponse<>(items, 200, charge, null);
+            }))
+            .reduceWith(() -> new StoreResponse<List<T>>(new ArrayList<>(), 200, 0, null), (total, response) -> {
+                total.getValue().addAll(response.getValue());
+                return new StoreResponse<>(total.getValue(), 200, total.getRequestCharge() + response.getRequestCharge(), null);
+            });
+    }
+
+    /**
+     * Queries the partition of the partition key, or every partition one after the other, a page per request.
+     * The items of a partition are captured when its first page is requested.
+     */
+    @Override
+    public <R> Flux<StoreResponse<List<R>>> queryItems(SqlQuerySpec query, PartitionKey partitionKey, int requestedPageSize,
+                                                      Class<R> resultType) {
+        int pageSize = requestedPageSize > 0 ? requestedPageSize : DEFAULT_PAGE_SIZE;
+        return Mono.fromCallable(() -> SimpleSqlQuery.parse(query, mapper))
+            .flatMapMany(parsed -> {
+                String key = partitionKey != null ? keyOf(partitionKey) : null;
+                List<Integer> queried = new ArrayList<>();
+                if (key != null) {
+                    queried.add(indexOf(key));
+                } else {
+                    for (int i = 0; i < partitions.length; i++) {
+                        queried.add(i);
+                    }
+                }
+                int[] remaining = {parsed.getTop() < 0 ? Integer.MAX_VALUE : parsed.getTop()};
+                return Flux.fromIterable(queried)
+                    .concatMap(index -> {
+                        Partition partition = partitions[index];
+                        List<JsonNode> scanned = partition.snapshot(key);
+                        List<JsonNode> results = new ArrayList<>();
+                        for (JsonNode node : scanned) {
+                            if (results.size() >= remaining[0]) {
+                                break;
+                            }
+                            if (parsed.matches(node)) {
+                                JsonNode result = parsed.project(node);
+                                if (result != null) {
+                                    results.add(result);
+                                }
+                            }
+                        }
+                        remaining[0] -= results.size();
+                        int pages = Math.max(1, (results.size() + pageSize - 1) / pageSize);
+                        return Flux.range(0, pages)
+                            .concatMap(page -> send(partition, () -> {
+                                List<JsonNode> pageNodes = results.subList(page * pageSize,
+                                    Math.min(results.size(), (page + 1) * pageSize));
+                                double charge = queryPageCharge(pageNodes, page == 0 ? scanned.size() : 0);
+                                partition.admit(charge);
+                                List<R> pageResults = new ArrayList<>(pageNodes.size());
+                                for (JsonNode node : pageNodes) {
+                                    pageResults.add(toItem(node, resultType));
+                                }
+                                boolean last = page == pages - 1 && index.equals(queried.get(queried.size() - 1));
+                                return new StoreResponse<>(pageResults, 200, charge,
+                                    last ? null : index + ":" + (page + 1) * pageSize);
+                            }));
+                    });
+            });
+    }
+
+    /**
+     * Creates the items in one request, all or none of them. As with the SDK, a failed batch is a response with
+     * the status code of the failed operation, 424 for the operations that failed because of it, rather than an
+     * error.
+     */
+    @Override
+    public Mono<StoreResponse<List<Integer>>> createBatch(PartitionKey partitionKey, List<T> items) {
+        return Mono.defer(() -> {
+            if (items.isEmpty() || items.size() > MAX_BATCH_OPERATIONS) {
+                return Mono.error(new SimulatedCosmosException(400,
+                    "A batch needs 1 to " + MAX_BATCH_OPERATIONS + " operations", 0, null));
+            }
+            String key = keyOf(partitionKey);
+            List<ObjectNode> nodes = new ArrayList<>(items.size());
+            double charge = 0;
+            for (T item : items) {
+                ObjectNode node = toNode(item);
+                if (!key.equals(partitionKeyOf(node))) {
+                    return Mono.error(new SimulatedCosmosException(400,
+                        "Item " + idOf(node) + " is not in partition " + key, 0, null));
+                }
+                nodes.add(node);
+                charge += createCharge(node);
+            }
+            Partition partition = partitionOf(key);
+            double batchCharge = charge;
+            return send(partition, () -> {
+                partition.admit(batchCharge);
+                List<Integer> statusCodes = new ArrayList<>(nodes.size());
+                if (partition.insert(key, nodes)) {
+                    for (int i = 0; i < nodes.size(); i++) {
+                        statusCodes.add(201);
+                    }
+                    return new StoreResponse<>(statusCodes, 200, batchCharge, null);
+                }
+                //  Only the rejected operation is charged, as on the service
+                int conflict = partition.firstConflict(key, nodes);
+                for (int i = 0; i < nodes.size(); i++) {
+                    statusCodes.add(i == conflict ? 409 : 424);
+                }
+                return new StoreResponse<>(statusCodes, 409, createCharge(nodes.get(conflict)), null);
+            });
+        });
+    }
+
+    //  Sends one request to a partition: latency, injected faults, then the operation, retried while throttled
+    private <V> Mono<StoreResponse<V>> send(Partition partition, Callable<StoreResponse<V>> operation) {
+        return send(partition, operation, 0);
+    }
+
+    private <V> Mono<StoreResponse<V>> send(Partition partition, Callable<StoreResponse<V>> operation, int attempt) {
+        return Mono.defer(() -> {
+            requests.increment();
+            Random random = partition.random;
+            double draw;
+            Duration delay;
+            //  Drawn together, so concurrent requests never interleave their draws
+            synchronized (random) {
+                draw = random.nextDouble();
+                delay = latency.sample(random);
+            }
+            if (draw < timeoutRate) {
+                timeouts.increment();
+                return Mono.delay(requestTimeout, scheduler)
+                    .then(Mono.error(new SimulatedCosmosException(408, "Request timed out", 0, null)));
+            }
+            if (draw < timeoutRate + unavailableRate) {
+                unavailable.increment();
+                return Mono.delay(delay, scheduler).then(Mono.error(new SimulatedCosmosException(503, "Service is unavailable", 0, null)));
+            }
+            return Mono.delay(delay, scheduler).then(Mono.fromCallable(operation));
+        }).onErrorResume(error -> isThrottle(error) && attempt < maxThrottleRetries, error -> {
+            throttleRetries.increment();
+            return Mono.delay(((CosmosException) error).getRetryAfterDuration(), scheduler)
+                .then(send(partition, operation, attempt + 1));
+        });
+    }
+
+    private static boolean isThrottle(Throwable error) {
+        return error instanceof CosmosException && ((CosmosException) error).getStatusCode() == 429;
+    }
+
+    private static double readCharge(JsonNode node) {
+        return Math.max(1, Math.ceil(sizeOf(node) / KB));
+    }
+
+    private static double createCharge(JsonNode node) {
+        return round(5 + 0.8 * sizeOf(node) / KB);
+    }
+
+    private static double queryPageCharge(List<JsonNode> results, int scanned) {
+        long bytes = 0;
+        for (JsonNode node : results) {
+            bytes += sizeOf(node);
+        }
+        return round(2.3 + 0.25 * bytes / KB + 0.02 * scanned);
+    }
+
+    private static double round(double charge) {
+        return Math.round(charge * 100) / 100.0;
+    }
+
+    private static int sizeOf(JsonNode node) {
+        return node.toString().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private ObjectNode toNode(T item) {
+        JsonNode node = mapper.valueToTree(item);
+        if (!node.isObject() || !node.path("id").isTextual()) {
+            throw new SimulatedCosmosException(400, "Items must be objects with a string id", 0, null);
+        }
+        return (ObjectNode) node;
+    }
+
+    private <R> R toItem(JsonNode node, Class<R> type) {
+        try {
+            return mapper.treeToValue(node, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot map an item to " + type.getName(), e);
+        }
+    }
+
+    private static String idOf(JsonNode node) {
+        return node.path("id").asText();
+    }
+
+    private String partitionKeyOf(JsonNode node) {
+        JsonNode value = node;
+        for (String property : partitionKeyPath) {
+            value = value.path(property);
+        }
+        String key = canonicalKey(value);
+        if (key == null) {
+            throw new SimulatedCosmosException(400, "Item " + idOf(node) + " has no partition key value", 0, null);
+        }
+        return key;
+    }
+
+    //  The value of a PartitionKey is only exposed as the JSON array of its toString
+    private String keyOf(PartitionKey partitionKey) {
+        JsonNode components;
+        try {
+            components = mapper.readTree(partitionKey.toString());
+        } catch (JsonProcessingException e) {
+            components = null;
+        }
+        String key = components != null && components.isArray() && components.size() == 1
+            ? canonicalKey(components.get(0)) : null;
+        if (key == null) {
+            throw new SimulatedCosmosException(400, "Unsupported partition key " + partitionKey, 0, null);
+        }
+        return key;
+    }
+
+    //  Items and requests map their partition key values to the same text, numbers as doubles so 5 matches 5.0
+    private static String canonicalKey(JsonNode value) {
+        if (value.isTextual()) {
+            return value.toString();
+        } else if (value.isNumber()) {
+            return Double.toString(value.asDouble());
+        } else if (value.isBoolean()) {
+            return value.asText();
+        }
+        return null;
+    }
+
+    private int indexOf(String partitionKey) {
+        return Math.floorMod(partitionKey.hashCode(), partitions.length);
+    }
+
+    private Partition partitionOf(String partitionKey) {
+        return partitions[indexOf(partitionKey)];
+    }
+
+    public int getPartitionCount() {
+        return partitions.length;
+    }
+
+    public long getItemCount() {
+        long count = 0;
+        for (Partition partition : partitions) {
+            count += partition.size();
+        }
+        return count;
+    }
+
+    public long getThrottledCount() {
+        long throttled = 0;
+        for (Partition partition : partitions) {
+            throttled += partition.throttle.getThrottledCount();
+        }
+        return throttled;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("partitions=%d, items=%d, requests=%d, throttled=%d, throttle retries=%d, 503s=%d, timeouts=%d, latency %s",
+            partitions.length, getItemCount(), requests.sum(), getThrottledCount(), throttleRetries.sum(),
+            unavailable.sum(), timeouts.sum(), latency);
+    }
+
+    /**
+     * Items and throughput budget of a simulated physical partition.
+     */
+    private static final class Partition {
+
+        private final ThrottledPartition throttle;
+        private final Random random;
+        //  Items by id per logical partition, in insertion order so queries return them in a stable order
+        private final Map<String, Map<String, JsonNode>> logicalPartitions = new LinkedHashMap<>();
+
+        Partition(ThrottledPartition throttle, Random random) {
+            this.throttle = throttle;
+            this.random = random;
+        }
+
+        void admit(double requestCharge) {
+            throttle.charge(requestCharge);
+        }
+
+        synchronized JsonNode get(String partitionKey, String id) {
+            Map<String, JsonNode> items = logicalPartitions.get(partitionKey);
+            return items == null ? null : items.get(id);
+        }
+
+        synchronized void upsert(String partitionKey, String id, JsonNode node) {
+            logicalPartitions.computeIfAbsent(partitionKey, k -> new LinkedHashMap<>()).put(id, node);
+        }
+
+        /**
+         * @return false, with nothing inserted, if an id already exists or is repeated.
+         */
+        synchronized boolean insert(String partitionKey, List<? extends JsonNode> nodes) {
+            if (firstConflict(partitionKey, nodes) >= 0) {
+                return false;
+            }
+            Map<String, JsonNode> items = logicalPartitions.computeIfAbsent(partitionKey, k -> new LinkedHashMap<>());
+            for (JsonNode node : nodes) {
+                items.put(idOf(node), node);
+            }
+            return true;
+        }
+
+        synchronized int firstConflict(String partitionKey, List<? extends JsonNode> nodes) {
+            Map<String, JsonNode> items = logicalPartitions.getOrDefault(partitionKey, Collections.emptyMap());
+            Set<String> ids = new HashSet<>();
+            for (int i = 0; i < nodes.size(); i++) {
+                String id = idOf(nodes.get(i));
+                if (items.containsKey(id) || !ids.add(id)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @return the items of the logical partition, or of every logical partition if partitionKey is null.
+         */
+        synchronized List<JsonNode> snapshot(String partitionKey) {
+            if (partitionKey != null) {
+                return new ArrayList<>(logicalPartitions.getOrDefault(partitionKey, Collections.emptyMap()).values());
+            }
+            List<JsonNode> nodes = new ArrayList<>();
+            for (Map<String, JsonNode> items : logicalPartitions.values()) {
+                nodes.addAll(items.values());
+            }
+            return nodes;
+        }
+
+        synchronized long size() {
+            long size = 0;
+            for (Map<String, JsonNode> items : logicalPartitions.values()) {
+                size += items.size();
+            }
+            return size;
+        }
+    }
+
+    public static final class Builder<T> {
+
+        private final Class<T> itemType;
+        private final String partitionKeyPath;
+        private final Scheduler scheduler;
+        private int partitionCount = 1;
+        private double requestUnitsPerSecond = 400;
+        private LatencyDistribution latency = LatencyDistribution.fixed(Duration.ofMillis(5));
+        private double unavailableRate;
+        private double timeoutRate;
+        private Duration requestTimeout = Duration.ofSeconds(5);
+        private int maxThrottleRetries = 9;
+        private long seed = 42;
+
+        private Builder(Class<T> itemType, String partitionKeyPath, Scheduler scheduler) {
+            if (!partitionKeyPath.startsWith("/")) {
+                throw new IllegalArgumentException("Partition key path must start with /: " + partitionKeyPath);
+            }
+            this.itemType = itemType;
+            this.partitionKeyPath = partitionKeyPath;
+            this.scheduler = scheduler;
+        }
+
+        /**
+         * @param partitionCount number of physical partitions.
+         * @param requestUnitsPerSecond throughput of each physical partition.
+         */
+        public Builder<T> partitions(int partitionCount, double requestUnitsPerSecond) {
+            if (partitionCount < 1) {
+                throw new IllegalArgumentException("partitionCount must be positive");
+            }
+            this.partitionCount = partitionCount;
+            this.requestUnitsPerSecond = requestUnitsPerSecond;
+            return this;
+        }
+
+        public Builder<T> latency(LatencyDistribution latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        /**
+         * @param unavailableRate share of requests failing with a 503.
+         * @param timeoutRate share of requests failing with a 408 after the request timeout.
+         * @param requestTimeout how long a timed out request takes to fail.
+         */
+        public Builder<T> faults(double unavailableRate, double timeoutRate, Duration requestTimeout) {
+            if (unavailableRate < 0 || timeoutRate < 0 || unavailableRate + timeoutRate > 1) {
+                throw new IllegalArgumentException("Fault rates must be between 0 and 1");
+            }
+            this.unavailableRate = unavailableRate;
+            this.timeoutRate = timeoutRate;
+            this.requestTimeout = requestTimeout;
+            return this;
+        }
+
+        /**
+         * @param maxThrottleRetries number of times a throttled request is retried, 9 like the SDK.
+         */
+        public Builder<T> maxThrottleRetries(int maxThrottleRetries) {
+            this.maxThrottleRetries = maxThrottleRetries;
+            return this;
+        }
+
+        /**
+         * @param seed seed the random of every partition, which draws its latencies and faults, is derived from.
+         */
+        public Builder<T> seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public InMemoryItemStore<T> build() {
+            return new InMemoryItemStore<>(this);
+        }
+    }
+}
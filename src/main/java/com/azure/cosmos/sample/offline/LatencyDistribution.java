@@ -0,0 +1,80 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.offline;
+
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * Distribution the latencies of simulated requests are drawn from.
+ */
+public abstract class LatencyDistribution {
+
+    //  Standard normal quantile of the 99th percentile
+    private static final double Z_99 = 2.326348;
+
+    /**
+     * @return a latency drawn from the distribution.
+     */
+    public abstract Duration sample(Random random);
+
+    /**
+     * @return a distribution that always returns the same latency.
+     */
+    public static LatencyDistribution fixed(Duration latency) {
+        return new LatencyDistribution() {
+            @Override
+            public Duration sample(Random random) {
+                return latency;
+            }
+
+            @Override
+            public String toString() {
+                return "fixed(" + latency.toMillis() + " ms)";
+            }
+        };
+    }
+
+    /**
+     * @return a distribution of latencies spread evenly between min and max.
+     */
+    public static LatencyDistribution uniform(Duration min, Duration max) {
+        if (max.compareTo(min) < 0) {
+            throw new IllegalArgumentException("max must not be below min");
+        }
+        return new LatencyDistribution() {
+            @Override
+            public Duration sample(Random random) {
+                return min.plusNanos((long) (random.nextDouble() * max.minus(min).toNanos()));
+            }
+
+            @Override
+            public String toString() {
+                return "uniform(" + min.toMillis() + " ms, " + max.toMillis() + " ms)";
+            }
+        };
+    }
+
+    /**
+     * Log-normal distribution with the given median and 99th percentile, the long tailed shape of service latencies.
+     */
+    public static LatencyDistribution logNormal(Duration median, Duration p99) {
+        if (median.isNegative() || median.isZero() || p99.compareTo(median) < 0) {
+            throw new IllegalArgumentException("Latencies must satisfy 0 < median <= p99");
+        }
+        double mu = Math.log(median.toNanos());
+        double sigma = Math.log((double) p99.toNanos() / median.toNanos()) / Z_99;
+        return new LatencyDistribution() {
+            @Override
+            public Duration sample(Random random) {
+                return Duration.ofNanos((long) Math.exp(mu + sigma * random.nextGaussian()));
+            }
+
+            @Override
+            public String toString() {
+                return "logNormal(median " + median.toMillis() + " ms, p99 " + p99.toMillis() + " ms)";
+            }
+        };
+    }
+}
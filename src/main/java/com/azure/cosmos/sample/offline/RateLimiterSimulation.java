@@ -0,0 +1,75 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.offline;
+
+import com.azure.cosmos.sample.async.RequestUnitRateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the same burst of simulated creates and reads against a throttled partition, once submitted as fast as
+ * flatMap allows and once paced by {@link RequestUnitRateLimiter}, and compares throttling and throughput.
+ *
+ * Runs without a Cosmos DB account: mvn exec:java@rate-limiter-simulation -Dexec.args="[operations] [RU/s]"
+ */
+public class RateLimiterSimulation {
+
+    private static final Duration LATENCY = Duration.ofMillis(5);
+
+    protected static Logger logger = LoggerFactory.getLogger(RateLimiterSimulation.class.getSimpleName());
+
+    public static void main(String[] args) {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        double requestUnitsPerSecond = args.length > 1 ? Double.parseDouble(args[1]) : 400;
+        Scheduler scheduler = Schedulers.parallel();
+
+        run("unpaced", operations, new ThrottledPartition(requestUnitsPerSecond, scheduler), null);
+        run("paced", operations, new ThrottledPartition(requestUnitsPerSecond, scheduler),
+            new RequestUnitRateLimiter(requestUnitsPerSecond * 0.9, Duration.ofMillis(100), 5, scheduler));
+    }
+
+    private static void run(String name, int operations, ThrottledPartition partition, RequestUnitRateLimiter limiter) {
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong requestUnits = new AtomicLong();
+        long start = System.nanoTime();
+
+        Flux.range(0, operations)
+            .flatMap(i -> {
+                //  One create of about 8 RU for every three reads of 1 RU
+                String kind = i % 4 == 0 ? "create" : "read";
+                double charge = "create".equals(kind) ? 7 + 2 * ThreadLocalRandom.current().nextDouble() : 1;
+                Mono<Double> operation = limiter != null
+                    ? limiter.execute(kind, () -> simulate(partition, charge), Double::doubleValue)
+                    : simulate(partition, charge);
+                return operation
+                    .doOnNext(c -> {
+                        succeeded.incrementAndGet();
+                        requestUnits.addAndGet(Math.round(c));
+                    })
+                    .onErrorResume(e -> Mono.empty());
+            }, 64)
+            .blockLast();
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        logger.info("{}: {} of {} operations succeeded, {} throttled, {} s, {} RU/s consumed of {}",
+            name, succeeded.get(), operations, partition.getThrottledCount(),
+            String.format("%.2f", seconds), String.format("%.0f", requestUnits.get() / seconds),
+            partition.getRequestUnitsPerSecond());
+    }
+
+    private static Mono<Double> simulate(ThrottledPartition partition, double charge) {
+        return Mono.delay(LATENCY).then(Mono.fromCallable(() -> {
+            partition.charge(charge);
+            return charge;
+        }));
+    }
+}
@@ -0,0 +1,123 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.offline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local HTTP stand-in for the endpoints of a multi-region account, with a configurable latency per region.
+ *
+ * The account endpoint serves a database account resource listing the regions as readable locations, each with
+ * an endpoint on the same server. A request to the endpoint of a region is answered with the same resource after
+ * the latency of the region, which can be changed while the stub runs.
+ *
+ * Set the JVM wide system property sun.net.httpserver.nodelay to true before the first stub starts, as
+ * {@link RegionProbingSimulation} does: without it, delayed acknowledgements add about 40 ms to every response on
+ * a kept alive connection.
+ */
+public class RegionLatencyStub implements AutoCloseable {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final List<String> regions;
+    private final Map<String, Duration> latencies = new ConcurrentHashMap<>();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "region-latency-stub");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Starts the stub on a free local port.
+     *
+     * @param regionLatencies latency of every region, in the order the account lists them.
+     */
+    public RegionLatencyStub(Map<String, Duration> regionLatencies) throws IOException {
+        this.regions = new ArrayList<>(regionLatencies.keySet());
+        this.latencies.putAll(regionLatencies);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public URI getAccountEndpoint() {
+        return URI.create("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/");
+    }
+
+    public void setLatency(String region, Duration latency) {
+        if (!latencies.containsKey(region)) {
+            throw new IllegalArgumentException("Unknown region " + region);
+        }
+        latencies.put(region, latency);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            for (String region : regions) {
+                if (path.equals("/" + pathOf(region) + "/")) {
+                    TimeUnit.NANOSECONDS.sleep(latencies.get(region).toNanos());
+                    respond(exchange, 200, account());
+                    return;
+                }
+            }
+            respond(exchange, path.equals("/") ? 200 : 404, account());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private byte[] account() throws IOException {
+        ObjectNode account = OBJECT_MAPPER.createObjectNode().put("id", "region-latency-stub");
+        ArrayNode locations = account.putArray("readableLocations");
+        for (String region : regions) {
+            locations.addObject()
+                .put("name", region)
+                .put("databaseAccountEndpoint", getAccountEndpoint() + pathOf(region) + "/");
+        }
+        return OBJECT_MAPPER.writeValueAsString(account).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    private static String pathOf(String region) {
+        return region.toLowerCase(Locale.ROOT).replace(" ", "");
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
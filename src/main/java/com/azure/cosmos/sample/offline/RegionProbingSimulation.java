@@ -0,0 +1,67 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.offline;
+
+import com.azure.cosmos.sample.common.AccountSettings;
+import com.azure.cosmos.sample.region.AccountRegionProbe;
+import com.azure.cosmos.sample.region.RegionLatencyProber;
+import com.azure.cosmos.sample.region.RegionLatencyTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs {@link RegionLatencyProber} against a {@link RegionLatencyStub} of three regions and logs how the preferred
+ * regions follow their latencies: East US degrades after a few rounds, then West Europe stops answering within
+ * the probe timeout.
+ *
+ * Runs without a Cosmos DB account: mvn exec:java@region-probing-simulation -Dexec.args="[rounds per phase]"
+ */
+public class RegionProbingSimulation {
+
+    private static final Duration PROBE_TIMEOUT = Duration.ofMillis(500);
+
+    protected static Logger logger = LoggerFactory.getLogger(RegionProbingSimulation.class.getSimpleName());
+
+    public static void main(String[] args) throws Exception {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        //  Without it, delayed acknowledgements of the stub add about 40 ms to every probe on a kept alive connection
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+
+        Map<String, Duration> latencies = new LinkedHashMap<>();
+        latencies.put("West US", Duration.ofMillis(60));
+        latencies.put("East US", Duration.ofMillis(20));
+        latencies.put("West Europe", Duration.ofMillis(120));
+
+        try (RegionLatencyStub stub = new RegionLatencyStub(latencies);
+             RegionLatencyProber prober = new RegionLatencyProber(
+                 new AccountRegionProbe(stub.getAccountEndpoint(), AccountSettings.MASTER_KEY, PROBE_TIMEOUT),
+                 new RegionLatencyTracker(0.3), 3, PROBE_TIMEOUT, Collections.singletonList("West US"))) {
+
+            logger.info("Stub latencies {}, preferred regions before probing {}", latencies, prober.getPreferredRegions());
+            run(prober, rounds);
+
+            logger.info("East US degrades to 200 ms");
+            stub.setLatency("East US", Duration.ofMillis(200));
+            run(prober, rounds);
+
+            logger.info("West Europe stops answering within {} ms", PROBE_TIMEOUT.toMillis());
+            stub.setLatency("West Europe", Duration.ofSeconds(1));
+            run(prober, rounds);
+        }
+        System.exit(0);
+    }
+
+    private static void run(RegionLatencyProber prober, int rounds) {
+        for (int i = 0; i < rounds; i++) {
+            List<String> order = prober.probeOnce().block();
+            logger.info("Round {}: preferred regions {}, latencies {}", i + 1, order, prober.getTracker());
+        }
+    }
+}
@@ -0,0 +1,555 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.offline;
+
+import com.azure.cosmos.models.SqlParameter;
+import com.azure.cosmos.models.SqlQuerySpec;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.DoubleNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The subset of the Cosmos DB query language the samples use, evaluated over JSON items:
+ *
+ * SELECT [TOP n] {* | VALUE path | path [AS name], ...} FROM container [[AS] alias] [WHERE condition]
+ *
+ * A path is the alias followed by properties and array indexes, e.g. f.address.state or f.children[0].
+ * A condition combines comparisons (=, !=, <>, <, <=, >, >=), [NOT] IN lists and boolean paths with AND, OR, NOT
+ * and parentheses, over paths, literals and parameters. As on the service, a comparison involving an undefined
+ * property or values of different types is undefined, and only items whose condition is true are returned.
+ *
+ * Anything else, e.g. ORDER BY, JOIN or functions, is rejected with an IllegalArgumentException.
+ */
+class SimpleSqlQuery {
+
+    private static final JsonNode UNDEFINED = MissingNode.getInstance();
+
+    private final int top;
+    private final Projection projection;
+    private final Expression filter;
+
+    private SimpleSqlQuery(int top, Projection projection, Expression filter) {
+        this.top = top;
+        this.projection = projection;
+        this.filter = filter;
+    }
+
+    /**
+     * @param query query text and parameters.
+     * @param mapper mapper the parameter values are converted with.
+     * @throws IllegalArgumentException if the query is not supported.
+     */
+    static SimpleSqlQuery parse(SqlQuerySpec query, ObjectMapper mapper) {
+        Map<String, JsonNode> parameters = new HashMap<>();
+        for (SqlParameter parameter : query.getParameters()) {
+            parameters.put(parameter.getName(), mapper.valueToTree(parameter.getValue(Object.class)));
+        }
+        return new Parser(query.getQueryText(), parameters).parse();
+    }
+
+    /**
+     * @return maximum number of results, -1 for no limit.
+     */
+    int getTop() {
+        return top;
+    }
+
+    boolean matches(JsonNode item) {
+        return filter == null || filter.evaluate(item) == BooleanNode.TRUE;
+    }
+
+    /**
+     * @return the result of the select list for the item, null if it is undefined.
+     */
+    JsonNode project(JsonNode item) {
+        return projection.apply(item);
+    }
+
+    private interface Expression {
+        JsonNode evaluate(JsonNode item);
+    }
+
+    private interface Projection {
+        JsonNode apply(JsonNode item);
+    }
+
+    private static JsonNode bool(boolean value) {
+        return BooleanNode.valueOf(value);
+    }
+
+    //  Comparable values are two numbers, two strings or two booleans, other pairs only compare for equality
+    private static Integer compare(JsonNode left, JsonNode right) {
+        if (left.isNumber() && right.isNumber()) {
+            return Double.compare(left.asDouble(), right.asDouble());
+        }
+        if (left.isTextual() && right.isTextual()) {
+            return left.asText().compareTo(right.asText());
+        }
+        if (left.isBoolean() && right.isBoolean()) {
+            return Boolean.compare(left.asBoolean(), right.asBoolean());
+        }
+        return null;
+    }
+
+    private static JsonNode equal(JsonNode left, JsonNode right) {
+        if (left.isMissingNode() || right.isMissingNode()) {
+            return UNDEFINED;
+        }
+        Integer comparison = compare(left, right);
+        if (comparison != null) {
+            return bool(comparison == 0);
+        }
+        if (left.getNodeType() != right.getNodeType()) {
+            return UNDEFINED;
+        }
+        return bool(left.equals(right));
+    }
+
+    private static JsonNode not(JsonNode value) {
+        return value.isBoolean() ? bool(!value.asBoolean()) : UNDEFINED;
+    }
+
+    private static final class Parser {
+
+        private final String text;
+        private final Map<String, JsonNode> parameters;
+        private final List<Token> tokens = new ArrayList<>();
+        private int position;
+        private String alias;
+
+        Parser(String text, Map<String, JsonNode> parameters) {
+            this.text = text;
+            this.parameters = parameters;
+            tokenize();
+        }
+
+        SimpleSqlQuery parse() {
+            expectKeyword("SELECT");
+            int top = -1;
+            if (acceptKeyword("TOP")) {
+                JsonNode value = literalOrParameter();
+                if (!value.canConvertToInt() || value.asInt() < 0) {
+                    throw unsupported("TOP expects a non negative integer");
+                }
+                top = value.asInt();
+            }
+
+            //  The select list refers to the alias, which follows it
+            int selectStart = position;
+            while (!peekKeyword("FROM")) {
+                if (peek().kind == Kind.END) {
+                    throw unsupported("FROM expected");
+                }
+                position++;
+            }
+            int selectEnd = position;
+            expectKeyword("FROM");
+            String container = expect(Kind.IDENTIFIER).text;
+            alias = container;
+            if (acceptKeyword("AS") || (peek().kind == Kind.IDENTIFIER && !isClause(peek()))) {
+                alias = expect(Kind.IDENTIFIER).text;
+            }
+            Expression filter = null;
+            if (acceptKeyword("WHERE")) {
+                filter = or();
+            }
+            if (peek().kind != Kind.END) {
+                throw unsupported("unexpected '" + peek().text + "'");
+            }
+            int end = position;
+
+            position = selectStart;
+            Projection projection = selectList();
+            if (position != selectEnd) {
+                throw unsupported("unexpected '" + peek().text + "' in select list");
+            }
+            position = end;
+            return new SimpleSqlQuery(top, projection, filter);
+        }
+
+        private Projection selectList() {
+            if (acceptSymbol("*")) {
+                return item -> item;
+            }
+            if (acceptKeyword("VALUE")) {
+                Expression value = path();
+                return item -> {
+                    JsonNode result = value.evaluate(item);
+                    return result.isMissingNode() ? null : result;
+                };
+            }
+            List<String> names = new ArrayList<>();
+            List<Expression> values = new ArrayList<>();
+            do {
+                PathExpression value = path();
+                names.add(acceptKeyword("AS") ? expect(Kind.IDENTIFIER).text : value.name(names.size() + 1));
+                values.add(value);
+            } while (acceptSymbol(","));
+            return item -> {
+                ObjectNode result = JsonNodeFactory.instance.objectNode();
+                for (int i = 0; i < names.size(); i++) {
+                    JsonNode value = values.get(i).evaluate(item);
+                    if (!value.isMissingNode()) {
+                        result.set(names.get(i), value);
+                    }
+                }
+                return result;
+            };
+        }
+
+        private Expression or() {
+            Expression left = and();
+            while (acceptKeyword("OR")) {
+                Expression l = left;
+                Expression r = and();
+                left = item -> {
+                    JsonNode a = l.evaluate(item);
+                    JsonNode b = r.evaluate(item);
+                    if (a == BooleanNode.TRUE || b == BooleanNode.TRUE) {
+                        return BooleanNode.TRUE;
+                    }
+                    return a.isBoolean() && b.isBoolean() ? BooleanNode.FALSE : UNDEFINED;
+                };
+            }
+            return left;
+        }
+
+        private Expression and() {
+            Expression left = not();
+            while (acceptKeyword("AND")) {
+                Expression l = left;
+                Expression r = not();
+                left = item -> {
+                    JsonNode a = l.evaluate(item);
+                    JsonNode b = r.evaluate(item);
+                    if (a == BooleanNode.FALSE || b == BooleanNode.FALSE) {
+                        return BooleanNode.FALSE;
+                    }
+                    return a.isBoolean() && b.isBoolean() ? BooleanNode.TRUE : UNDEFINED;
+                };
+            }
+            return left;
+        }
+
+        private Expression not() {
+            if (acceptKeyword("NOT")) {
+                Expression operand = not();
+                return item -> SimpleSqlQuery.not(operand.evaluate(item));
+            }
+            if (acceptSymbol("(")) {
+                Expression inner = or();
+                expectSymbol(")");
+                return inner;
+            }
+            return comparison();
+        }
+
+        private Expression comparison() {
+            Expression left = operand();
+            if (peek().kind == Kind.SYMBOL && isComparisonOperator(peek().text)) {
+                String operator = tokens.get(position++).text;
+                Expression right = operand();
+                return item -> compare(operator, left.evaluate(item), right.evaluate(item));
+            }
+            boolean negated = acceptKeyword("NOT");
+            if (acceptKeyword("IN")) {
+                expectSymbol("(");
+                List<Expression> candidates = new ArrayList<>();
+                do {
+                    candidates.add(operand());
+                } while (acceptSymbol(","));
+                expectSymbol(")");
+                return item -> {
+                    JsonNode value = left.evaluate(item);
+                    if (value.isMissingNode()) {
+                        return UNDEFINED;
+                    }
+                    boolean found = false;
+                    for (Expression candidate : candidates) {
+                        found |= equal(value, candidate.evaluate(item)) == BooleanNode.TRUE;
+                    }
+                    return bool(found != negated);
+                };
+            }
+            if (negated) {
+                throw unsupported("IN expected after NOT");
+            }
+            //  A path on its own, e.g. WHERE f.isRegistered
+            return item -> {
+                JsonNode value = left.evaluate(item);
+                return value.isBoolean() ? value : UNDEFINED;
+            };
+        }
+
+        private JsonNode compare(String operator, JsonNode left, JsonNode right) {
+            if (operator.equals("=")) {
+                return equal(left, right);
+            }
+            if (operator.equals("!=") || operator.equals("<>")) {
+                return SimpleSqlQuery.not(equal(left, right));
+            }
+            if (left.isMissingNode() || right.isMissingNode()) {
+                return UNDEFINED;
+            }
+            Integer comparison = SimpleSqlQuery.compare(left, right);
+            if (comparison == null) {
+                return UNDEFINED;
+            }
+            switch (operator) {
+                case "<":
+                    return bool(comparison < 0);
+                case "<=":
+                    return bool(comparison <= 0);
+                case ">":
+                    return bool(comparison > 0);
+                default:
+                    return bool(comparison >= 0);
+            }
+        }
+
+        private Expression operand() {
+            if (peek().kind == Kind.IDENTIFIER && !isKeyword(peek())) {
+                return path();
+            }
+            JsonNode value = literalOrParameter();
+            return item -> value;
+        }
+
+        private JsonNode literalOrParameter() {
+            Token token = tokens.get(position);
+            if (token.kind == Kind.LITERAL) {
+                position++;
+                return token.value;
+            }
+            if (token.kind == Kind.PARAMETER) {
+                position++;
+                JsonNode value = parameters.get(token.text);
+                if (value == null) {
+                    throw new IllegalArgumentException("No value for parameter " + token.text + " of query: " + text);
+                }
+                return value;
+            }
+            if (token.kind == Kind.IDENTIFIER) {
+                switch (token.text.toLowerCase()) {
+                    case "true":
+                        position++;
+                        return BooleanNode.TRUE;
+                    case "false":
+                        position++;
+                        return BooleanNode.FALSE;
+                    case "null":
+                        position++;
+                        return NullNode.getInstance();
+                    default:
+                        break;
+                }
+            }
+            throw unsupported("unexpected '" + token.text + "'");
+        }
+
+        private PathExpression path() {
+            Token root = expect(Kind.IDENTIFIER);
+            if (!root.text.equals(alias)) {
+                throw unsupported("unknown identifier '" + root.text + "', expected " + alias);
+            }
+            List<Object> steps = new ArrayList<>();
+            while (true) {
+                if (acceptSymbol(".")) {
+                    steps.add(expect(Kind.IDENTIFIER).text);
+                } else if (acceptSymbol("[")) {
+                    Token index = expect(Kind.LITERAL);
+                    steps.add(index.value.isTextual() ? index.value.asText() : (Object) index.value.asInt());
+                    expectSymbol("]");
+                } else {
+                    return new PathExpression(root.text, steps);
+                }
+            }
+        }
+
+        private void tokenize() {
+            int i = 0;
+            while (i < text.length()) {
+                char c = text.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    i++;
+                } else if (Character.isLetter(c) || c == '_' || c == '@') {
+                    int start = i++;
+                    while (i < text.length() && (Character.isLetterOrDigit(text.charAt(i)) || text.charAt(i) == '_')) {
+                        i++;
+                    }
+                    String word = text.substring(start, i);
+                    tokens.add(new Token(c == '@' ? Kind.PARAMETER : Kind.IDENTIFIER, word, null));
+                } else if (Character.isDigit(c) || (c == '-' && i + 1 < text.length() && Character.isDigit(text.charAt(i + 1)))) {
+                    int start = i++;
+                    while (i < text.length() && (Character.isDigit(text.charAt(i)) || text.charAt(i) == '.')) {
+                        i++;
+                    }
+                    String number = text.substring(start, i);
+                    JsonNode value = number.indexOf('.') < 0
+                        ? LongNode.valueOf(Long.parseLong(number)) : DoubleNode.valueOf(Double.parseDouble(number));
+                    tokens.add(new Token(Kind.LITERAL, number, value));
+                } else if (c == '\'' || c == '"') {
+                    StringBuilder value = new StringBuilder();
+                    int start = i++;
+                    while (i < text.length() && text.charAt(i) != c) {
+                        if (text.charAt(i) == '\\' && i + 1 < text.length()) {
+                            i++;
+                        }
+                        value.append(text.charAt(i++));
+                    }
+                    if (i == text.length()) {
+                        throw unsupported("unterminated string literal");
+                    }
+                    i++;
+                    tokens.add(new Token(Kind.LITERAL, text.substring(start, i), TextNode.valueOf(value.toString())));
+                } else if ((c == '!' || c == '<' || c == '>') && i + 1 < text.length()
+                    && (text.charAt(i + 1) == '=' || (c == '<' && text.charAt(i + 1) == '>'))) {
+                    tokens.add(new Token(Kind.SYMBOL, text.substring(i, i + 2), null));
+                    i += 2;
+                } else if ("=<>*,.()[]".indexOf(c) >= 0) {
+                    tokens.add(new Token(Kind.SYMBOL, String.valueOf(c), null));
+                    i++;
+                } else {
+                    throw unsupported("unexpected character '" + c + "'");
+                }
+            }
+            tokens.add(new Token(Kind.END, "end of query", null));
+        }
+
+        private Token peek() {
+            return tokens.get(position);
+        }
+
+        private boolean peekKeyword(String keyword) {
+            return peek().kind == Kind.IDENTIFIER && peek().text.equalsIgnoreCase(keyword);
+        }
+
+        private boolean acceptKeyword(String keyword) {
+            if (peekKeyword(keyword)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expectKeyword(String keyword) {
+            if (!acceptKeyword(keyword)) {
+                throw unsupported(keyword + " expected");
+            }
+        }
+
+        private boolean acceptSymbol(String symbol) {
+            if (peek().kind == Kind.SYMBOL && peek().text.equals(symbol)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expectSymbol(String symbol) {
+            if (!acceptSymbol(symbol)) {
+                throw unsupported("'" + symbol + "' expected");
+            }
+        }
+
+        private Token expect(Kind kind) {
+            if (peek().kind != kind) {
+                throw unsupported("unexpected '" + peek().text + "'");
+            }
+            return tokens.get(position++);
+        }
+
+        private IllegalArgumentException unsupported(String reason) {
+            return new IllegalArgumentException("Unsupported query, " + reason + ": " + text);
+        }
+
+        private static boolean isComparisonOperator(String symbol) {
+            return symbol.equals("=") || symbol.equals("!=") || symbol.equals("<>")
+                || symbol.equals("<") || symbol.equals("<=") || symbol.equals(">") || symbol.equals(">=");
+        }
+
+        private static boolean isClause(Token token) {
+            switch (token.text.toUpperCase()) {
+                case "WHERE":
+                case "JOIN":
+                case "ORDER":
+                case "GROUP":
+                case "OFFSET":
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private static boolean isKeyword(Token token) {
+            switch (token.text.toUpperCase()) {
+                case "TRUE":
+                case "FALSE":
+                case "NULL":
+                case "NOT":
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    }
+
+    private static final class PathExpression implements Expression {
+
+        private final String root;
+        private final List<Object> steps;
+
+        PathExpression(String root, List<Object> steps) {
+            this.root = root;
+            this.steps = steps;
+        }
+
+        @Override
+        public JsonNode evaluate(JsonNode item) {
+            JsonNode node = item;
+            for (Object step : steps) {
+                node = step instanceof Integer ? node.path((Integer) step) : node.path((String) step);
+            }
+            return node;
+        }
+
+        //  Property name of the value in a select list without AS, as the service names it
+        String name(int ordinal) {
+            if (steps.isEmpty()) {
+                return root;
+            }
+            Object last = steps.get(steps.size() - 1);
+            return last instanceof String ? (String) last : "$" + ordinal;
+        }
+    }
+
+    private enum Kind {
+        IDENTIFIER, PARAMETER, LITERAL, SYMBOL, END
+    }
+
+    private static final class Token {
+
+        private final Kind kind;
+        private final String text;
+        private final JsonNode value;
+
+        Token(Kind kind, String text, JsonNode value) {
+            this.kind = kind;
+            this.text = text;
+            this.value = value;
+        }
+    }
+}
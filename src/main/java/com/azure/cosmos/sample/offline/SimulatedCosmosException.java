@@ -0,0 +1,32 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.offline;
+
+import com.azure.cosmos.CosmosException;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * CosmosException raised by the offline simulations, carrying the status code, request charge and retry-after
+ * duration the service would have returned.
+ */
+public class SimulatedCosmosException extends CosmosException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SimulatedCosmosException(int statusCode, String message, double requestCharge, Duration retryAfter) {
+        super(statusCode, message, headers(requestCharge, retryAfter), null);
+    }
+
+    private static Map<String, String> headers(double requestCharge, Duration retryAfter) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("x-ms-request-charge", Double.toString(requestCharge));
+        if (retryAfter != null) {
+            headers.put("x-ms-retry-after-ms", Long.toString(retryAfter.toMillis()));
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,62 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.offline;
+
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput budget of a simulated physical partition.
+ *
+ * Like the service, the partition may consume its provisioned request units once per second. A request arriving
+ * after the budget of the current second is spent is rejected with a 429 and a retry-after pointing to the start of
+ * the next second.
+ */
+public class ThrottledPartition {
+
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final double requestUnitsPerSecond;
+    private final Scheduler scheduler;
+    private long currentSecond = Long.MIN_VALUE;
+    private double consumed;
+    private long throttled;
+
+    public ThrottledPartition(double requestUnitsPerSecond, Scheduler scheduler) {
+        this.requestUnitsPerSecond = requestUnitsPerSecond;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Charges a request to the budget of the current second.
+     *
+     * @param requestCharge request units the request costs.
+     * @throws SimulatedCosmosException with status 429 if the budget of the current second is spent.
+     */
+    public synchronized void charge(double requestCharge) {
+        long now = scheduler.now(TimeUnit.NANOSECONDS);
+        long second = now / SECOND_NANOS;
+        if (second != currentSecond) {
+            currentSecond = second;
+            consumed = 0;
+        }
+        //  As on the service, a request is admitted while any budget is left, it may overdraw the last bit
+        if (consumed >= requestUnitsPerSecond) {
+            throttled++;
+            Duration retryAfter = Duration.ofNanos((second + 1) * SECOND_NANOS - now);
+            throw new SimulatedCosmosException(429, "Request rate is large", 0, retryAfter);
+        }
+        consumed += requestCharge;
+    }
+
+    public double getRequestUnitsPerSecond() {
+        return requestUnitsPerSecond;
+    }
+
+    public synchronized long getThrottledCount() {
+        return throttled;
+    }
+}
@@ -0,0 +1,128 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.region;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Probes the regions of a Cosmos DB account through its REST API.
+ *
+ * The readable regions and their endpoints come from the database account resource of the account endpoint. A
+ * probe reads the same resource from the endpoint of a region and measures the round trip. Connections are kept
+ * alive between probes, so only the first probe of a region includes the connection and TLS handshakes.
+ */
+public class AccountRegionProbe implements RegionProbe {
+
+    private static final String API_VERSION = "2018-12-31";
+    private static final DateTimeFormatter HTTP_DATE =
+        DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US);
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final URI accountEndpoint;
+    private final byte[] masterKey;
+    private final int timeoutMillis;
+    private final Map<String, URI> regionEndpoints = new ConcurrentHashMap<>();
+
+    /**
+     * @param accountEndpoint endpoint of the account, e.g. https://myaccount.documents.azure.com:443/.
+     * @param masterKey primary or secondary key of the account.
+     * @param timeout connect and read timeout of a request.
+     */
+    public AccountRegionProbe(URI accountEndpoint, String masterKey, Duration timeout) {
+        this.accountEndpoint = accountEndpoint;
+        this.masterKey = Base64.getDecoder().decode(masterKey);
+        this.timeoutMillis = (int) timeout.toMillis();
+    }
+
+    @Override
+    public Mono<List<String>> readableRegions() {
+        return Mono.fromCallable(() -> {
+            JsonNode account = OBJECT_MAPPER.readTree(get(accountEndpoint));
+            List<String> regions = new ArrayList<>();
+            for (JsonNode location : account.path("readableLocations")) {
+                String region = location.path("name").asText();
+                regions.add(region);
+                regionEndpoints.put(region, URI.create(location.path("databaseAccountEndpoint").asText()));
+            }
+            return regions;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Duration> probe(String region) {
+        return Mono.fromCallable(() -> {
+            URI endpoint = regionEndpoints.get(region);
+            if (endpoint == null) {
+                throw new IllegalArgumentException("Unknown region " + region + ", expected one of " + regionEndpoints.keySet());
+            }
+            long start = System.nanoTime();
+            get(endpoint);
+            return Duration.ofNanos(System.nanoTime() - start);
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private byte[] get(URI endpoint) throws IOException, GeneralSecurityException {
+        HttpURLConnection connection = (HttpURLConnection) endpoint.toURL().openConnection();
+        connection.setConnectTimeout(timeoutMillis);
+        connection.setReadTimeout(timeoutMillis);
+        String date = HTTP_DATE.format(ZonedDateTime.now(ZoneOffset.UTC));
+        connection.setRequestProperty("x-ms-date", date);
+        connection.setRequestProperty("x-ms-version", API_VERSION);
+        connection.setRequestProperty("authorization", authorization(date));
+        connection.setRequestProperty("Accept", "application/json");
+
+        int status = connection.getResponseCode();
+        //  Reading the whole body lets the connection be reused by the next request
+        try (InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            byte[] content = body == null ? new byte[0] : readAll(body);
+            if (status >= 400) {
+                throw new IOException("GET " + endpoint + " failed with status " + status);
+            }
+            return content;
+        }
+    }
+
+    //  Master key authorization of a read of the database account resource, which has no type and no id
+    private String authorization(String date) throws GeneralSecurityException, IOException {
+        String payload = "get\n\n\n" + date.toLowerCase(Locale.ROOT) + "\n\n";
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(masterKey, "HmacSHA256"));
+        String signature = Base64.getEncoder().encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        return URLEncoder.encode("type=master&ver=1.0&sig=" + signature, "UTF-8");
+    }
+
+    private static byte[] readAll(InputStream input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        for (int read; (read = input.read(buffer)) != -1; ) {
+            output.write(buffer, 0, read);
+        }
+        return output.toByteArray();
+    }
+}
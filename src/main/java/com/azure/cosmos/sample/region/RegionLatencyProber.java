@@ -0,0 +1,161 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.region;
+
+import com.azure.cosmos.sample.common.AccountSettings;
+import com.azure.cosmos.sample.common.WorkloadSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Orders the preferred regions of the clients by their measured latency.
+ *
+ * Every probe round asks the account for its readable regions, sends a few requests to each region, the regions
+ * concurrently, and records the median round trip of each region in a {@link RegionLatencyTracker}. A failed or
+ * timed out request counts as a round trip of the probe timeout, so unreachable regions move to the end. Rounds
+ * repeat in the background once started.
+ *
+ * The SDK fixes the preferred regions of a client when it is built, so a new order applies to the clients built
+ * after it was measured.
+ */
+public class RegionLatencyProber implements AutoCloseable {
+
+    protected static Logger logger = LoggerFactory.getLogger(RegionLatencyProber.class.getSimpleName());
+
+    private final RegionProbe probe;
+    private final RegionLatencyTracker tracker;
+    private final int samples;
+    private final Duration timeout;
+    private volatile List<String> preferredRegions;
+    private Disposable refresh;
+
+    /**
+     * @param probe source of the regions and their latencies.
+     * @param tracker tracker the latencies are recorded in.
+     * @param samples number of requests sent to each region per round.
+     * @param timeout latency a failed request counts as, the timeout of the probe.
+     * @param fallbackRegions preferred regions until a round completes.
+     */
+    public RegionLatencyProber(RegionProbe probe, RegionLatencyTracker tracker, int samples, Duration timeout,
+                               List<String> fallbackRegions) {
+        if (samples < 1) {
+            throw new IllegalArgumentException("samples must be positive");
+        }
+        this.probe = probe;
+        this.tracker = tracker;
+        this.samples = samples;
+        this.timeout = timeout;
+        this.preferredRegions = Collections.unmodifiableList(new ArrayList<>(fallbackRegions));
+    }
+
+    /**
+     * The preferred regions for a new client: ordered by latency with REGION_PROBING, else PREFERRED_REGIONS.
+     *
+     * The first call with REGION_PROBING probes the account once before returning, then keeps probing every
+     * REGION_PROBE_INTERVAL_SECONDS. PREFERRED_REGIONS are returned as long as no round succeeded.
+     */
+    public static List<String> preferredRegions() {
+        return WorkloadSettings.REGION_PROBING ? getDefault().getPreferredRegions() : AccountSettings.PREFERRED_REGIONS;
+    }
+
+    /**
+     * @return the process wide prober of the account of AccountSettings, configured with the REGION_* settings,
+     * closed when the JVM shuts down.
+     */
+    public static RegionLatencyProber getDefault() {
+        return DefaultHolder.PROBER;
+    }
+
+    //  Created by the initialization of the holder class on first use, which the JVM runs once
+    private static final class DefaultHolder {
+
+        private static final RegionLatencyProber PROBER = createDefault();
+
+        private static RegionLatencyProber createDefault() {
+            Duration timeout = Duration.ofMillis(WorkloadSettings.REGION_PROBE_TIMEOUT_MILLIS);
+            RegionLatencyProber prober = new RegionLatencyProber(
+                new AccountRegionProbe(URI.create(AccountSettings.HOST), AccountSettings.MASTER_KEY, timeout),
+                new RegionLatencyTracker(WorkloadSettings.REGION_LATENCY_ALPHA),
+                WorkloadSettings.REGION_PROBE_SAMPLES, timeout, AccountSettings.PREFERRED_REGIONS);
+            prober.probeOnce()
+                .onErrorResume(error -> {
+                    logger.warn("Probing the regions failed, keeping {}: {}", AccountSettings.PREFERRED_REGIONS, error.toString());
+                    return Mono.empty();
+                })
+                .block();
+            prober.start(Duration.ofSeconds(WorkloadSettings.REGION_PROBE_INTERVAL_SECONDS));
+            Runtime.getRuntime().addShutdownHook(new Thread(prober::close, "region-latency-prober-shutdown"));
+            return prober;
+        }
+    }
+
+    /**
+     * Runs one probe round.
+     *
+     * @return the readable regions ordered by latency, which become the preferred regions.
+     */
+    public Mono<List<String>> probeOnce() {
+        return probe.readableRegions()
+            .flatMap(regions -> Flux.fromIterable(regions)
+                .flatMap(this::probeRegion)
+                .then(Mono.fromCallable(() -> tracker.order(regions))))
+            .doOnNext(order -> {
+                if (!order.equals(preferredRegions)) {
+                    logger.info("Preferred regions are now {}, latencies {}", order, tracker);
+                }
+                preferredRegions = Collections.unmodifiableList(order);
+            });
+    }
+
+    private Mono<Void> probeRegion(String region) {
+        return Flux.range(0, samples)
+            .concatMap(i -> probe.probe(region)
+                .onErrorResume(error -> {
+                    logger.debug("Probe of {} failed: {}", region, error.toString());
+                    return Mono.just(timeout);
+                }))
+            .collectSortedList()
+            .doOnNext(latencies -> tracker.record(region, latencies.get(latencies.size() / 2)))
+            .then();
+    }
+
+    /**
+     * Repeats the probe rounds in the background. A failed round keeps the current order.
+     */
+    public synchronized void start(Duration interval) {
+        if (refresh == null) {
+            refresh = Flux.interval(interval, interval)
+                .concatMap(i -> probeOnce().onErrorResume(error -> {
+                    logger.warn("Probing the regions failed, keeping {}: {}", preferredRegions, error.toString());
+                    return Mono.empty();
+                }))
+                .subscribe();
+        }
+    }
+
+    public List<String> getPreferredRegions() {
+        return preferredRegions;
+    }
+
+    public RegionLatencyTracker getTracker() {
+        return tracker;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (refresh != null) {
+            refresh.dispose();
+            refresh = null;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.region;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exponentially weighted moving average of the round trip latency of every region.
+ *
+ * Each sample moves the average of its region by alpha of the difference, so a region that becomes slower or
+ * faster is reordered within a few probes, while a single outlier is smoothed out.
+ */
+public class RegionLatencyTracker {
+
+    private final double alpha;
+    private final Map<String, Double> averageNanos = new HashMap<>();
+
+    /**
+     * @param alpha weight of a new sample, between 0 (exclusive) and 1.
+     */
+    public RegionLatencyTracker(double alpha) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("alpha must be in (0, 1]");
+        }
+        this.alpha = alpha;
+    }
+
+    public synchronized void record(String region, Duration latency) {
+        averageNanos.merge(region, (double) latency.toNanos(),
+            (average, sample) -> average + alpha * (sample - average));
+    }
+
+    /**
+     * @return the average latency of the region, null if it was never recorded.
+     */
+    public synchronized Duration getAverage(String region) {
+        Double average = averageNanos.get(region);
+        return average == null ? null : Duration.ofNanos(Math.round(average));
+    }
+
+    /**
+     * Orders regions by average latency, the fastest first. Regions never recorded come last, in their given order.
+     *
+     * @param regions regions to order.
+     * @return a new list of the regions.
+     */
+    public synchronized List<String> order(List<String> regions) {
+        List<String> ordered = new ArrayList<>(regions);
+        //  Stable sort, so regions without an average keep their relative order
+        ordered.sort(Comparator.comparingDouble(region -> averageNanos.getOrDefault(region, Double.MAX_VALUE)));
+        return ordered;
+    }
+
+    @Override
+    public synchronized String toString() {
+        Map<String, String> averages = new LinkedHashMap<>();
+        for (String region : order(new ArrayList<>(averageNanos.keySet()))) {
+            averages.put(region, String.format("%.1f ms", averageNanos.get(region) / 1e6));
+        }
+        return averages.toString();
+    }
+}
@@ -0,0 +1,26 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.region;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Source of the regions of an account and of their round trip latency.
+ */
+public interface RegionProbe {
+
+    /**
+     * @return the regions the account can be read from, in the order the account lists them.
+     */
+    Mono<List<String>> readableRegions();
+
+    /**
+     * @return the round trip latency of one request to a region returned by {@link #readableRegions()}, or an
+     * error if the request failed or did not complete within the timeout of the probe.
+     */
+    Mono<Duration> probe(String region);
+}
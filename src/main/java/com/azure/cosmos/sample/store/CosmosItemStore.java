@@ -0,0 +1,81 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.store;
+
+import com.azure.cosmos.CosmosAsyncContainer;
+import com.azure.cosmos.models.CosmosBatch;
+import com.azure.cosmos.models.CosmosBatchOperationResult;
+import com.azure.cosmos.models.CosmosItemIdentity;
+import com.azure.cosmos.models.CosmosQueryRequestOptions;
+import com.azure.cosmos.models.PartitionKey;
+import com.azure.cosmos.models.SqlQuerySpec;
+import com.azure.cosmos.sample.common.QueryPlanStats;
+import com.azure.cosmos.sample.common.ReadHedging;
+import com.azure.cosmos.util.CosmosPagedFlux;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link ItemStore} backed by a Cosmos DB container.
+ *
+ * @param <T> item type.
+ */
+public class CosmosItemStore<T> implements ItemStore<T> {
+
+    private final CosmosAsyncContainer container;
+    private final Class<T> itemType;
+
+    public CosmosItemStore(CosmosAsyncContainer container, Class<T> itemType) {
+        this.container = container;
+        this.itemType = itemType;
+    }
+
+    @Override
+    public Mono<StoreResponse<T>> createItem(T item) {
+        return container.createItem(item)
+            .map(response -> new StoreResponse<>(response.getItem(), response.getStatusCode(), response.getRequestCharge(), null));
+    }
+
+    @Override
+    public Mono<StoreResponse<T>> readItem(String id, PartitionKey partitionKey) {
+        return container.readItem(id, partitionKey, ReadHedging.itemRequestOptions(), itemType)
+            .map(response -> new StoreResponse<>(response.getItem(), response.getStatusCode(), response.getRequestCharge(), null));
+    }
+
+    @Override
+    public Mono<StoreResponse<List<T>>> readMany(List<CosmosItemIdentity> identities) {
+        return container.readMany(identities, itemType)
+            .map(response -> new StoreResponse<>(response.getResults(), 200, response.getRequestCharge(), null));
+    }
+
+    @Override
+    public <R> Flux<StoreResponse<List<R>>> queryItems(SqlQuerySpec query, PartitionKey partitionKey, int pageSize, Class<R> resultType) {
+        CosmosQueryRequestOptions options = ReadHedging.apply(new CosmosQueryRequestOptions());
+        if (partitionKey != null) {
+            options.setPartitionKey(partitionKey);
+        }
+        CosmosPagedFlux<R> results = container.queryItems(query, options, resultType);
+        return QueryPlanStats.getDefault().recordFirstPage(pageSize > 0 ? results.byPage(pageSize) : results.byPage())
+            .map(page -> new StoreResponse<>(page.getResults(), 200, page.getRequestCharge(), page.getContinuationToken()));
+    }
+
+    @Override
+    public Mono<StoreResponse<List<Integer>>> createBatch(PartitionKey partitionKey, List<T> items) {
+        CosmosBatch batch = CosmosBatch.createCosmosBatch(partitionKey);
+        for (T item : items) {
+            batch.createItemOperation(item);
+        }
+        return container.executeCosmosBatch(batch)
+            .map(response -> {
+                List<Integer> statusCodes = new ArrayList<>(items.size());
+                for (CosmosBatchOperationResult result : response.getResults()) {
+                    statusCodes.add(result.getStatusCode());
+                }
+                return new StoreResponse<>(statusCodes, response.getStatusCode(), response.getRequestCharge(), null);
+            });
+    }
+}
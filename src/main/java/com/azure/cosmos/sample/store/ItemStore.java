@@ -0,0 +1,50 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.store;
+
+import com.azure.cosmos.models.CosmosItemIdentity;
+import com.azure.cosmos.models.PartitionKey;
+import com.azure.cosmos.models.SqlQuerySpec;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * The container operations the async workload uses, so it can run against a Cosmos DB container or against the
+ * in-memory stand-in of the offline package alike. The other samples still use the SDK containers directly.
+ *
+ * Failures are reported as CosmosException, with the status code, request charge and retry-after duration of the
+ * failed operation.
+ *
+ * @param <T> item type.
+ */
+public interface ItemStore<T> {
+
+    Mono<StoreResponse<T>> createItem(T item);
+
+    Mono<StoreResponse<T>> readItem(String id, PartitionKey partitionKey);
+
+    /**
+     * @return the items that exist, in no particular order.
+     */
+    Mono<StoreResponse<List<T>>> readMany(List<CosmosItemIdentity> identities);
+
+    /**
+     * @param query query to run.
+     * @param partitionKey partition to scope the query to, null to query every partition.
+     * @param pageSize maximum number of results per page, 0 for the default of the store.
+     * @param resultType type the results are mapped to.
+     * @return the pages of results.
+     */
+    <R> Flux<StoreResponse<List<R>>> queryItems(SqlQuerySpec query, PartitionKey partitionKey, int pageSize, Class<R> resultType);
+
+    /**
+     * Creates items of one partition key in one transactional batch.
+     *
+     * @return the status code of every create, in order. The batch failed as a whole when its status code is not
+     * a success one.
+     */
+    Mono<StoreResponse<List<Integer>>> createBatch(PartitionKey partitionKey, List<T> items);
+}
@@ -0,0 +1,47 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.store;
+
+/**
+ * Outcome of an {@link ItemStore} operation.
+ *
+ * @param <T> type of the returned value.
+ */
+public class StoreResponse<T> {
+
+    private final T value;
+    private final int statusCode;
+    private final double requestCharge;
+    private final String continuationToken;
+
+    public StoreResponse(T value, int statusCode, double requestCharge, String continuationToken) {
+        this.value = value;
+        this.statusCode = statusCode;
+        this.requestCharge = requestCharge;
+        this.continuationToken = continuationToken;
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public boolean isSuccessStatusCode() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    public double getRequestCharge() {
+        return requestCharge;
+    }
+
+    /**
+     * @return continuation token of a query page, null for the last page and for other operations.
+     */
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+}
@@ -0,0 +1,64 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.sync;
+
+import com.azure.cosmos.models.FeedResponse;
+import com.azure.cosmos.sample.common.AdaptivePageSizer;
+import com.azure.cosmos.util.CosmosPagedIterable;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Reads the pages of a query with the page size an {@link AdaptivePageSizer} picks.
+ *
+ * The pages are read through one iterator over the query, so the SDK keeps its query pipeline and the pages it
+ * already prefetched. The page size of an iterator is fixed, so once the sizer picks a page size that differs
+ * enough from it, see {@link AdaptivePageSizer#shouldResize(int)}, the iterator is closed and the query resumes
+ * with the new page size from the continuation token of the last page handled.
+ */
+public class AdaptivePageReader {
+
+    private final AdaptivePageSizer sizer;
+
+    public AdaptivePageReader(AdaptivePageSizer sizer) {
+        this.sizer = sizer;
+    }
+
+    /**
+     * Reads all the pages of a query.
+     *
+     * @param query query to read.
+     * @param consumer handles every page before the next one is requested.
+     * @param <T> item type.
+     * @return the sizer, with the page sizes it picked and the throughput of the query.
+     */
+    public <T> AdaptivePageSizer readAll(CosmosPagedIterable<T> query, Consumer<FeedResponse<T>> consumer) {
+        String continuation = null;
+        boolean resize;
+        do {
+            int pageSize = sizer.getPageSize();
+            resize = false;
+            //  Closing the stream cancels the query, including the pages it prefetched
+            try (Stream<FeedResponse<T>> pages = continuation == null
+                    ? query.streamByPage(pageSize)
+                    : query.streamByPage(continuation, pageSize)) {
+                Iterator<FeedResponse<T>> iterator = pages.iterator();
+                long requested = System.nanoTime();
+                while (!resize && iterator.hasNext()) {
+                    FeedResponse<T> page = iterator.next();
+                    long fetched = System.nanoTime();
+                    consumer.accept(page);
+                    sizer.observe(pageSize, page.getResults().size(), page.getRequestCharge(),
+                        fetched - requested, System.nanoTime() - fetched);
+                    requested = System.nanoTime();
+                    continuation = page.getContinuationToken();
+                    resize = continuation != null && sizer.shouldResize(pageSize);
+                }
+            }
+        } while (resize);
+        return sizer;
+    }
+}
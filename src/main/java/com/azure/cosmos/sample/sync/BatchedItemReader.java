@@ -0,0 +1,80 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.sync;
+
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.models.CosmosItemIdentity;
+import com.azure.cosmos.models.FeedResponse;
+import com.azure.cosmos.sample.common.ReadManyBatches;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+
+/**
+ * Reads many items with a few concurrent readMany calls instead of one readItem call per item.
+ *
+ * Chunks after the first one run on the given executor, whose size bounds the number of readMany calls in flight.
+ *
+ * @param <T> item type.
+ */
+public class BatchedItemReader<T> {
+
+    private final CosmosContainer container;
+    private final Class<T> itemType;
+    private final Function<T, CosmosItemIdentity> identityOf;
+    private final int chunkSize;
+    private final ExecutorService executor;
+
+    /**
+     * @param identityOf extracts the identity of a read item, to put the results back into input order.
+     * @param chunkSize maximum number of items per readMany call.
+     * @param executor runs the readMany calls.
+     */
+    public BatchedItemReader(CosmosContainer container, Class<T> itemType, Function<T, CosmosItemIdentity> identityOf,
+                             int chunkSize, ExecutorService executor) {
+        this.container = container;
+        this.itemType = itemType;
+        this.identityOf = identityOf;
+        this.chunkSize = chunkSize;
+        this.executor = executor;
+    }
+
+    public ReadManyBatches.Result<T> readItems(List<CosmosItemIdentity> identities) {
+        List<List<CosmosItemIdentity>> chunks = ReadManyBatches.chunk(identities, chunkSize);
+        List<CompletableFuture<FeedResponse<T>>> pending = new ArrayList<>(chunks.size());
+        for (int i = 1; i < chunks.size(); i++) {
+            List<CosmosItemIdentity> chunk = chunks.get(i);
+            pending.add(CompletableFuture.supplyAsync(() -> container.readMany(chunk, itemType), executor));
+        }
+
+        List<FeedResponse<T>> responses = new ArrayList<>(chunks.size());
+        try {
+            //  The calling thread reads the first chunk itself
+            if (!chunks.isEmpty()) {
+                responses.add(container.readMany(chunks.get(0), itemType));
+            }
+            for (CompletableFuture<FeedResponse<T>> response : pending) {
+                responses.add(response.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+
+        List<T> items = new ArrayList<>(identities.size());
+        double requestCharge = 0;
+        for (FeedResponse<T> response : responses) {
+            items.addAll(response.getResults());
+            requestCharge += response.getRequestCharge();
+        }
+        return new ReadManyBatches.Result<>(ReadManyBatches.inInputOrder(identities, items, identityOf),
+            requestCharge, chunks.size());
+    }
+}
@@ -0,0 +1,147 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.sync;
+
+import com.azure.cosmos.CosmosException;
+import com.azure.cosmos.models.CosmosItemResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.function.Function;
+
+/**
+ * Runs one blocking client call per input concurrently and aggregates request charges and errors.
+ *
+ * The calls stay as simple as in the serial loops of SyncMain, they only run on the given executor. A semaphore
+ * caps the calls in flight, which matters for a virtual thread executor: it would otherwise start a thread, and
+ * a request, for every input at once. Failed calls are logged and counted, they do not stop the others.
+ */
+public class ConcurrentOperations {
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+
+    protected static Logger logger = LoggerFactory.getLogger(ConcurrentOperations.class.getSimpleName());
+
+    /**
+     * @param executor runs the calls.
+     * @param maxConcurrency maximum number of calls in flight.
+     */
+    public ConcurrentOperations(ExecutorService executor, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be positive");
+        }
+        this.executor = executor;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    /**
+     * Calls the operation for every input and waits for all calls to complete.
+     *
+     * @param operationName name used in the error log, e.g. "Create item".
+     * @param inputs inputs of the calls.
+     * @param operation blocking client call.
+     * @param <T> input type.
+     * @return the aggregated outcome.
+     * @throws InterruptedException if interrupted while waiting for a permit or for the calls.
+     */
+    public <T> Result run(String operationName, List<T> inputs, Function<T, CosmosItemResponse<?>> operation)
+        throws InterruptedException {
+        Result result = new Result();
+        List<Future<?>> pending = new ArrayList<>(inputs.size());
+        long start = System.nanoTime();
+
+        for (T input : inputs) {
+            //  Waiting here rather than in the task keeps at most maxConcurrency tasks, and threads, alive
+            permits.acquire();
+            try {
+                pending.add(executor.submit(() -> {
+                    try {
+                        result.onSuccess(operation.apply(input));
+                    } catch (CosmosException e) {
+                        logger.error("{} failed with", operationName, e);
+                        result.onError(e, e.getRequestCharge());
+                    } catch (RuntimeException e) {
+                        logger.error("{} failed with", operationName, e);
+                        result.onError(e, 0);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        for (Future<?> future : pending) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                //  Tasks catch their own failures, this is an Error
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    /**
+     * Aggregated outcome of the calls.
+     */
+    public static class Result {
+        private final AtomicLong succeeded = new AtomicLong();
+        private final DoubleAdder requestCharge = new DoubleAdder();
+        private final List<Exception> errors = Collections.synchronizedList(new ArrayList<>());
+        private volatile long elapsedNanos;
+
+        private void onSuccess(CosmosItemResponse<?> response) {
+            succeeded.incrementAndGet();
+            requestCharge.add(response.getRequestCharge());
+        }
+
+        private void onError(Exception error, double charge) {
+            errors.add(error);
+            requestCharge.add(charge);
+        }
+
+        public long getSucceeded() {
+            return succeeded.get();
+        }
+
+        public long getFailed() {
+            return errors.size();
+        }
+
+        public List<Exception> getErrors() {
+            synchronized (errors) {
+                return new ArrayList<>(errors);
+            }
+        }
+
+        public double getRequestCharge() {
+            return requestCharge.sum();
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * @return completed calls, failed ones included, per second.
+         */
+        public double getOperationsPerSecond() {
+            return elapsedNanos > 0 ? (getSucceeded() + getFailed()) * 1e9 / elapsedNanos : 0;
+        }
+    }
+}
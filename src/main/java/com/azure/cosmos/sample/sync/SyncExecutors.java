@@ -0,0 +1,38 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.sync;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates the executors the blocking client calls are fanned out on.
+ */
+public final class SyncExecutors {
+
+    private static final String VIRTUAL_THREAD_EXECUTORS = "com.azure.cosmos.sample.sync.VirtualThreadExecutors";
+
+    private SyncExecutors() {
+    }
+
+    /**
+     * @param virtualThreads run every task on a new virtual thread instead of a fixed pool of platform threads.
+     *                       Needs a build with the java21 profile and a Java 21 runtime.
+     * @param concurrency number of platform threads, not used for virtual threads.
+     * @return the executor.
+     */
+    public static ExecutorService newExecutor(boolean virtualThreads, int concurrency) {
+        if (!virtualThreads) {
+            return Executors.newFixedThreadPool(concurrency);
+        }
+        try {
+            return (ExecutorService) Class.forName(VIRTUAL_THREAD_EXECUTORS).getMethod("newExecutor").invoke(null);
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("Virtual threads need a build with -Pjava21", e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Virtual threads need a Java 21 runtime", e.getCause());
+        }
+    }
+}
@@ -12,20 +12,44 @@ import com.azure.cosmos.CosmosException;
 import com.azure.cosmos.models.CosmosContainerProperties;
 import com.azure.cosmos.models.CosmosContainerResponse;
 import com.azure.cosmos.models.CosmosDatabaseResponse;
+import com.azure.cosmos.models.CosmosItemIdentity;
 import com.azure.cosmos.models.CosmosItemRequestOptions;
 import com.azure.cosmos.models.CosmosItemResponse;
 import com.azure.cosmos.models.PartitionKey;
 import com.azure.cosmos.models.CosmosQueryRequestOptions;
+import com.azure.cosmos.models.SqlParameter;
+import com.azure.cosmos.models.SqlQuerySpec;
 import com.azure.cosmos.models.ThroughputProperties;
 import com.azure.cosmos.sample.common.AccountSettings;
+import com.azure.cosmos.sample.common.AdaptivePageSizer;
+import com.azure.cosmos.sample.common.CachedItemResponse;
+import com.azure.cosmos.sample.common.ConnectionProfile;
+import com.azure.cosmos.sample.common.ContainerMetadataCache;
 import com.azure.cosmos.sample.common.Families;
 import com.azure.cosmos.sample.common.Family;
+import com.azure.cosmos.sample.common.FamilyItemSerializer;
+import com.azure.cosmos.sample.common.FamilyJsonCodec;
+import com.azure.cosmos.sample.common.FamilyProjection;
+import com.azure.cosmos.sample.common.ItemCache;
+import com.azure.cosmos.sample.common.ParameterizedQueries;
+import com.azure.cosmos.sample.common.QueryPlanStats;
+import com.azure.cosmos.sample.common.ReadHedging;
+import com.azure.cosmos.sample.common.ReadManyBatches;
+import com.azure.cosmos.sample.common.StartupWarmup;
+import com.azure.cosmos.sample.common.WorkloadSettings;
+import com.azure.cosmos.sample.metrics.CosmosMetrics;
+import com.azure.cosmos.sample.metrics.HedgingStats;
+import com.azure.cosmos.sample.metrics.StartupMetrics;
+import com.azure.cosmos.sample.region.RegionLatencyProber;
 import com.azure.cosmos.util.CosmosPagedIterable;
 
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -41,9 +65,23 @@ public class SyncMain {
     private CosmosDatabase database;
     private CosmosContainer container;
 
+    private CachingItemReader<Family> itemReader;
+
+    private ExecutorService executor;
+    private ConcurrentOperations concurrentOperations;
+
     protected static Logger logger = LoggerFactory.getLogger(SyncMain.class.getSimpleName());
 
     public void close() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+        if (WorkloadSettings.METRICS_ENABLED) {
+            CosmosMetrics.logSummary(logger);
+        }
+        if (ReadHedging.isEnabled()) {
+            logger.info("Hedging {}", HedgingStats.getDefault());
+        }
         client.close();
     }
 
@@ -73,22 +111,55 @@ public class SyncMain {
 
     private void getStartedDemo() throws Exception {
         logger.info("Using Azure Cosmos DB endpoint: {}", AccountSettings.HOST);
+        StartupMetrics.getDefault().start();
 
         //  Create sync client
         //  <CreateSyncClient>
-        client = new CosmosClientBuilder()
+        CosmosClientBuilder clientBuilder = new CosmosClientBuilder()
             .endpoint(AccountSettings.HOST)
             .key(AccountSettings.MASTER_KEY)
             //  Setting the preferred location to Cosmos DB Account region
-            //  West US is just an example. User should set preferred location to the Cosmos DB region closest to the application
-            .preferredRegions(Collections.singletonList("West US"))
-            .consistencyLevel(ConsistencyLevel.EVENTUAL)
-            .buildClient();
+            //  PREFERRED_REGIONS defaults to West US, just an example. User should set the Cosmos DB regions closest to the application
+            //  With REGION_PROBING the readable regions of the account are ordered by measured latency instead
+            .preferredRegions(RegionLatencyProber.preferredRegions())
+            .consistencyLevel(ConsistencyLevel.EVENTUAL);
+
+        //  Connection mode and pool settings, the SDK defaults unless CLIENT_PROFILE names another profile
+        ConnectionProfile.fromSettings().apply(clientBuilder);
+
+        if (WorkloadSettings.CUSTOM_SERIALIZER) {
+            //  Convert Family items by hand instead of through reflective databinding
+            clientBuilder.customItemSerializer(new FamilyItemSerializer());
+        }
+
+        if (WorkloadSettings.STARTUP_WARMUP) {
+            //  Open the connections to the container and load its metadata while the client is built
+            clientBuilder.openConnectionsAndInitCaches(StartupWarmup.proactiveInitConfig(databaseName, containerName));
+        }
+
+        //  Record the time to the first successful operation, metrics of every operation and the diagnostics of
+        //  slow ones, and count hedged reads
+        clientBuilder.clientTelemetryConfig(CosmosMetrics.applicationTelemetryConfigFromSettings());
+
+        client = clientBuilder.buildClient();
+        StartupMetrics.getDefault().phase("client");
 
         //  </CreateSyncClient>
 
-        createDatabaseIfNotExists();
-        createContainerIfNotExists();
+        ContainerMetadataCache metadataCache = ContainerMetadataCache.getDefault();
+        if (WorkloadSettings.STARTUP_WARMUP && metadataCache.getPartitionKeyPath(databaseName, containerName) != null) {
+            //  An earlier run created the database and container, skip the create-if-not-exists round trips
+            database = client.getDatabase(databaseName);
+            container = database.getContainer(containerName);
+            logger.info("Using container {} known from {}", containerName, WorkloadSettings.STARTUP_METADATA_FILE);
+        } else {
+            createDatabaseIfNotExists();
+            createContainerIfNotExists();
+            if (WorkloadSettings.STARTUP_WARMUP) {
+                metadataCache.remember(databaseName, containerName, "/lastName");
+            }
+        }
+        StartupMetrics.getDefault().phase("database and container");
 
         //  Setup family items to create
         ArrayList<Family> familiesToCreate = new ArrayList<>();
@@ -97,13 +168,34 @@ public class SyncMain {
         familiesToCreate.add(Families.getJohnsonFamilyItem());
         familiesToCreate.add(Families.getSmithFamilyItem());
 
-        createFamilies(familiesToCreate);
+        if (WorkloadSettings.SYNC_CONCURRENCY > 1) {
+            //  Fan the blocking calls out, on virtual threads if asked to
+            executor = SyncExecutors.newExecutor(WorkloadSettings.SYNC_VIRTUAL_THREADS, WorkloadSettings.SYNC_CONCURRENCY);
+            concurrentOperations = new ConcurrentOperations(executor, WorkloadSettings.SYNC_CONCURRENCY);
+            createFamiliesConcurrently(familiesToCreate);
+        } else {
+            createFamilies(familiesToCreate);
+        }
 
         logger.info("Reading items.");
-        readItems(familiesToCreate);
+        if (WorkloadSettings.READ_MANY_CHUNK_SIZE > 0) {
+            readItemsBatched(familiesToCreate);
+        } else if (concurrentOperations != null) {
+            readItemsConcurrently(familiesToCreate);
+        } else if (WorkloadSettings.ITEM_CACHE_MAX_BYTES > 0) {
+            readItemsCached(familiesToCreate);
+        } else {
+            readItems(familiesToCreate);
+        }
 
         logger.info("Querying items.");
-        queryItems();
+        if (WorkloadSettings.QUERY_PROJECTION) {
+            queryItemIds();
+        } else if (WorkloadSettings.QUERY_ADAPTIVE_PAGING) {
+            queryItemsAdaptively();
+        } else {
+            queryItems();
+        }
     }
 
     private void createDatabaseIfNotExists() throws Exception {
@@ -158,13 +250,35 @@ public class SyncMain {
             totalRequestCharge);
     }
 
+    private void createFamiliesConcurrently(List<Family> families) throws Exception {
+        //  <CreateItemsConcurrently>
+        ConcurrentOperations.Result result = concurrentOperations.run("Create item", families,
+            family -> container.createItem(family, new PartitionKey(family.getLastName()), new CosmosItemRequestOptions()));
+        //  </CreateItemsConcurrently>
+
+        logger.info("Created {} items ({} failed) with total request charge of {} at {} items/s",
+            result.getSucceeded(), result.getFailed(), result.getRequestCharge(),
+            String.format("%.1f", result.getOperationsPerSecond()));
+    }
+
+    private void readItemsConcurrently(List<Family> families) throws Exception {
+        //  <ReadItemsConcurrently>
+        ConcurrentOperations.Result result = concurrentOperations.run("Read item", families,
+            family -> container.readItem(family.getId(), new PartitionKey(family.getLastName()), ReadHedging.itemRequestOptions(), Family.class));
+        //  </ReadItemsConcurrently>
+
+        logger.info("Read {} items ({} failed) with total request charge of {} at {} items/s",
+            result.getSucceeded(), result.getFailed(), result.getRequestCharge(),
+            String.format("%.1f", result.getOperationsPerSecond()));
+    }
+
     private void readItems(ArrayList<Family> familiesToCreate) {
         //  Using partition key for point read scenarios.
         //  This will help fast look up of items because of partition key
         familiesToCreate.forEach(family -> {
             //  <ReadItem>
             try {
-                CosmosItemResponse<Family> item = container.readItem(family.getId(), new PartitionKey(family.getLastName()), Family.class);
+                CosmosItemResponse<Family> item = container.readItem(family.getId(), new PartitionKey(family.getLastName()), ReadHedging.itemRequestOptions(), Family.class);
                 double requestCharge = item.getRequestCharge();
                 Duration requestLatency = item.getDuration();
                 logger.info("Item successfully read with id {} with a charge of {} and within duration {}",
@@ -176,18 +290,63 @@ public class SyncMain {
         });
     }
 
+    private void readItemsBatched(List<Family> families) {
+        //  <ReadManyItems>
+        List<CosmosItemIdentity> identities = families.stream()
+            .map(ReadManyBatches::identityOf)
+            .collect(Collectors.toList());
+
+        ExecutorService executor = Executors.newFixedThreadPool(WorkloadSettings.READ_MANY_CONCURRENCY);
+        try {
+            BatchedItemReader<Family> reader = new BatchedItemReader<>(container, Family.class,
+                ReadManyBatches::identityOf, WorkloadSettings.READ_MANY_CHUNK_SIZE, executor);
+            ReadManyBatches.Result<Family> result = reader.readItems(identities);
+            logger.info("Read {} items with {} readMany requests and total request charge of {}",
+                identities.size(), result.getRequestCount(), result.getRequestCharge());
+            logger.info("Item Ids {}", result.getItems().stream()
+                .map(family -> family != null ? family.getId() : null)
+                .collect(Collectors.toList()));
+        } catch (CosmosException e) {
+            logger.error("Read Many failed with", e);
+        } finally {
+            executor.shutdown();
+        }
+        //  </ReadManyItems>
+    }
+
+    private void readItemsCached(ArrayList<Family> familiesToCreate) {
+        if (itemReader == null) {
+            //  Cache weighs items by the size of their JSON
+            ItemCache<Family> cache = new ItemCache<>(WorkloadSettings.ITEM_CACHE_MAX_BYTES,
+                WorkloadSettings.ITEM_CACHE_TTL_SECONDS, TimeUnit.SECONDS, family -> FamilyJsonCodec.toBytes(family).length);
+            itemReader = new CachingItemReader<>(container, cache, Family.class, WorkloadSettings.ITEM_CACHE_REVALIDATE);
+        }
+
+        familiesToCreate.forEach(family -> {
+            //  <ReadItemCached>
+            try {
+                CachedItemResponse<Family> item = itemReader.readItem(family.getId(), family.getLastName());
+                logger.info("Item successfully read from {} with id {} with a charge of {} and within duration {}",
+                    item.getSource(), item.getItem().getId(), item.getRequestCharge(), item.getDuration());
+            } catch (CosmosException e) {
+                logger.error("Read Item failed with", e);
+            }
+            //  </ReadItemCached>
+        });
+        logger.info("Item cache {}", itemReader.getCache());
+    }
+
     private void queryItems() {
         //  <QueryItems>
         // Set some common query options
-        CosmosQueryRequestOptions queryOptions = new CosmosQueryRequestOptions();
+        CosmosQueryRequestOptions queryOptions = ReadHedging.apply(new CosmosQueryRequestOptions());
         //queryOptions.setEnableCrossPartitionQuery(true); //No longer necessary in SDK v4
         //  Set query metrics enabled to get metrics around query executions
         queryOptions.setQueryMetricsEnabled(true);
 
-        CosmosPagedIterable<Family> familiesPagedIterable = container.queryItems(
-            "SELECT * FROM Family WHERE Family.lastName IN ('Andersen', 'Wakefield', 'Johnson')", queryOptions, Family.class);
+        CosmosPagedIterable<Family> familiesPagedIterable = container.queryItems(familiesByLastNameQuery(), queryOptions, Family.class);
 
-        familiesPagedIterable.iterableByPage(10).forEach(cosmosItemPropertiesFeedResponse -> {
+        familiesPagedIterable.iterableByPage(10).forEach(QueryPlanStats.getDefault().recordFirstPage(cosmosItemPropertiesFeedResponse -> {
             logger.info("Got a page of query result with {} items(s) and request charge of {}",
                     cosmosItemPropertiesFeedResponse.getResults().size(), cosmosItemPropertiesFeedResponse.getRequestCharge());
 
@@ -196,7 +355,58 @@ public class SyncMain {
                 .stream()
                 .map(Family::getId)
                 .collect(Collectors.toList()));
-        });
+        }));
+        //  The names span partitions, so the SDK fetches the query plan from the gateway on every run
+        logger.info("Query plans {}", QueryPlanStats.getDefault());
         //  </QueryItems>
     }
+
+    private void queryItemsAdaptively() {
+        //  <QueryItemsAdaptively>
+        CosmosQueryRequestOptions queryOptions = ReadHedging.apply(new CosmosQueryRequestOptions());
+
+        CosmosPagedIterable<Family> familiesPagedIterable = container.queryItems(familiesByLastNameQuery(), queryOptions, Family.class);
+
+        //  Pages start small for a quick first result and grow while they arrive within the target latency
+        AdaptivePageSizer sizer = new AdaptivePageReader(AdaptivePageSizer.fromSettings())
+            .readAll(familiesPagedIterable, QueryPlanStats.getDefault().recordFirstPage(cosmosItemPropertiesFeedResponse ->
+                logger.info("Got a page of query result with {} items(s) and request charge of {}",
+                    cosmosItemPropertiesFeedResponse.getResults().size(), cosmosItemPropertiesFeedResponse.getRequestCharge())));
+
+        logger.info("Adaptive paging {}", sizer);
+        logger.info("Query plans {}", QueryPlanStats.getDefault());
+        //  </QueryItemsAdaptively>
+    }
+
+    private SqlQuerySpec familiesByLastNameQuery() {
+        //  The names are parameters, so every set of names shares one query text
+        return ParameterizedQueries.bind(
+            "SELECT * FROM Family f WHERE f.lastName IN (@lastName1, @lastName2, @lastName3)",
+            Arrays.asList(new SqlParameter("@lastName1", "Andersen"),
+                new SqlParameter("@lastName2", "Wakefield"),
+                new SqlParameter("@lastName3", "Johnson")));
+    }
+
+    private void queryItemIds() {
+        //  <QueryItemIds>
+        CosmosQueryRequestOptions queryOptions = ReadHedging.apply(new CosmosQueryRequestOptions());
+        queryOptions.setQueryMetricsEnabled(true);
+
+        //  Only the ids are sent back and deserialized, not the whole families
+        SqlQuerySpec querySpec = FamilyProjection.ID.query("f.lastName IN (@lastName1, @lastName2, @lastName3)",
+            Arrays.asList(new SqlParameter("@lastName1", "Andersen"),
+                new SqlParameter("@lastName2", "Wakefield"),
+                new SqlParameter("@lastName3", "Johnson")));
+
+        CosmosPagedIterable<String> idsPagedIterable = container.queryItems(querySpec, queryOptions, String.class);
+
+        idsPagedIterable.iterableByPage(10).forEach(QueryPlanStats.getDefault().recordFirstPage(idsFeedResponse -> {
+            logger.info("Got a page of query result with {} items(s) and request charge of {}",
+                    idsFeedResponse.getResults().size(), idsFeedResponse.getRequestCharge());
+
+            logger.info("Item Ids {}", idsFeedResponse.getResults());
+        }));
+        logger.info("Query plans {}", QueryPlanStats.getDefault());
+        //  </QueryItemIds>
+    }
 }
@@ -28,7 +28,6 @@ import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -83,8 +82,8 @@ public class SyncPasswordlessMain {
             .endpoint(AccountSettings.HOST)
             .credential(credential)
             //  Setting the preferred location to Cosmos DB Account region
-            //  West US is just an example. User should set preferred location to the Cosmos DB region closest to the application
-            .preferredRegions(Collections.singletonList("West US"))
+            //  PREFERRED_REGIONS defaults to West US, just an example. User should set the Cosmos DB regions closest to the application
+            .preferredRegions(AccountSettings.PREFERRED_REGIONS)
             .consistencyLevel(ConsistencyLevel.EVENTUAL)
             .buildClient();
 
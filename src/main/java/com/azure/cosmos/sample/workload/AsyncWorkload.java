@@ -0,0 +1,91 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.workload;
+
+import com.azure.cosmos.sample.common.Family;
+import com.azure.cosmos.sample.common.WorkloadSettings;
+import com.azure.cosmos.sample.store.ItemStore;
+import com.azure.cosmos.sample.store.StoreResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives a workload through the reactive CosmosAsyncClient, with a bounded number of operations in flight.
+ *
+ * The operations go through an {@link ItemStore}, so the same workload runs against a container or offline against
+ * an in-memory one.
+ */
+public class AsyncWorkload {
+
+    private final ItemStore<Family> store;
+    private final WorkloadData data;
+    private final OperationMix mix;
+
+    AsyncWorkload(ItemStore<Family> store, WorkloadData data, OperationMix mix) {
+        this.store = store;
+        this.data = data;
+        this.mix = mix;
+    }
+
+    public void run(int concurrency, double operationsPerSecond, long durationSeconds, OperationStats stats) {
+        Pacer pacer = new Pacer(operationsPerSecond);
+        long deadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        stats.start();
+        //  flatMap only requests a new start time when one of the in-flight operations completes
+        Flux.<Long>generate(sink -> sink.next(pacer.nextIntendedStartNanos()))
+            .takeWhile(startNanos -> startNanos < deadlineNanos)
+            .flatMap(startNanos -> {
+                long waitNanos = startNanos - System.nanoTime();
+                Mono<Void> operation = execute(mix.next(), startNanos, stats);
+                return waitNanos > 0 ? Mono.delay(Duration.ofNanos(waitNanos)).then(operation) : operation;
+            }, concurrency)
+            .then()
+            .block();
+        stats.stop();
+    }
+
+    private Mono<Void> execute(OperationType type, long startNanos, OperationStats stats) {
+        return requestCharge(type)
+            .doOnNext(requestCharge -> stats.recordSuccess(type, startNanos, requestCharge))
+            .doOnError(error -> stats.recordFailure(type, startNanos, error))
+            .onErrorResume(error -> Mono.empty())
+            .then();
+    }
+
+    private Mono<Double> requestCharge(OperationType type) {
+        //  Deferred so the item is picked when the operation starts, not when it is scheduled
+        return Mono.defer(() -> {
+            switch (type) {
+                case CREATE:
+                    return store.createItem(data.newFamily())
+                        .map(StoreResponse::getRequestCharge);
+                case READ:
+                    Family family = data.existingFamily();
+                    return store.readItem(family.getId(), WorkloadData.partitionKey(family))
+                        .map(StoreResponse::getRequestCharge);
+                case QUERY:
+                    Family queried = data.existingFamily();
+                    return store.queryItems(WorkloadData.lastNameQuery(queried), WorkloadData.partitionKey(queried), 0, Family.class)
+                        .map(StoreResponse::getRequestCharge)
+                        .reduce(0.0, Double::sum);
+                case READ_MANY:
+                    return store.readMany(data.existingIdentities(WorkloadSettings.WORKLOAD_READ_MANY_SIZE))
+                        .map(StoreResponse::getRequestCharge);
+                case BATCH:
+                    List<Family> families = data.newFamilies(WorkloadSettings.WORKLOAD_BATCH_SIZE);
+                    return store.createBatch(WorkloadData.partitionKey(families.get(0)), families)
+                        .flatMap(response -> response.isSuccessStatusCode()
+                            ? Mono.just(response.getRequestCharge())
+                            : Mono.error(new IllegalStateException("Batch failed with status " + response.getStatusCode())));
+                default:
+                    return Mono.error(new IllegalArgumentException("Unsupported operation " + type));
+            }
+        });
+    }
+}
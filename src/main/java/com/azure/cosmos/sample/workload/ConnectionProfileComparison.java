@@ -0,0 +1,141 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.workload;
+
+import com.azure.cosmos.CosmosAsyncClient;
+import com.azure.cosmos.CosmosAsyncContainer;
+import com.azure.cosmos.sample.common.ClientBuilderFactory;
+import com.azure.cosmos.sample.common.ConnectionProfile;
+import com.azure.cosmos.sample.common.Family;
+import com.azure.cosmos.sample.common.FamilyGenerator;
+import com.azure.cosmos.sample.common.WorkloadSettings;
+import com.azure.cosmos.sample.store.CosmosItemStore;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the same async workload with a client of every {@link ConnectionProfile}, one after the other, and reports
+ * which profile had the highest throughput and which the lowest p99 latency.
+ *
+ * Throughput counts successful operations only, and latencies are those of successful operations, so a profile
+ * whose requests fail fast, e.g. when throttled, cannot win on latency. The errors of the winners are reported
+ * next to them.
+ *
+ * Every profile gets a client of its own, warmed up by an unmeasured run, so connections and caches of one profile
+ * do not favor the next. Configured with the WORKLOAD_* settings; leave WORKLOAD_TARGET_RATE at 0 to compare
+ * maximum throughput, or set it to compare latencies at the same load. The profiles to compare and the warm-up
+ * duration are passed as arguments:
+ * mvn exec:java@connection-profile-comparison -Dexec.args="[profile,profile,...] [warm-up seconds]"
+ */
+public class ConnectionProfileComparison {
+
+    protected static Logger logger = LoggerFactory.getLogger(ConnectionProfileComparison.class.getSimpleName());
+
+    public static void main(String[] args) {
+        List<ConnectionProfile> profiles = new ArrayList<>();
+        if (args.length > 0) {
+            for (String name : args[0].split(",")) {
+                profiles.add(ConnectionProfile.fromName(name));
+            }
+        } else {
+            profiles.addAll(Arrays.asList(ConnectionProfile.values()));
+        }
+        long warmupSeconds = args.length > 1 ? Long.parseLong(args[1]) : 10;
+
+        try {
+            OperationMix mix = new OperationMix(WorkloadSettings.WORKLOAD_MIX);
+            WorkloadData data = new WorkloadData(new FamilyGenerator(WorkloadSettings.WORKLOAD_SEED,
+                WorkloadSettings.WORKLOAD_PRELOAD_COUNT, WorkloadSettings.WORKLOAD_LAST_NAME_COUNT, WorkloadSettings.WORKLOAD_SKEW));
+            try (CosmosAsyncClient client = ClientBuilderFactory.newClientBuilder(ConnectionProfile.DEFAULT).buildAsyncClient()) {
+                WorkloadMain.preload(WorkloadMain.createContainerIfNotExists(client), data);
+            }
+
+            logger.info("Running mix {} with concurrency {}, target rate {} ops/s for {} s per profile, after {} s of warm-up",
+                mix, WorkloadSettings.WORKLOAD_CONCURRENCY, WorkloadSettings.WORKLOAD_TARGET_RATE,
+                WorkloadSettings.WORKLOAD_DURATION_SECONDS, warmupSeconds);
+            List<Result> results = new ArrayList<>();
+            for (ConnectionProfile profile : profiles) {
+                results.add(run(profile, data, mix, warmupSeconds));
+            }
+            report(results);
+        } catch (Exception e) {
+            logger.error("Comparison failed with", e);
+        }
+        System.exit(0);
+    }
+
+    private static Result run(ConnectionProfile profile, WorkloadData data, OperationMix mix, long warmupSeconds) {
+        try (CosmosAsyncClient client = ClientBuilderFactory.newClientBuilder(profile).buildAsyncClient()) {
+            CosmosAsyncContainer container = client.getDatabase(WorkloadMain.DATABASE_NAME).getContainer(WorkloadMain.CONTAINER_NAME);
+            AsyncWorkload workload = new AsyncWorkload(new CosmosItemStore<>(container, Family.class), data, mix);
+
+            logger.info("Warming up {}", profile);
+            workload.run(WorkloadSettings.WORKLOAD_CONCURRENCY, WorkloadSettings.WORKLOAD_TARGET_RATE, warmupSeconds,
+                new OperationStats(profile + "-warmup"));
+
+            OperationStats stats = new OperationStats(profile.getProfileName());
+            workload.run(WorkloadSettings.WORKLOAD_CONCURRENCY, WorkloadSettings.WORKLOAD_TARGET_RATE,
+                WorkloadSettings.WORKLOAD_DURATION_SECONDS, stats);
+            stats.logReport();
+            return new Result(profile, stats);
+        }
+    }
+
+    private static void report(List<Result> results) {
+        logger.info(String.format("%-20s %10s %8s %8s %8s", "profile", "ok ops/s", "ok p50", "ok p99", "errors"));
+        Result fastest = null;
+        Result steadiest = null;
+        for (Result result : results) {
+            logger.info(String.format("%-20s %10.1f %8.2f %8.2f %8d", result.profile, result.throughput,
+                result.latencies.getValueAtPercentile(50) / 1000.0, result.p99Millis(), result.errors));
+            if (fastest == null || result.throughput > fastest.throughput) {
+                fastest = result;
+            }
+            if (result.latencies.getTotalCount() > 0 && (steadiest == null || result.p99Millis() < steadiest.p99Millis())) {
+                steadiest = result;
+            }
+        }
+        if (fastest != null) {
+            logger.info("Highest throughput: {} with {} successful ops/s, {} errors", fastest.profile,
+                String.format("%.1f", fastest.throughput), fastest.errors);
+        }
+        if (steadiest != null) {
+            logger.info("Lowest p99 latency: {} with {} ms, {} errors", steadiest.profile,
+                String.format("%.2f", steadiest.p99Millis()), steadiest.errors);
+        }
+    }
+
+    /**
+     * Throughput and latency of the successful operations of one profile, across all operation types.
+     */
+    private static class Result {
+
+        private final ConnectionProfile profile;
+        private final Histogram latencies = new Histogram(3);
+        private final double throughput;
+        private final long errors;
+
+        Result(ConnectionProfile profile, OperationStats stats) {
+            this.profile = profile;
+            long count = 0;
+            long errorCount = 0;
+            for (OperationType type : OperationType.values()) {
+                latencies.add(stats.getSuccessHistogram(type));
+                count += stats.getSuccessHistogram(type).getTotalCount();
+                errorCount += stats.getErrorCount(type);
+            }
+            this.errors = errorCount;
+            this.throughput = count / stats.getElapsedSeconds();
+        }
+
+        double p99Millis() {
+            return latencies.getValueAtPercentile(99) / 1000.0;
+        }
+    }
+}
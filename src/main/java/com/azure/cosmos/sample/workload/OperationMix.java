@@ -0,0 +1,70 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.workload;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Weighted mix of operations, parsed from a specification such as "create:20,read:70,query:10".
+ */
+public class OperationMix {
+
+    private final OperationType[] types;
+    private final int[] cumulativeWeights;
+
+    public OperationMix(String specification) {
+        Map<OperationType, Integer> weights = new EnumMap<>(OperationType.class);
+        for (String entry : specification.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid operation mix entry '" + entry + "', expected <operation>:<weight>");
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Operation weight must not be negative: " + entry);
+            }
+            weights.merge(OperationType.valueOf(parts[0].trim().toUpperCase()), weight, Integer::sum);
+        }
+
+        types = new OperationType[weights.size()];
+        cumulativeWeights = new int[weights.size()];
+        int total = 0;
+        int i = 0;
+        for (Map.Entry<OperationType, Integer> weight : weights.entrySet()) {
+            total += weight.getValue();
+            types[i] = weight.getKey();
+            cumulativeWeights[i] = total;
+            i++;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Operation mix '" + specification + "' has no positive weight");
+        }
+    }
+
+    public OperationType next() {
+        int draw = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return types[i];
+            }
+        }
+        throw new IllegalStateException("unreachable");
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        int previous = 0;
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(types[i].name().toLowerCase()).append(':').append(cumulativeWeights[i] - previous);
+            previous = cumulativeWeights[i];
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,161 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.workload;
+
+import com.azure.cosmos.CosmosException;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms, request charges and error counts of one workload run, per operation type.
+ *
+ * Recording is thread safe and lock free, so all workers of a run share one instance.
+ */
+public class OperationStats {
+
+    protected static Logger logger = LoggerFactory.getLogger(OperationStats.class.getSimpleName());
+
+    private final String name;
+    private final Map<OperationType, Recorder> latencies = new EnumMap<>(OperationType.class);
+    private final Map<OperationType, Histogram> histograms = new EnumMap<>(OperationType.class);
+    private final Map<OperationType, Recorder> successLatencies = new EnumMap<>(OperationType.class);
+    private final Map<OperationType, Histogram> successHistograms = new EnumMap<>(OperationType.class);
+    private final Map<OperationType, DoubleAdder> requestCharges = new EnumMap<>(OperationType.class);
+    private final Map<OperationType, LongAdder> errors = new EnumMap<>(OperationType.class);
+    private final Map<OperationType, LongAdder> throttles = new EnumMap<>(OperationType.class);
+    private long startNanos;
+    private long endNanos;
+
+    public OperationStats(String name) {
+        this.name = name;
+        for (OperationType type : OperationType.values()) {
+            latencies.put(type, new Recorder(3));
+            histograms.put(type, new Histogram(3));
+            successLatencies.put(type, new Recorder(3));
+            successHistograms.put(type, new Histogram(3));
+            requestCharges.put(type, new DoubleAdder());
+            errors.put(type, new LongAdder());
+            throttles.put(type, new LongAdder());
+        }
+    }
+
+    public void start() {
+        startNanos = System.nanoTime();
+    }
+
+    public void stop() {
+        endNanos = System.nanoTime();
+        for (OperationType type : OperationType.values()) {
+            histograms.get(type).add(latencies.get(type).getIntervalHistogram());
+            successHistograms.get(type).add(successLatencies.get(type).getIntervalHistogram());
+        }
+    }
+
+    public void recordSuccess(OperationType type, long startNanos, double requestCharge) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        latencies.get(type).recordValue(micros);
+        successLatencies.get(type).recordValue(micros);
+        requestCharges.get(type).add(requestCharge);
+    }
+
+    public void recordFailure(OperationType type, long startNanos, Throwable error) {
+        latencies.get(type).recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos));
+        errors.get(type).increment();
+        if (error instanceof CosmosException) {
+            CosmosException cosmosException = (CosmosException) error;
+            requestCharges.get(type).add(cosmosException.getRequestCharge());
+            if (cosmosException.getStatusCode() == 429) {
+                throttles.get(type).increment();
+            }
+        }
+    }
+
+    /**
+     * @return latencies in microseconds of the operations of the type, failed ones included.
+     */
+    public Histogram getHistogram(OperationType type) {
+        return histograms.get(type);
+    }
+
+    /**
+     * @return latencies in microseconds of the successful operations of the type.
+     */
+    public Histogram getSuccessHistogram(OperationType type) {
+        return successHistograms.get(type);
+    }
+
+    public long getErrorCount(OperationType type) {
+        return errors.get(type).sum();
+    }
+
+    public double getRequestCharge(OperationType type) {
+        return requestCharges.get(type).sum();
+    }
+
+    public double getElapsedSeconds() {
+        return (endNanos - startNanos) / 1e9;
+    }
+
+    /**
+     * Logs one line per operation type with throughput, latency percentiles in milliseconds and request units.
+     */
+    public void logReport() {
+        double seconds = getElapsedSeconds();
+        logger.info("{} run of {} s", name, String.format("%.1f", seconds));
+        logger.info(String.format("%-9s %10s %9s %8s %8s %8s %8s %8s %10s %8s %7s %6s",
+            "op", "count", "ops/s", "p50", "p90", "p99", "p99.9", "max", "RU", "RU/op", "errors", "429s"));
+        for (OperationType type : OperationType.values()) {
+            Histogram histogram = histograms.get(type);
+            long count = histogram.getTotalCount();
+            if (count == 0) {
+                continue;
+            }
+            double charge = requestCharges.get(type).sum();
+            logger.info(String.format("%-9s %10d %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f %10.1f %8.2f %7d %6d",
+                type.name().toLowerCase(), count, count / seconds,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0,
+                charge, charge / count,
+                errors.get(type).sum(), throttles.get(type).sum()));
+        }
+    }
+
+    /**
+     * Writes the full percentile distribution of every operation type, in milliseconds, as
+     * &lt;directory&gt;/&lt;name&gt;-&lt;operation&gt;.hgrm files that HdrHistogram plotters can read.
+     *
+     * @param directory directory to write the files to.
+     * @throws FileNotFoundException if a file cannot be created.
+     */
+    public void export(File directory) throws FileNotFoundException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new FileNotFoundException("Cannot create report directory " + directory);
+        }
+        for (OperationType type : OperationType.values()) {
+            Histogram histogram = histograms.get(type);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            File file = new File(directory, name + "-" + type.name().toLowerCase() + ".hgrm");
+            try (PrintStream out = new PrintStream(file)) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+            logger.info("Wrote {}", file);
+        }
+    }
+}
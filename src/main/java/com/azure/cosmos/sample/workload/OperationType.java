@@ -0,0 +1,20 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.workload;
+
+/**
+ * Operations a workload can issue against FamilyContainer.
+ */
+public enum OperationType {
+    //  createItem of a newly generated family
+    CREATE,
+    //  readItem of a family created during preload
+    READ,
+    //  single partition query by lastName
+    QUERY,
+    //  readMany of WORKLOAD_READ_MANY_SIZE families created during preload
+    READ_MANY,
+    //  transactional batch creating WORKLOAD_BATCH_SIZE new families of one lastName
+    BATCH
+}
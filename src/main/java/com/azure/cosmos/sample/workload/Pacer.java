@@ -0,0 +1,42 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.workload;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out the intended start time of each operation for a target rate.
+ *
+ * Latencies are measured from the intended start rather than from the moment the operation was actually issued.
+ * When the client falls behind the schedule, the time an operation spent waiting for its turn is part of its latency,
+ * which avoids the coordinated omission of closed-loop load generators.
+ */
+class Pacer {
+
+    private final long startNanos;
+    private final long intervalNanos;
+    private final AtomicLong issued = new AtomicLong();
+
+    /**
+     * @param operationsPerSecond target rate, 0 or less for no pacing.
+     */
+    Pacer(double operationsPerSecond) {
+        this.startNanos = System.nanoTime();
+        this.intervalNanos = operationsPerSecond > 0 ? (long) (1e9 / operationsPerSecond) : 0;
+    }
+
+    boolean isPaced() {
+        return intervalNanos > 0;
+    }
+
+    /**
+     * @return the System.nanoTime() at which the next operation should start, now when not paced.
+     */
+    long nextIntendedStartNanos() {
+        if (!isPaced()) {
+            return System.nanoTime();
+        }
+        return startNanos + issued.getAndIncrement() * intervalNanos;
+    }
+}
@@ -0,0 +1,123 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.workload;
+
+import com.azure.cosmos.CosmosAsyncClient;
+import com.azure.cosmos.CosmosAsyncContainer;
+import com.azure.cosmos.CosmosException;
+import com.azure.cosmos.models.CosmosItemRequestOptions;
+import com.azure.cosmos.models.CosmosItemResponse;
+import com.azure.cosmos.sample.async.BoundedPipeline;
+import com.azure.cosmos.sample.common.ClientBuilderFactory;
+import com.azure.cosmos.sample.common.Family;
+import com.azure.cosmos.sample.common.FamilyGenerator;
+import com.azure.cosmos.sample.common.WorkloadSettings;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tuning mode for the AsyncMain pipelines: runs the same number of reads or creates through a
+ * {@link BoundedPipeline} at increasing in-flight depths and reports throughput, latency and throttling for each.
+ *
+ * Throughput grows with the depth until the client, the network or the provisioned throughput saturates, after
+ * which a deeper pipeline only adds latency and 429s; ASYNC_CONCURRENCY is best set near the knee of that curve.
+ * The depths, the number of operations per depth and the operation are passed as arguments:
+ * mvn exec:java@pipeline-tuning -Dexec.args="[1,2,4,8,16,32,64] [operations] [read|create]"
+ */
+public class PipelineTuning {
+
+    protected static Logger logger = LoggerFactory.getLogger(PipelineTuning.class.getSimpleName());
+
+    public static void main(String[] args) {
+        String[] depths = (args.length > 0 ? args[0] : "1,2,4,8,16,32,64").split(",");
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        boolean create = args.length > 2 && "create".equals(args[2]);
+
+        try (CosmosAsyncClient client = ClientBuilderFactory.newClientBuilder().buildAsyncClient()) {
+            CosmosAsyncContainer container = WorkloadMain.createContainerIfNotExists(client);
+            WorkloadData data = new WorkloadData(new FamilyGenerator(WorkloadSettings.WORKLOAD_SEED,
+                WorkloadSettings.WORKLOAD_PRELOAD_COUNT, WorkloadSettings.WORKLOAD_LAST_NAME_COUNT, WorkloadSettings.WORKLOAD_SKEW));
+            if (!create) {
+                WorkloadMain.preload(container, data);
+            }
+
+            logger.info("{} {} operations per depth, prefetch {}, scheduler {}", operations, create ? "create" : "read",
+                WorkloadSettings.ASYNC_PREFETCH, WorkloadSettings.ASYNC_SCHEDULER);
+            logger.info(String.format("%6s %9s %10s %9s %9s %9s %8s %8s", "depth", "in flight", "ops/s", "p50 ms", "p99 ms", "RU/s", "429s", "errors"));
+            for (String depth : depths) {
+                BoundedPipeline pipeline = new BoundedPipeline(Integer.parseInt(depth.trim()),
+                    WorkloadSettings.ASYNC_PREFETCH, BoundedPipeline.scheduler(WorkloadSettings.ASYNC_SCHEDULER));
+                run(pipeline, container, data, operations, create);
+            }
+        } catch (Exception e) {
+            logger.error("Tuning failed with", e);
+        }
+        System.exit(0);
+    }
+
+    private static void run(BoundedPipeline pipeline, CosmosAsyncContainer container, WorkloadData data,
+                            int operations, boolean create) {
+        Histogram latencies = new Histogram(3);
+        AtomicLong throttled = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        double[] requestCharge = new double[1];
+
+        //  The families are generated lazily, only as fast as the pipeline asks for them
+        Flux<Family> families = Flux.range(0, operations).map(i -> create ? data.newFamily() : data.existingFamily());
+
+        long start = System.nanoTime();
+        pipeline.execute(families, family -> timed(create
+                ? container.createItem(family, WorkloadData.partitionKey(family), new CosmosItemRequestOptions())
+                : container.readItem(family.getId(), WorkloadData.partitionKey(family), Family.class))
+                .onErrorResume(err -> {
+                    if (err instanceof CosmosException && ((CosmosException) err).getStatusCode() == 429) {
+                        throttled.incrementAndGet();
+                    } else {
+                        errors.incrementAndGet();
+                    }
+                    return Mono.empty();
+                }))
+            .doOnNext(result -> {
+                //  Handled on the pipeline scheduler, one response at a time
+                latencies.recordValue(result.latencyMicros);
+                requestCharge[0] += result.requestCharge;
+            })
+            .blockLast();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        logger.info(String.format("%6d %9d %10.1f %9.2f %9.2f %9.1f %8d %8d",
+            pipeline.getConcurrency(),
+            pipeline.getMaxInFlight(),
+            operations / seconds,
+            latencies.getValueAtPercentile(50) / 1000.0,
+            latencies.getValueAtPercentile(99) / 1000.0,
+            requestCharge[0] / seconds,
+            throttled.get(),
+            errors.get()));
+    }
+
+    private static Mono<TimedResponse> timed(Mono<? extends CosmosItemResponse<?>> operation) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return operation.map(response -> new TimedResponse(
+                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start), response.getRequestCharge()));
+        });
+    }
+
+    private static final class TimedResponse {
+        private final long latencyMicros;
+        private final double requestCharge;
+
+        private TimedResponse(long latencyMicros, double requestCharge) {
+            this.latencyMicros = latencyMicros;
+            this.requestCharge = requestCharge;
+        }
+    }
+}
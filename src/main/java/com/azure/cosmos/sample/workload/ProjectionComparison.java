@@ -0,0 +1,117 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.workload;
+
+import com.azure.cosmos.CosmosAsyncClient;
+import com.azure.cosmos.CosmosAsyncContainer;
+import com.azure.cosmos.models.CosmosQueryRequestOptions;
+import com.azure.cosmos.models.FeedResponse;
+import com.azure.cosmos.models.SqlParameter;
+import com.azure.cosmos.models.SqlQuerySpec;
+import com.azure.cosmos.sample.common.ClientBuilderFactory;
+import com.azure.cosmos.sample.common.FamilyGenerator;
+import com.azure.cosmos.sample.common.FamilyProjection;
+import com.azure.cosmos.sample.common.WorkloadSettings;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares querying whole families with SELECT * against the projections of {@link FamilyProjection}.
+ *
+ * Every projection runs the same lastName queries, one at a time, and reports per query the request charge, the
+ * latency, the process CPU time, and the JSON payload size, measured by running the queries once more for JSON
+ * trees. The client CPU cost of binding the payloads alone is measured offline by ProjectionBenchmark.
+ * The number of queries is passed as argument: mvn exec:java@projection-comparison -Dexec.args="[queries]"
+ */
+public class ProjectionComparison {
+
+    protected static Logger logger = LoggerFactory.getLogger(ProjectionComparison.class.getSimpleName());
+
+    public static void main(String[] args) {
+        int queries = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+
+        try (CosmosAsyncClient client = ClientBuilderFactory.newClientBuilder().buildAsyncClient()) {
+            CosmosAsyncContainer container = WorkloadMain.createContainerIfNotExists(client);
+            WorkloadData data = new WorkloadData(new FamilyGenerator(WorkloadSettings.WORKLOAD_SEED,
+                WorkloadSettings.WORKLOAD_PRELOAD_COUNT, WorkloadSettings.WORKLOAD_LAST_NAME_COUNT, WorkloadSettings.WORKLOAD_SKEW));
+            WorkloadMain.preload(container, data);
+
+            List<String> lastNames = new ArrayList<>(queries);
+            for (int i = 0; i < queries; i++) {
+                lastNames.add(data.existingFamily().getLastName());
+            }
+
+            logger.info(String.format("%-8s %10s %12s %10s %12s", "select", "RU/query", "bytes/query", "p50 ms", "CPU ms/query"));
+            for (FamilyProjection<?> projection : Arrays.asList(FamilyProjection.ALL, FamilyProjection.SUMMARY, FamilyProjection.ID)) {
+                compare(container, projection, lastNames);
+            }
+        } catch (Exception e) {
+            logger.error("Comparison failed with", e);
+        }
+        System.exit(0);
+    }
+
+    private static void compare(CosmosAsyncContainer container, FamilyProjection<?> projection, List<String> lastNames) {
+        //  Warm up the query plans and the deserializers
+        for (String lastName : lastNames.subList(0, Math.min(10, lastNames.size()))) {
+            run(container, query(projection, lastName), projection.getResultType());
+        }
+
+        Histogram latencies = new Histogram(3);
+        double requestCharge = 0;
+        long cpuStart = processCpuNanos();
+        for (String lastName : lastNames) {
+            long start = System.nanoTime();
+            requestCharge += run(container, query(projection, lastName), projection.getResultType());
+            latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        }
+        long cpuNanos = processCpuNanos() - cpuStart;
+
+        long payloadBytes = 0;
+        for (String lastName : lastNames) {
+            for (FeedResponse<JsonNode> page : container.queryItems(query(projection, lastName),
+                    new CosmosQueryRequestOptions(), JsonNode.class).byPage().toIterable()) {
+                for (JsonNode node : page.getResults()) {
+                    payloadBytes += node.toString().getBytes(StandardCharsets.UTF_8).length;
+                }
+            }
+        }
+
+        int queries = lastNames.size();
+        logger.info(String.format("%-8s %10.2f %12d %10.2f %12.3f",
+            projection == FamilyProjection.ALL ? "*" : projection == FamilyProjection.ID ? "id" : "summary",
+            requestCharge / queries, payloadBytes / queries, latencies.getValueAtPercentile(50) / 1000.0,
+            cpuNanos / 1e6 / queries));
+    }
+
+    private static SqlQuerySpec query(FamilyProjection<?> projection, String lastName) {
+        return projection.query("f.lastName = @lastName",
+            Collections.singletonList(new SqlParameter("@lastName", lastName)));
+    }
+
+    private static <T> double run(CosmosAsyncContainer container, SqlQuerySpec query, Class<T> resultType) {
+        return container.queryItems(query, new CosmosQueryRequestOptions(), resultType)
+            .byPage()
+            .map(FeedResponse::getRequestCharge)
+            .reduce(0.0, Double::sum)
+            .block();
+    }
+
+    private static long processCpuNanos() {
+        java.lang.management.OperatingSystemMXBean bean = ManagementFactory.getOperatingSystemMXBean();
+        return bean instanceof com.sun.management.OperatingSystemMXBean
+            ? ((com.sun.management.OperatingSystemMXBean) bean).getProcessCpuTime()
+            : 0;
+    }
+}
@@ -0,0 +1,93 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.workload;
+
+import com.azure.cosmos.CosmosAsyncClient;
+import com.azure.cosmos.CosmosAsyncContainer;
+import com.azure.cosmos.models.CosmosItemIdentity;
+import com.azure.cosmos.sample.async.BatchedAsyncItemReader;
+import com.azure.cosmos.sample.common.ClientBuilderFactory;
+import com.azure.cosmos.sample.common.Family;
+import com.azure.cosmos.sample.common.FamilyGenerator;
+import com.azure.cosmos.sample.common.ReadManyBatches;
+import com.azure.cosmos.sample.common.WorkloadSettings;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading a page of items with one readItem call per item against readMany calls.
+ *
+ * Each round picks random preloaded families and reads them both ways, with the same concurrency. The latency of
+ * the whole page and the request charge are reported for both.
+ * Configured with READ_MANY_CHUNK_SIZE, READ_MANY_CONCURRENCY and the WORKLOAD_* settings; the page size and the
+ * number of rounds are passed as arguments: mvn exec:java@read-many-comparison -Dexec.args="[pageSize] [rounds]"
+ */
+public class ReadManyComparison {
+
+    protected static Logger logger = LoggerFactory.getLogger(ReadManyComparison.class.getSimpleName());
+
+    public static void main(String[] args) {
+        int pageSize = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int chunkSize = WorkloadSettings.READ_MANY_CHUNK_SIZE > 0 ? WorkloadSettings.READ_MANY_CHUNK_SIZE : 100;
+        int concurrency = WorkloadSettings.READ_MANY_CONCURRENCY;
+
+        try (CosmosAsyncClient client = ClientBuilderFactory.newClientBuilder().buildAsyncClient()) {
+            CosmosAsyncContainer container = WorkloadMain.createContainerIfNotExists(client);
+            WorkloadData data = new WorkloadData(new FamilyGenerator(WorkloadSettings.WORKLOAD_SEED,
+                WorkloadSettings.WORKLOAD_PRELOAD_COUNT, WorkloadSettings.WORKLOAD_LAST_NAME_COUNT, WorkloadSettings.WORKLOAD_SKEW));
+            WorkloadMain.preload(container, data);
+
+            BatchedAsyncItemReader<Family> reader = new BatchedAsyncItemReader<>(container, Family.class,
+                ReadManyBatches::identityOf, chunkSize, concurrency);
+            Histogram loopLatencies = new Histogram(3);
+            Histogram readManyLatencies = new Histogram(3);
+            double loopCharge = 0;
+            double readManyCharge = 0;
+
+            for (int round = 0; round < rounds; round++) {
+                List<CosmosItemIdentity> identities = new ArrayList<>(pageSize);
+                for (int i = 0; i < pageSize; i++) {
+                    identities.add(ReadManyBatches.identityOf(data.existingFamily()));
+                }
+
+                long start = System.nanoTime();
+                Double charge = Flux.fromIterable(identities)
+                    .flatMap(identity -> container.readItem(identity.getId(), identity.getPartitionKey(), Family.class), concurrency)
+                    .map(response -> response.getRequestCharge())
+                    .reduce(0.0, Double::sum)
+                    .block();
+                loopLatencies.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                loopCharge += charge;
+
+                start = System.nanoTime();
+                ReadManyBatches.Result<Family> result = reader.readItems(identities).block();
+                readManyLatencies.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                readManyCharge += result.getRequestCharge();
+            }
+
+            logger.info("{} rounds of {} items, concurrency {}, readMany chunks of {}", rounds, pageSize, concurrency, chunkSize);
+            log("readItem loop", loopLatencies, loopCharge / rounds);
+            log("readMany", readManyLatencies, readManyCharge / rounds);
+        } catch (Exception e) {
+            logger.error("Comparison failed with", e);
+        }
+        System.exit(0);
+    }
+
+    private static void log(String name, Histogram latencies, double requestChargePerPage) {
+        logger.info(String.format("%-14s page latency ms p50 %.2f p99 %.2f max %.2f, %.2f RU per page",
+            name,
+            latencies.getValueAtPercentile(50) / 1000.0,
+            latencies.getValueAtPercentile(99) / 1000.0,
+            latencies.getMaxValue() / 1000.0,
+            requestChargePerPage));
+    }
+}
@@ -0,0 +1,111 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.workload;
+
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.models.CosmosBatch;
+import com.azure.cosmos.models.CosmosBatchResponse;
+import com.azure.cosmos.models.CosmosItemRequestOptions;
+import com.azure.cosmos.models.FeedResponse;
+import com.azure.cosmos.sample.common.Family;
+import com.azure.cosmos.sample.common.QueryPlanStats;
+import com.azure.cosmos.sample.common.ReadHedging;
+import com.azure.cosmos.sample.common.WorkloadSettings;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a workload through the blocking CosmosClient, with one platform thread per concurrent operation.
+ */
+public class SyncWorkload {
+
+    private final CosmosContainer container;
+    private final WorkloadData data;
+    private final OperationMix mix;
+
+    SyncWorkload(CosmosContainer container, WorkloadData data, OperationMix mix) {
+        this.container = container;
+        this.data = data;
+        this.mix = mix;
+    }
+
+    public void run(int concurrency, double operationsPerSecond, long durationSeconds, OperationStats stats)
+        throws InterruptedException {
+
+        Pacer pacer = new Pacer(operationsPerSecond);
+        long deadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+
+        stats.start();
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(() -> {
+                long startNanos;
+                while ((startNanos = pacer.nextIntendedStartNanos()) < deadlineNanos) {
+                    long waitNanos = startNanos - System.nanoTime();
+                    if (waitNanos > 0) {
+                        LockSupport.parkNanos(waitNanos);
+                    }
+                    execute(mix.next(), startNanos, stats);
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(durationSeconds + 60, TimeUnit.SECONDS);
+        stats.stop();
+    }
+
+    private void execute(OperationType type, long startNanos, OperationStats stats) {
+        try {
+            stats.recordSuccess(type, startNanos, execute(type));
+        } catch (RuntimeException e) {
+            stats.recordFailure(type, startNanos, e);
+        }
+    }
+
+    private double execute(OperationType type) {
+        switch (type) {
+            case CREATE:
+                Family newFamily = data.newFamily();
+                return container.createItem(newFamily, WorkloadData.partitionKey(newFamily), new CosmosItemRequestOptions())
+                    .getRequestCharge();
+            case READ:
+                Family family = data.existingFamily();
+                return container.readItem(family.getId(), WorkloadData.partitionKey(family), ReadHedging.itemRequestOptions(), Family.class)
+                    .getRequestCharge();
+            case QUERY:
+                double requestCharge = 0;
+                Family queried = data.existingFamily();
+                boolean firstPage = true;
+                for (FeedResponse<Family> page : container.queryItems(WorkloadData.lastNameQuery(queried),
+                        WorkloadData.lastNameQueryOptions(queried), Family.class).iterableByPage()) {
+                    if (firstPage) {
+                        QueryPlanStats.getDefault().record(page);
+                        firstPage = false;
+                    }
+                    requestCharge += page.getRequestCharge();
+                }
+                return requestCharge;
+            case READ_MANY:
+                return container.readMany(data.existingIdentities(WorkloadSettings.WORKLOAD_READ_MANY_SIZE), Family.class)
+                    .getRequestCharge();
+            case BATCH:
+                List<Family> families = data.newFamilies(WorkloadSettings.WORKLOAD_BATCH_SIZE);
+                CosmosBatch batch = CosmosBatch.createCosmosBatch(WorkloadData.partitionKey(families.get(0)));
+                for (Family batched : families) {
+                    batch.createItemOperation(batched);
+                }
+                CosmosBatchResponse response = container.executeCosmosBatch(batch);
+                if (!response.isSuccessStatusCode()) {
+                    throw new IllegalStateException("Batch failed with status " + response.getStatusCode());
+                }
+                return response.getRequestCharge();
+            default:
+                throw new IllegalArgumentException("Unsupported operation " + type);
+        }
+    }
+}
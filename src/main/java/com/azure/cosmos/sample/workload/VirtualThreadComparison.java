@@ -0,0 +1,131 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.workload;
+
+import com.azure.cosmos.CosmosAsyncClient;
+import com.azure.cosmos.CosmosAsyncContainer;
+import com.azure.cosmos.CosmosClient;
+import com.azure.cosmos.CosmosContainer;
+import com.azure.cosmos.CosmosException;
+import com.azure.cosmos.models.CosmosItemRequestOptions;
+import com.azure.cosmos.models.CosmosItemResponse;
+import com.azure.cosmos.sample.common.ClientBuilderFactory;
+import com.azure.cosmos.sample.common.Family;
+import com.azure.cosmos.sample.common.FamilyGenerator;
+import com.azure.cosmos.sample.common.WorkloadSettings;
+import com.azure.cosmos.sample.sync.ConcurrentOperations;
+import com.azure.cosmos.sample.sync.SyncExecutors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.function.Function;
+
+/**
+ * Compares creating and reading items with the blocking client fanned out over platform threads and over virtual
+ * threads against the reactive pipelines of the async client, all with the same concurrency cap.
+ *
+ * Virtual threads are skipped unless the sample was built with -Pjava21 and runs on Java 21.
+ * Configured with the WORKLOAD_* settings; the number of items and the concurrency are passed as arguments:
+ * mvn exec:java@virtual-thread-comparison -Dexec.args="[items] [concurrency]"
+ */
+public class VirtualThreadComparison {
+
+    protected static Logger logger = LoggerFactory.getLogger(VirtualThreadComparison.class.getSimpleName());
+
+    public static void main(String[] args) {
+        int items = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+
+        try (CosmosAsyncClient asyncClient = ClientBuilderFactory.newClientBuilder().buildAsyncClient();
+             CosmosClient client = ClientBuilderFactory.newClientBuilder().buildClient()) {
+            CosmosAsyncContainer asyncContainer = WorkloadMain.createContainerIfNotExists(asyncClient);
+            CosmosContainer container = client.getDatabase(WorkloadMain.DATABASE_NAME).getContainer(WorkloadMain.CONTAINER_NAME);
+            WorkloadData data = new WorkloadData(new FamilyGenerator(WorkloadSettings.WORKLOAD_SEED,
+                WorkloadSettings.WORKLOAD_PRELOAD_COUNT, WorkloadSettings.WORKLOAD_LAST_NAME_COUNT, WorkloadSettings.WORKLOAD_SKEW));
+
+            logger.info("{} items per run, concurrency {}", items, concurrency);
+            runSync("sync platform", false, container, data, items, concurrency);
+            try {
+                runSync("sync virtual", true, container, data, items, concurrency);
+            } catch (IllegalStateException e) {
+                logger.warn("Skipping virtual threads: {}", e.getMessage());
+            }
+            runAsync("async", asyncContainer, data, items, concurrency);
+        } catch (Exception e) {
+            logger.error("Comparison failed with", e);
+        }
+        System.exit(0);
+    }
+
+    private static void runSync(String name, boolean virtualThreads, CosmosContainer container, WorkloadData data,
+                                int items, int concurrency) throws InterruptedException {
+        ExecutorService executor = SyncExecutors.newExecutor(virtualThreads, concurrency);
+        try {
+            ConcurrentOperations operations = new ConcurrentOperations(executor, concurrency);
+            List<Family> families = newFamilies(data, items);
+
+            ConcurrentOperations.Result created = operations.run("Create item", families,
+                family -> container.createItem(family, WorkloadData.partitionKey(family), new CosmosItemRequestOptions()));
+            log(name, "create", created.getSucceeded(), created.getFailed(), created.getRequestCharge(), created.getElapsedNanos());
+
+            ConcurrentOperations.Result read = operations.run("Read item", families,
+                family -> container.readItem(family.getId(), WorkloadData.partitionKey(family), Family.class));
+            log(name, "read", read.getSucceeded(), read.getFailed(), read.getRequestCharge(), read.getElapsedNanos());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void runAsync(String name, CosmosAsyncContainer container, WorkloadData data, int items, int concurrency) {
+        List<Family> families = newFamilies(data, items);
+        runAsync(name, "create", families, concurrency,
+            family -> container.createItem(family, WorkloadData.partitionKey(family), new CosmosItemRequestOptions()));
+        runAsync(name, "read", families, concurrency,
+            family -> container.readItem(family.getId(), WorkloadData.partitionKey(family), Family.class));
+    }
+
+    private static void runAsync(String name, String operation, List<Family> families, int concurrency,
+                                 Function<Family, Mono<CosmosItemResponse<Family>>> call) {
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        DoubleAdder requestCharge = new DoubleAdder();
+        long start = System.nanoTime();
+        Flux.fromIterable(families)
+            .flatMap(family -> call.apply(family)
+                .doOnNext(response -> {
+                    succeeded.incrementAndGet();
+                    requestCharge.add(response.getRequestCharge());
+                })
+                .onErrorResume(err -> {
+                    failed.incrementAndGet();
+                    if (err instanceof CosmosException) {
+                        requestCharge.add(((CosmosException) err).getRequestCharge());
+                    }
+                    logger.error("{} {} failed with", name, operation, err);
+                    return Mono.empty();
+                }), concurrency)
+            .blockLast();
+        log(name, operation, succeeded.get(), failed.get(), requestCharge.sum(), System.nanoTime() - start);
+    }
+
+    private static List<Family> newFamilies(WorkloadData data, int items) {
+        List<Family> families = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            families.add(data.newFamily());
+        }
+        return families;
+    }
+
+    private static void log(String name, String operation, long succeeded, long failed, double requestCharge, long elapsedNanos) {
+        logger.info(String.format("%-14s %-6s %,10.1f ops/s, %d succeeded, %d failed, %.2f RU",
+            name, operation, (succeeded + failed) * 1e9 / elapsedNanos, succeeded, failed, requestCharge));
+    }
+}
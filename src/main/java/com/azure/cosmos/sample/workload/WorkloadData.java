@@ -0,0 +1,92 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.workload;
+
+import com.azure.cosmos.models.CosmosItemIdentity;
+import com.azure.cosmos.models.CosmosQueryRequestOptions;
+import com.azure.cosmos.models.PartitionKey;
+import com.azure.cosmos.models.SqlParameter;
+import com.azure.cosmos.models.SqlQuerySpec;
+import com.azure.cosmos.sample.common.Family;
+import com.azure.cosmos.sample.common.FamilyGenerator;
+import com.azure.cosmos.sample.common.FamilyIdGenerator;
+import com.azure.cosmos.sample.common.ParameterizedQueries;
+import com.azure.cosmos.sample.common.ReadHedging;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Items a workload operates on.
+ *
+ * The preloaded families are the first items of a {@link FamilyGenerator}, so reads and queries can pick any of
+ * them by index without keeping them in memory. Created families come from the same generator with a fresh id, so
+ * repeated runs never conflict.
+ */
+class WorkloadData {
+
+    private final FamilyGenerator generator;
+
+    WorkloadData(FamilyGenerator generator) {
+        this.generator = generator;
+    }
+
+    FamilyGenerator getGenerator() {
+        return generator;
+    }
+
+    Family existingFamily() {
+        return generator.familyAt(ThreadLocalRandom.current().nextLong(generator.getCount()));
+    }
+
+    Family newFamily() {
+        Family family = existingFamily();
+        family.setId(FamilyIdGenerator.getDefault().nextId(family.getLastName()));
+        return family;
+    }
+
+    List<CosmosItemIdentity> existingIdentities(int count) {
+        List<CosmosItemIdentity> identities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Family family = existingFamily();
+            identities.add(new CosmosItemIdentity(partitionKey(family), family.getId()));
+        }
+        return identities;
+    }
+
+    /**
+     * @return new families sharing the lastName of the first one, so they can be created in one batch.
+     */
+    List<Family> newFamilies(int count) {
+        List<Family> families = new ArrayList<>(count);
+        Family first = newFamily();
+        families.add(first);
+        for (int i = 1; i < count; i++) {
+            Family family = existingFamily();
+            family.setLastName(first.getLastName());
+            family.setId(FamilyIdGenerator.getDefault().nextId(family.getLastName()));
+            families.add(family);
+        }
+        return families;
+    }
+
+    static PartitionKey partitionKey(Family family) {
+        return new PartitionKey(family.getLastName());
+    }
+
+    static SqlQuerySpec lastNameQuery(Family family) {
+        return ParameterizedQueries.bind("SELECT * FROM Family f WHERE f.lastName = @lastName",
+            Collections.singletonList(new SqlParameter("@lastName", family.getLastName())));
+    }
+
+    /**
+     * Scopes the query to the partition of the family, so it runs against that partition only instead of fanning
+     * out to every partition of the container.
+     */
+    static CosmosQueryRequestOptions lastNameQueryOptions(Family family) {
+        return ReadHedging.apply(new CosmosQueryRequestOptions()).setPartitionKey(partitionKey(family));
+    }
+}
@@ -0,0 +1,164 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.workload;
+
+import com.azure.cosmos.CosmosAsyncClient;
+import com.azure.cosmos.CosmosAsyncContainer;
+import com.azure.cosmos.CosmosAsyncDatabase;
+import com.azure.cosmos.CosmosClient;
+import com.azure.cosmos.models.CosmosContainerProperties;
+import com.azure.cosmos.models.CosmosItemRequestOptions;
+import com.azure.cosmos.models.ThroughputProperties;
+import com.azure.cosmos.sample.common.AccountSettings;
+import com.azure.cosmos.sample.common.ClientBuilderFactory;
+import com.azure.cosmos.sample.common.Family;
+import com.azure.cosmos.sample.common.FamilyGenerator;
+import com.azure.cosmos.sample.common.QueryPlanStats;
+import com.azure.cosmos.sample.common.ReadHedging;
+import com.azure.cosmos.sample.common.WorkloadSettings;
+import com.azure.cosmos.sample.metrics.CosmosMetrics;
+import com.azure.cosmos.sample.metrics.HedgingStats;
+import com.azure.cosmos.sample.offline.InMemoryItemStore;
+import com.azure.cosmos.sample.offline.LatencyDistribution;
+import com.azure.cosmos.sample.store.CosmosItemStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Runs a configurable mix of create, read and query operations through the sync and/or the async client and
+ * reports latency percentiles and request units per operation type.
+ *
+ * Both clients run the same workload against the same preloaded items one after the other, so their reports can
+ * be compared directly. The workload is configured with the WORKLOAD_* settings of {@link WorkloadSettings}.
+ *
+ * With WORKLOAD_OFFLINE the async workload runs against an {@link InMemoryItemStore} configured with the OFFLINE_*
+ * settings instead, without a Cosmos DB account.
+ */
+public class WorkloadMain {
+
+    public static final String DATABASE_NAME = "AzureSampleFamilyDB";
+    public static final String CONTAINER_NAME = "FamilyContainer";
+
+    protected static Logger logger = LoggerFactory.getLogger(WorkloadMain.class.getSimpleName());
+
+    public static void main(String[] args) {
+        try {
+            new WorkloadMain().run();
+        } catch (Exception e) {
+            logger.error("Workload failed with", e);
+        }
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        OperationMix mix = new OperationMix(WorkloadSettings.WORKLOAD_MIX);
+        WorkloadData data = new WorkloadData(new FamilyGenerator(WorkloadSettings.WORKLOAD_SEED,
+            WorkloadSettings.WORKLOAD_PRELOAD_COUNT, WorkloadSettings.WORKLOAD_LAST_NAME_COUNT, WorkloadSettings.WORKLOAD_SKEW));
+
+        logger.info("Running mix {} with concurrency {}, target rate {} ops/s for {} s",
+            mix, WorkloadSettings.WORKLOAD_CONCURRENCY, WorkloadSettings.WORKLOAD_TARGET_RATE,
+            WorkloadSettings.WORKLOAD_DURATION_SECONDS);
+
+        if (WorkloadSettings.WORKLOAD_OFFLINE) {
+            runOffline(data, mix);
+            return;
+        }
+
+        logger.info("Using Azure Cosmos DB endpoint: {}", AccountSettings.HOST);
+        try (CosmosAsyncClient asyncClient = ClientBuilderFactory.newClientBuilder().buildAsyncClient()) {
+            CosmosAsyncContainer asyncContainer = createContainerIfNotExists(asyncClient);
+            preload(asyncContainer, data);
+
+            for (String clientType : WorkloadSettings.WORKLOAD_CLIENTS.split(",")) {
+                OperationStats stats = new OperationStats(clientType.trim());
+                switch (clientType.trim()) {
+                    case "sync":
+                        try (CosmosClient client = ClientBuilderFactory.newClientBuilder().buildClient()) {
+                            new SyncWorkload(client.getDatabase(DATABASE_NAME).getContainer(CONTAINER_NAME), data, mix)
+                                .run(WorkloadSettings.WORKLOAD_CONCURRENCY, WorkloadSettings.WORKLOAD_TARGET_RATE,
+                                    WorkloadSettings.WORKLOAD_DURATION_SECONDS, stats);
+                        }
+                        break;
+                    case "async":
+                        new AsyncWorkload(new CosmosItemStore<>(asyncContainer, Family.class), data, mix)
+                            .run(WorkloadSettings.WORKLOAD_CONCURRENCY, WorkloadSettings.WORKLOAD_TARGET_RATE,
+                                WorkloadSettings.WORKLOAD_DURATION_SECONDS, stats);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown client type " + clientType + ", expected sync or async");
+                }
+
+                report(stats);
+            }
+        }
+    }
+
+    private void runOffline(WorkloadData data, OperationMix mix) throws IOException {
+        InMemoryItemStore<Family> store = InMemoryItemStore.builder(Family.class, "/lastName", Schedulers.parallel())
+            .partitions(WorkloadSettings.OFFLINE_PARTITIONS, WorkloadSettings.OFFLINE_RU_PER_SECOND)
+            .latency(LatencyDistribution.logNormal(Duration.ofMillis(WorkloadSettings.OFFLINE_LATENCY_MEDIAN_MILLIS),
+                Duration.ofMillis(WorkloadSettings.OFFLINE_LATENCY_P99_MILLIS)))
+            .faults(WorkloadSettings.OFFLINE_UNAVAILABLE_RATE, WorkloadSettings.OFFLINE_TIMEOUT_RATE,
+                Duration.ofMillis(WorkloadSettings.OFFLINE_TIMEOUT_MILLIS))
+            .seed(WorkloadSettings.WORKLOAD_SEED)
+            .build();
+        logger.info("Preloading {} families into an in-memory container", data.getGenerator().getCount());
+        store.preload(data.getGenerator());
+
+        for (String clientType : WorkloadSettings.WORKLOAD_CLIENTS.split(",")) {
+            if (!"async".equals(clientType.trim())) {
+                logger.info("Skipping the {} client, the in-memory container only serves the async workload", clientType.trim());
+                continue;
+            }
+            OperationStats stats = new OperationStats("offline-async");
+            new AsyncWorkload(store, data, mix)
+                .run(WorkloadSettings.WORKLOAD_CONCURRENCY, WorkloadSettings.WORKLOAD_TARGET_RATE,
+                    WorkloadSettings.WORKLOAD_DURATION_SECONDS, stats);
+            report(stats);
+            logger.info("In-memory container {}", store);
+        }
+    }
+
+    private void report(OperationStats stats) throws IOException {
+        stats.logReport();
+        QueryPlanStats queryPlans = QueryPlanStats.getDefault();
+        if (queryPlans.getFetchedCount() + queryPlans.getCachedCount() + queryPlans.getNoneCount() > 0) {
+            //  Accumulate across the runs, like the metrics
+            logger.info("Query plans {}", queryPlans);
+        }
+        if (WorkloadSettings.METRICS_ENABLED) {
+            //  Metrics accumulate across the runs
+            CosmosMetrics.logSummary(logger);
+        }
+        if (ReadHedging.isEnabled()) {
+            logger.info("Hedging {}", HedgingStats.getDefault());
+        }
+        if (!WorkloadSettings.WORKLOAD_REPORT_DIR.isEmpty()) {
+            stats.export(new File(WorkloadSettings.WORKLOAD_REPORT_DIR));
+        }
+    }
+
+    static CosmosAsyncContainer createContainerIfNotExists(CosmosAsyncClient client) {
+        client.createDatabaseIfNotExists(DATABASE_NAME).block();
+        CosmosAsyncDatabase database = client.getDatabase(DATABASE_NAME);
+        database.createContainerIfNotExists(new CosmosContainerProperties(CONTAINER_NAME, "/lastName"),
+            ThroughputProperties.createManualThroughput(400)).block();
+        return database.getContainer(CONTAINER_NAME);
+    }
+
+    static void preload(CosmosAsyncContainer container, WorkloadData data) {
+        logger.info("Preloading {} families", data.getGenerator().getCount());
+        //  Upsert so the same preload can be repeated by later runs
+        data.getGenerator().toFlux()
+            .flatMap(family -> container.upsertItem(family, WorkloadData.partitionKey(family), new CosmosItemRequestOptions()),
+                WorkloadSettings.WORKLOAD_CONCURRENCY)
+            .then()
+            .block();
+    }
+}
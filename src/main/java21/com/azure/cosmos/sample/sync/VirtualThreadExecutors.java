@@ -0,0 +1,25 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.cosmos.sample.sync;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates executors running every task on a new virtual thread.
+ *
+ * Only compiled by the java21 profile. The rest of the sample stays on Java 8 and finds this class through
+ * {@link SyncExecutors#newExecutor(boolean, int)}.
+ */
+public final class VirtualThreadExecutors {
+
+    private VirtualThreadExecutors() {
+    }
+
+    public static ExecutorService newExecutor() {
+        ThreadFactory threadFactory = Thread.ofVirtual().name("sync-virtual-", 0).factory();
+        return Executors.newThreadPerTaskExecutor(threadFactory);
+    }
+}